@@ -164,6 +164,7 @@ public class Column {
      * 25, 2 | 列类型, 0: 默认导出为文本 1: 导出为图片 2: 超链接
      * 23, 2 | 垂直对齐
      * 21, 3 | 水平对齐
+     * 18, 1 | 根据基数自动判断是否共享字符串 1位
      * </pre></blockquote>
      */
     protected int option;
@@ -183,6 +184,11 @@ public class Column {
      * 单元格边框
      */
     public Border border;
+    /**
+     * 列标识的ASCII字节缓存及对应的列位置
+     */
+    private transient byte[] columnReference;
+    private transient int columnReferenceIndex;
     /**
      * 实例化列信息
      */
@@ -662,6 +668,29 @@ public class Column {
         return this;
     }
 
+    /**
+     * 获取是否根据基数自动判断共享字符串
+     *
+     * @return true: 自动判断
+     */
+    public boolean isAutoShare() {
+        return (option >> 13 & 1) == 1;
+    }
+
+    /**
+     * 设置根据基数自动判断共享字符串，开启后输出协议会对该列前若干个字符串进行基数估算，
+     * 重复率高的列放入共享区，重复率低的列（如订单号）内嵌到工作表，判断结果只作用于当前工作表，
+     * 不会修改{@link #isShare()}，采样期间仍使用{@link #isShare()}的原始设置
+     *
+     * @param autoShare true: 自动判断, false: 使用{@link #setShare(boolean)}指定的值
+     * @return 当前列
+     */
+    public Column setAutoShare(boolean autoShare) {
+        if (autoShare) this.option |= 1 << 13;
+        else this.option &= ~(1 << 13);
+        return this;
+    }
+
     /**
      * 设置当前列统一“格式化”样式
      *
@@ -873,6 +902,25 @@ public class Column {
         return realColIndex;
     }
 
+    /**
+     * 获取列标识的ASCII字节（如{@code AB}），列位置变化后重新计算
+     *
+     * @return 列标识
+     */
+    public byte[] getColumnReference() {
+        byte[] ref = columnReference;
+        if (ref == null || columnReferenceIndex != realColIndex) {
+            int n = realColIndex;
+            char[] chars = new char[3];
+            int len = Sheet.int2Col(n, chars, 0);
+            ref = new byte[len];
+            for (int i = 0; i < len; i++) ref[i] = (byte) chars[i];
+            columnReferenceIndex = n;
+            columnReference = ref;
+        }
+        return ref;
+    }
+
     /**
      * 判断当前列是否“隐藏”
      *
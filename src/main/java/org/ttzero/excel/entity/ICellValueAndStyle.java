@@ -66,6 +66,49 @@ public interface ICellValueAndStyle {
         cell.xf = getStyleIndex(row, hc, e);
     }
 
+    /**
+     * 重置{@code int}类型单元格的值和样式，由编译后的取值器直接调用，仅在当前列没有输出转换器和动态样式时使用。
+     * 默认装箱后调用{@link #reset}，保证覆写了{@link #reset}或{@link #setCellValue}的实现仍然生效，
+     * 内置实现覆写本方法直接写入单元格以避免装箱
+     *
+     * @param row  行信息
+     * @param cell 单元格
+     * @param i    单元格的值
+     * @param hc   当前列的表头
+     */
+    default void resetInt(Row row, Cell cell, int i, Column hc) {
+        // 按列类型装箱
+        Object e;
+        if (hc.getClazz() == short.class) e = (short) i;
+        else if (hc.getClazz() == byte.class) e = (byte) i;
+        else e = i;
+        reset(row, cell, e, hc);
+    }
+
+    /**
+     * 重置{@code long}类型单元格的值和样式，使用场景同{@link #resetInt}
+     *
+     * @param row  行信息
+     * @param cell 单元格
+     * @param l    单元格的值
+     * @param hc   当前列的表头
+     */
+    default void resetLong(Row row, Cell cell, long l, Column hc) {
+        reset(row, cell, l, hc);
+    }
+
+    /**
+     * 重置{@code double}类型单元格的值和样式，使用场景同{@link #resetInt}
+     *
+     * @param row  行信息
+     * @param cell 单元格
+     * @param d    单元格的值
+     * @param hc   当前列的表头
+     */
+    default void resetDouble(Row row, Cell cell, double d, Column hc) {
+        reset(row, cell, hc.getClazz() == float.class ? (Object) (float) d : (Object) d, hc);
+    }
+
     /**
      * 获取单元格样式值，先通过{@code Column}获取基础样式，如果有动态样式转换则将基础样式做为参数进行二次制作
      *
@@ -26,11 +26,15 @@ import org.ttzero.excel.annotation.IgnoreExport;
 import org.ttzero.excel.annotation.MediaColumn;
 import org.ttzero.excel.annotation.StyleDesign;
 import org.ttzero.excel.drawing.PresetPictureEffect;
+import org.ttzero.excel.entity.csv.CSVCellValueAndStyle;
+import org.ttzero.excel.entity.e7.XMLCellValueAndStyle;
+import org.ttzero.excel.entity.e7.XMLZebraLineCellValueAndStyle;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.processor.ConversionProcessor;
 import org.ttzero.excel.processor.Converter;
 import org.ttzero.excel.processor.StyleProcessor;
 import org.ttzero.excel.reader.Cell;
+import org.ttzero.excel.util.AccessorFactory;
 import org.ttzero.excel.util.StringUtil;
 
 import java.beans.IntrospectionException;
@@ -41,6 +45,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -50,6 +55,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 import static org.ttzero.excel.util.ReflectUtil.listDeclaredFieldsUntilJavaPackage;
 import static org.ttzero.excel.util.ReflectUtil.listReadMethods;
@@ -143,6 +153,14 @@ public class ListSheet<T> extends Sheet {
      * 数据产生者，简化分片查询
      */
     protected BiFunction<Integer, T, List<T>> dataSupplier;
+    /**
+     * 预取批数，大于0时在后台线程中预先拉取数据
+     */
+    protected int prefetch;
+    /**
+     * 后台预取器，分页产生的工作表共享同一个预取器
+     */
+    protected transient Prefetcher<List<T>> prefetcher;
 
     /**
      * 设置行级动态样式处理器，作用于整行优先级高于单元格动态样式处理器
@@ -318,6 +336,94 @@ public class ListSheet<T> extends Sheet {
         return this;
     }
 
+    /**
+     * 设置预取批数，开启后{@link #more()}或数据生产者会在后台线程（支持虚拟线程时使用虚拟线程）中执行，
+     * 取数与写文件重叠进行，最多缓存{@code pages}批数据，适用于数据库或远程接口取数较慢的场景。
+     *
+     * <p>注意：开启预取后{@code more}方法运行在非写线程中，覆写{@code more}方法时需要自行维护分页状态，
+     * 不能依赖工作表的当前状态（如{@link #left()}），使用{@link #setData(BiFunction)}设置的数据生产者不受影响，
+     * 传入的已拉取记录数和上一批最后一个对象与同步模式一致</p>
+     *
+     * @param pages 最多缓存的批数，小于等于0时不预取（默认）
+     * @return 当前工作表
+     */
+    public ListSheet<T> setPrefetch(int pages) {
+        this.prefetch = pages;
+        return this;
+    }
+
+    /**
+     * 输出失败时立即停止后台预取线程，不依赖调用方是否调用{@link #close()}，
+     * 预取器保持关闭状态，之后的{@link #pull()}直接返回{@code null}
+     *
+     * @param path 指定保存路径
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void writeTo(Path path) throws IOException {
+        try {
+            super.writeTo(path);
+        } catch (IOException | RuntimeException | Error e) {
+            if (prefetcher != null) prefetcher.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 获取下一批数据，未开启预取时直接调用{@link #more()}，开启预取时从后台预取器中获取
+     *
+     * @return 数组，{@code null}和空数组表示结束
+     */
+    protected List<T> pull() {
+        if (prefetch <= 0) return more();
+        if (prefetcher == null) {
+            prefetcher = new Prefetcher<>("eec-prefetch-" + name, prefetch, prefetchSource()).start();
+        }
+        return prefetcher.take();
+    }
+
+    /**
+     * 创建预取数据源，未覆写{@link #more()}时直接调用数据生产者并在后台线程中维护已拉取记录数和最后一个对象
+     *
+     * @return 数据源
+     */
+    private Supplier<List<T>> prefetchSource() {
+        if (dataSupplier == null || isMoreOverridden()) return () -> {
+            List<T> list = more();
+            return list != null && !list.isEmpty() ? list : null;
+        };
+        // 初始值与同步模式一致
+        int offset0 = left() + (rowBlock != null ? rowBlock.getTotal() : 0)
+            + (copySheet ? copyCount * workbook.getSheetAt(id - 2).size() : 0);
+        T last0 = data != null && !data.isEmpty() ? data.get(data.size() - 1) : null;
+        BiFunction<Integer, T, List<T>> supplier = dataSupplier;
+        return new Supplier<List<T>>() {
+            int offset = offset0;
+            T last = last0;
+
+            @Override
+            public List<T> get() {
+                List<T> list = supplier.apply(offset, last);
+                if (list == null || list.isEmpty()) return null;
+                offset += list.size();
+                last = list.get(list.size() - 1);
+                return list;
+            }
+        };
+    }
+
+    private boolean isMoreOverridden() {
+        for (Class<?> c = getClass(); c != ListSheet.class && c != null; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("more");
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared in this class
+            }
+        }
+        return false;
+    }
+
     /**
      * 获取队列中第一个非{@code null}对象用于解析
      *
@@ -326,7 +432,7 @@ public class ListSheet<T> extends Sheet {
     protected T getFirst() {
         // 初始没有数据时调用一次more方法获取数据
         if (data == null || data.isEmpty()) {
-            List<T> more = more();
+            List<T> more = pull();
             if (more != null && !more.isEmpty()) data = new ArrayList<>(more);
             else return null;
         }
@@ -348,7 +454,7 @@ public class ListSheet<T> extends Sheet {
     public void close() throws IOException {
         // Maybe there has more data
         if (!eof && rows >= getRowLimit()) {
-            List<T> list = more();
+            List<T> list = pull();
             if (list != null && !list.isEmpty()) {
                 compact();
                 data.addAll(list);
@@ -366,9 +472,24 @@ public class ListSheet<T> extends Sheet {
 //            data.clear();
             data = null;
         }
+        if (shouldClose && prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
         super.close();
     }
 
+    /**
+     * 是否将基本类型直接写入单元格，只有内置的转换器会跳过装箱，
+     * 自定义转换器可能覆写了{@code reset}或{@code setCellValue}，仍按对象取值后调用{@code reset}
+     *
+     * @return true: 跳过装箱
+     */
+    protected boolean isUnboxedOutput() {
+        Class<?> clazz = cellValueAndStyle.getClass();
+        return clazz == XMLCellValueAndStyle.class || clazz == XMLZebraLineCellValueAndStyle.class || clazz == CSVCellValueAndStyle.class;
+    }
+
     /**
      * 重置{@code RowBlock}行块数据
      */
@@ -380,7 +501,7 @@ public class ListSheet<T> extends Sheet {
 
         // Find the end index of row-block
         int end = getEndIndex(), len = columns.length;
-        boolean hasGlobalStyleProcessor = (extPropMark & 2) == 2;
+        boolean hasGlobalStyleProcessor = (extPropMark & 2) == 2, unboxed = isUnboxedOutput();
         try {
             for (; start < end; rows++, start++) {
                 Row row = rowBlock.next();
@@ -400,16 +521,25 @@ public class ListSheet<T> extends Sheet {
                     If you don't want any style and value, you can change it to {@code continue}
                      */
                     if (column.isIgnoreValue() || isNull)
-                        e = null;
+                        cellValueAndStyle.reset(row, cell, null, column);
+                    // 基本类型直接写入单元格，跳过装箱
+                    else if (unboxed && column.intAccessor != null && column.isDirectOutput())
+                        cellValueAndStyle.resetInt(row, cell, column.intAccessor.applyAsInt(o), column);
+                    else if (unboxed && column.longAccessor != null && column.isDirectOutput())
+                        cellValueAndStyle.resetLong(row, cell, column.longAccessor.applyAsLong(o), column);
+                    else if (unboxed && column.doubleAccessor != null && column.isDirectOutput())
+                        cellValueAndStyle.resetDouble(row, cell, column.doubleAccessor.applyAsDouble(o), column);
                     else {
-                        if (column.getMethod() != null)
+                        if (column.accessor != null)
+                            e = column.accessor.apply(o);
+                        else if (column.getMethod() != null)
                             e = column.getMethod().invoke(o);
                         else if (column.getField() != null)
                             e = column.getField().get(o);
                         else e = o;
+                        cellValueAndStyle.reset(row, cell, e, column);
                     }
 
-                    cellValueAndStyle.reset(row, cell, e, column);
                     if (hasGlobalStyleProcessor) {
                         cellValueAndStyle.setStyleDesign(o, cell, column, getStyleProcessor());
                     }
@@ -422,12 +552,12 @@ public class ListSheet<T> extends Sheet {
     }
 
     /**
-     * 加载数据，内部调用{@link #more}获取数据并判断是否需要分页，超过工作表行上限则调用{@link #paging}分页
+     * 加载数据，内部调用{@link #pull}获取数据并判断是否需要分页，超过工作表行上限则调用{@link #paging}分页
      */
     protected void append() {
         int rbs = rowBlock.capacity();
         for (; ; ) {
-            List<T> list = more();
+            List<T> list = pull();
             // No more data
             if (list == null || list.isEmpty()) {
                 eof = shouldClose = true;
@@ -668,6 +798,12 @@ public class ListSheet<T> extends Sheet {
         // Merge Header Style defined on Entry Class
         mergeGlobalSetting(clazz);
 
+        // 生成编译后的取值器
+        for (Column col : columns) {
+            Column tail = col.getTail();
+            if (tail instanceof EntryColumn) ((EntryColumn) tail).compileAccessor();
+        }
+
         return columns.length;
     }
 
@@ -988,17 +1124,21 @@ public class ListSheet<T> extends Sheet {
             shouldClose = false;
             eof = true;
 
-            int n = id;
+            List<ListSheet<T>> copies = new ArrayList<>();
             for (int i = end; i < len; ) {
                 @SuppressWarnings("unchecked")
                 ListSheet<T> copy = getClass().cast(clone());
                 copy.start = i;
                 copy.end = (i = Math.min(i + limit, len));
                 copy.eof = copy.end - copy.start == limit;
-                workbook.insertSheet(n++, copy);
+                copies.add(copy);
             }
             // Close on the last copy worksheet
-            workbook.getSheetAt(n - 1).shouldClose = true;
+            copies.get(copies.size() - 1).shouldClose = true;
+            // Insert in reverse order right after current worksheet, it also works when the workbook defers inserting
+            for (int i = copies.size() - 1; i >= 0; i--) {
+                workbook.insertSheet(id, copies.get(i));
+            }
         } else {
             end = len;
         }
@@ -1134,6 +1274,16 @@ public class ListSheet<T> extends Sheet {
          * 当前列对应的Bean字段
          */
         public Field field;
+        /**
+         * 编译后的取值器，由{@link #compileAccessor()}生成，为{@code null}时使用反射取值
+         */
+        protected transient Function<Object, Object> accessor;
+        /**
+         * 基本类型的取值器，最多只有一个不为{@code null}，取值时不装箱
+         */
+        protected transient ToIntFunction<Object> intAccessor;
+        protected transient ToLongFunction<Object> longAccessor;
+        protected transient ToDoubleFunction<Object> doubleAccessor;
 
         public EntryColumn() {
             super();
@@ -1206,6 +1356,10 @@ public class ListSheet<T> extends Sheet {
                 EntryColumn o = (EntryColumn) other;
                 this.method = o.method;
                 this.field = o.field;
+                this.accessor = o.accessor;
+                this.intAccessor = o.intAccessor;
+                this.longAccessor = o.longAccessor;
+                this.doubleAccessor = o.doubleAccessor;
             }
             if (other.next != null) {
                 addSubColumn(new EntryColumn(other.next));
@@ -1229,5 +1383,32 @@ public class ListSheet<T> extends Sheet {
         public Field getField() {
             return field;
         }
+
+        /**
+         * 生成编译后的取值器，优先使用get方法其次使用Bean字段，列类型与属性类型一致的
+         * {@code int}、{@code short}、{@code byte}、{@code long}、{@code float}和{@code double}
+         * 类型额外生成基本类型的取值器，生成失败时回退到反射取值
+         */
+        public void compileAccessor() {
+            AccessibleObject ao = method != null ? method : field;
+            accessor = ao != null ? AccessorFactory.getter(ao) : null;
+            intAccessor = null; longAccessor = null; doubleAccessor = null;
+            if (accessor == null) return;
+            Class<?> type = method != null ? method.getReturnType() : field.getType();
+            // 列类型被修改时走原有的类型转换
+            if (type != clazz) return;
+            if (type == int.class || type == short.class || type == byte.class) intAccessor = AccessorFactory.intGetter(ao);
+            else if (type == long.class) longAccessor = AccessorFactory.longGetter(ao);
+            else if (type == double.class || type == float.class) doubleAccessor = AccessorFactory.doubleGetter(ao);
+        }
+
+        /**
+         * 没有输出转换器和动态样式时可以将基本类型直接写入单元格
+         *
+         * @return true: 可以跳过装箱
+         */
+        protected boolean isDirectOutput() {
+            return getConversion() == null && styleProcessor == null;
+        }
     }
 }
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 远程资源下载器，以工作薄为单位异步下载图片等远程资源，下载完成后通过{@link CompletableFuture}回调通知，
+ * 导出大量远程图片时下载与写文件并行进行，不再受网络延迟串行累加的影响。
+ *
+ * <ul>
+ * <li>最大并发连接数由{@link #setMaxConnections}控制，同一主机的并发数由{@link #setMaxConnectionsPerHost}控制，
+ * 超过限制的请求在各自主机的队列中等待，不会占用下载线程</li>
+ * <li>同一工作薄中相同的URL只会下载一次，已完成的结果在{@link #setCacheLimit}范围内缓存，超过后不再缓存</li>
+ * <li>连接和读取超时分别由{@link #setConnectTimeout}和{@link #setReadTimeout}控制</li>
+ * <li>工作表写完后等待未完成下载的最长时间由{@link #setCompletionTimeout}控制，默认等待全部下载结束</li>
+ * </ul>
+ *
+ * <p>默认仅支持HTTP和HTTPS协议，其它协议或需要认证的场景可以继承本类并覆写{@link #fetch}方法，
+ * 然后通过{@link Workbook#setMediaDownloader}设置</p>
+ *
+ * @author guanquan.wang at 2026-10-18 00:40
+ */
+public class MediaDownloader implements Closeable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    /**
+     * 最大并发连接数
+     */
+    protected int maxConnections = 16;
+    /**
+     * 单个主机最大并发连接数
+     */
+    protected int maxConnectionsPerHost = 4;
+    /**
+     * 连接超时（毫秒）
+     */
+    protected int connectTimeout = 10_000;
+    /**
+     * 读取超时（毫秒）
+     */
+    protected int readTimeout = 30_000;
+    /**
+     * 已完成结果的最大缓存字节数
+     */
+    protected long cacheLimit = 32L << 20;
+    /**
+     * 工作表结束时等待未完成下载的最长时间（毫秒），{@code 0}表示等待全部下载结束
+     */
+    protected long completionTimeout;
+    /**
+     * 下载线程池，首次下载时创建
+     */
+    private volatile ThreadPoolExecutor executor;
+    /**
+     * URL与下载结果的映射，用于去重
+     */
+    private final Map<String, CompletableFuture<byte[]>> futures = new ConcurrentHashMap<>();
+    /**
+     * 主机与排队状态的映射
+     */
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    /**
+     * 已缓存的字节数
+     */
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    /**
+     * 设置最大并发连接数，默认{@code 16}
+     *
+     * @param maxConnections 最大并发连接数
+     * @return 当前下载器
+     */
+    public MediaDownloader setMaxConnections(int maxConnections) {
+        this.maxConnections = Math.max(maxConnections, 1);
+        return this;
+    }
+
+    /**
+     * 设置单个主机最大并发连接数，默认{@code 4}
+     *
+     * @param maxConnectionsPerHost 单个主机最大并发连接数
+     * @return 当前下载器
+     */
+    public MediaDownloader setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = Math.max(maxConnectionsPerHost, 1);
+        return this;
+    }
+
+    /**
+     * 设置连接超时，默认{@code 10}秒
+     *
+     * @param connectTimeout 连接超时（毫秒）
+     * @return 当前下载器
+     */
+    public MediaDownloader setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * 设置读取超时，默认{@code 30}秒
+     *
+     * @param readTimeout 读取超时（毫秒）
+     * @return 当前下载器
+     */
+    public MediaDownloader setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * 设置已完成结果的最大缓存字节数，默认{@code 32M}，设置为{@code 0}时仅合并正在下载的相同URL
+     *
+     * @param cacheLimit 最大缓存字节数
+     * @return 当前下载器
+     */
+    public MediaDownloader setCacheLimit(long cacheLimit) {
+        this.cacheLimit = cacheLimit;
+        return this;
+    }
+
+    /**
+     * 设置工作表结束时等待未完成下载的最长时间，默认{@code 0}表示等待全部下载结束，
+     * 每个下载已受连接和读取超时限制。超时后未完成的图片不会被绘制，并在日志中逐个输出
+     *
+     * @param completionTimeout 最长等待时间（毫秒），{@code 0}表示不限制
+     * @return 当前下载器
+     */
+    public MediaDownloader setCompletionTimeout(long completionTimeout) {
+        this.completionTimeout = Math.max(completionTimeout, 0L);
+        return this;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    public long getCacheLimit() {
+        return cacheLimit;
+    }
+
+    public long getCompletionTimeout() {
+        return completionTimeout;
+    }
+
+    /**
+     * 异步下载远程资源，相同URL正在下载或已缓存时直接返回同一个结果
+     *
+     * @param url 远程资源地址
+     * @return 下载结果，失败时以异常结束
+     */
+    public CompletableFuture<byte[]> download(String url) {
+        CompletableFuture<byte[]> future = futures.get(url);
+        if (future != null) return future;
+        CompletableFuture<byte[]> newFuture = new CompletableFuture<>();
+        future = futures.putIfAbsent(url, newFuture);
+        if (future != null) return future;
+
+        // Release the cache entry when the limit is exceeded
+        newFuture.whenComplete((body, ex) -> {
+            if (ex != null || body == null || cachedBytes.addAndGet(body.length) > cacheLimit) {
+                futures.remove(url, newFuture);
+                if (body != null && ex == null) cachedBytes.addAndGet(-body.length);
+            }
+        });
+
+        String hostKey;
+        try {
+            URL u = new URL(url);
+            hostKey = u.getProtocol() + "://" + u.getAuthority();
+        } catch (IOException e) {
+            newFuture.completeExceptionally(e);
+            return newFuture;
+        }
+        Host host = hosts.computeIfAbsent(hostKey, k -> new Host());
+        host.submit(() -> {
+            try {
+                newFuture.complete(fetch(url));
+            } catch (Throwable e) {
+                newFuture.completeExceptionally(e);
+            }
+        });
+        return newFuture;
+    }
+
+    /**
+     * 同步下载远程资源，在下载线程中执行，子类可覆写以支持其它协议或认证
+     *
+     * @param url 远程资源地址
+     * @return 资源内容，{@code null}表示资源不存在
+     * @throws IOException if I/O error occur
+     */
+    protected byte[] fetch(String url) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
+        con.setConnectTimeout(connectTimeout);
+        con.setReadTimeout(readTimeout);
+        int code = con.getResponseCode();
+        if (code < 200 || code >= 300) {
+            con.disconnect();
+            return null;
+        }
+        long len = con.getContentLengthLong();
+        // Read to the end and close the stream to keep the connection alive
+        try (InputStream is = con.getInputStream()) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(len > 0 && len < Integer.MAX_VALUE ? (int) len : 1 << 13);
+            byte[] bytes = new byte[1 << 13];
+            int n;
+            while ((n = is.read(bytes)) > 0) bos.write(bytes, 0, n);
+            return bos.toByteArray();
+        }
+    }
+
+    /**
+     * 清除缓存，未完成的下载继续进行，空闲的下载线程会自动退出
+     */
+    @Override
+    public void close() {
+        futures.clear();
+        cachedBytes.set(0L);
+    }
+
+    private ThreadPoolExecutor executor() {
+        ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            synchronized (this) {
+                if ((executor = this.executor) == null) {
+                    executor = new ThreadPoolExecutor(maxConnections, maxConnections, 30L, TimeUnit.SECONDS
+                        , new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "eec-media-" + THREAD_COUNTER.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    executor.allowCoreThreadTimeOut(true);
+                    this.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 单个主机的排队状态，运行中的任务数达到上限时后续任务进入队列，任务结束后从队列中取下一个执行
+     */
+    private class Host {
+        private final Queue<Runnable> pending = new ArrayDeque<>();
+        private int active;
+
+        void submit(Runnable task) {
+            synchronized (this) {
+                if (active >= maxConnectionsPerHost) {
+                    pending.add(task);
+                    return;
+                }
+                active++;
+            }
+            run(task);
+        }
+
+        private void run(Runnable task) {
+            executor().execute(() -> {
+                Runnable next = task;
+                // Drain the pending queue on the current thread
+                while (next != null) {
+                    next.run();
+                    synchronized (this) {
+                        next = pending.poll();
+                        if (next == null) active--;
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 工作薄级别的多媒体登记表，以内容摘要（文件则使用路径、大小和修改时间）为Key记录已保存的图片，
+ * 相同的图片在整个工作薄中只保存一次，多个图片锚点指向同一个关联目标，可以大幅减少输出文件大小、
+ * 磁盘写入和压缩时间
+ *
+ * @author guanquan.wang at 2026-10-18 01:30
+ */
+public class MediaRegistry {
+    /**
+     * Key与已保存的图片名（如{@code image1.png}）的映射
+     */
+    private final Map<String, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * 查找已保存的图片
+     *
+     * @param key 图片Key
+     * @return 图片名，{@code null}表示未保存
+     */
+    public String get(String key) {
+        return names.get(key);
+    }
+
+    /**
+     * 登记已保存的图片，多个线程同时登记相同Key时以先登记的为准
+     *
+     * @param key  图片Key
+     * @param name 图片名
+     * @return 已登记的图片名，{@code null}表示登记成功
+     */
+    public String putIfAbsent(String key, String name) {
+        return names.putIfAbsent(key, name);
+    }
+
+    /**
+     * 清除登记信息，工作薄输出完成后调用
+     */
+    public void clear() {
+        names.clear();
+    }
+
+    /**
+     * 已登记的图片数
+     *
+     * @return 图片数
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * 计算二进制内容的Key
+     *
+     * @param bytes 二进制内容
+     * @return Key
+     */
+    public static String keyOf(byte[] bytes) {
+        MessageDigest digest = newDigest();
+        digest.update(bytes);
+        return toKey(digest);
+    }
+
+    /**
+     * 计算{@code ByteBuffer}剩余内容的Key，计算后{@code position}保持不变
+     *
+     * @param buffer 二进制内容
+     * @return Key
+     */
+    public static String keyOf(ByteBuffer buffer) {
+        MessageDigest digest = newDigest();
+        digest.update(buffer.duplicate());
+        return toKey(digest);
+    }
+
+    /**
+     * 计算本地文件的Key，使用绝对路径、文件大小和修改时间，不读取文件内容
+     *
+     * @param path 文件路径
+     * @return Key
+     * @throws IOException if I/O error occur
+     */
+    public static String keyOf(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return "file:" + path.toAbsolutePath().normalize() + ':' + attributes.size() + ':' + attributes.lastModifiedTime().toMillis();
+    }
+
+    /**
+     * 创建摘要计算器，与{@link #toKey(MessageDigest)}搭配用于边写边计算的场景
+     *
+     * @return 摘要计算器
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 将摘要转为Key
+     *
+     * @param digest 摘要计算器
+     * @return Key
+     */
+    public static String toKey(MessageDigest digest) {
+        byte[] bytes = digest.digest();
+        char[] chars = new char[bytes.length << 1];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i << 1] = Character.forDigit(bytes[i] >> 4 & 0xF, 16);
+            chars[(i << 1) + 1] = Character.forDigit(bytes[i] & 0xF, 16);
+        }
+        return new String(chars);
+    }
+}
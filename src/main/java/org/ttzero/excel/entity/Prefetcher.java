@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 数据预取器，在后台线程中循环调用数据源并将结果放入有界队列，写线程从队列中获取数据，
+ * 使数据库或RPC取数与XML输出重叠执行。运行环境支持虚拟线程时使用虚拟线程，否则使用守护线程。
+ *
+ * <p>数据源返回{@code null}表示结束，数据源抛出的异常会在写线程的{@link #take()}中重新抛出</p>
+ *
+ * @author guanquan.wang at 2026-10-17 23:10
+ */
+final class Prefetcher<E> implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Prefetcher.class);
+    /**
+     * 结束标记
+     */
+    private static final Object END = new Object();
+    /**
+     * 虚拟线程构造器{@code Thread.ofVirtual().name(name).unstarted(task)}，低版本JDK为{@code null}
+     */
+    private static final MethodHandle OF_VIRTUAL, NAME, UNSTARTED;
+
+    static {
+        MethodHandle ofVirtual = null, name = null, unstarted = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(Class.forName("java.lang.Thread$Builder$OfVirtual")));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class));
+            unstarted = lookup.findVirtual(builder, "unstarted", MethodType.methodType(Thread.class, Runnable.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Virtual threads are not supported
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        UNSTARTED = unstarted;
+    }
+
+    private final BlockingQueue<Object> queue;
+    private final Supplier<E> source;
+    private final String name;
+    private volatile boolean closed;
+    private Thread thread;
+    /**
+     * 写线程已经取到结束标记
+     */
+    private boolean eof;
+
+    /**
+     * 创建预取器
+     *
+     * @param name   线程名
+     * @param pages  最多缓存的批数
+     * @param source 数据源
+     */
+    Prefetcher(String name, int pages, Supplier<E> source) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(Math.max(pages, 1));
+        this.source = source;
+    }
+
+    /**
+     * 启动后台取数线程
+     *
+     * @return 当前预取器
+     */
+    Prefetcher<E> start() {
+        thread = newThread(this::run, name);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * 获取下一批数据，队列为空时阻塞等待
+     *
+     * @return 数据，{@code null}表示结束
+     */
+    @SuppressWarnings("unchecked")
+    E take() {
+        if (eof) return null;
+        Object o;
+        try {
+            o = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExcelWriteException("Interrupted while waiting for prefetched data", e);
+        }
+        if (o == END) {
+            eof = true;
+            return null;
+        }
+        if (o instanceof Failure) {
+            eof = true;
+            Throwable cause = ((Failure) o).cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new ExcelWriteException(cause);
+        }
+        return (E) o;
+    }
+
+    private void run() {
+        try {
+            for (; ; ) {
+                E e = source.get();
+                if (!offer(e != null ? e : END) || e == null) break;
+            }
+        } catch (Throwable e) {
+            offer(new Failure(e));
+        }
+    }
+
+    /**
+     * 放入队列，队列满时等待，预取器关闭后放弃
+     */
+    private boolean offer(Object o) {
+        try {
+            while (!closed) {
+                if (queue.offer(o, 100L, TimeUnit.MILLISECONDS)) return true;
+            }
+        } catch (InterruptedException e) {
+            // Closed
+        }
+        return false;
+    }
+
+    /**
+     * 停止后台线程并丢弃未消费的数据，等待后台线程退出后才返回，
+     * 调用方可以在此之后安全地关闭数据源（如非线程安全的{@code ResultSet}）
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        eof = true;
+        Thread t = thread;
+        if (t != null && t != Thread.currentThread()) {
+            t.interrupt();
+            // The data source may not respond to interruption, wait until it returns
+            boolean interrupted = false;
+            while (t.isAlive()) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+        queue.clear();
+    }
+
+    private static Thread newThread(Runnable task, String name) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = OF_VIRTUAL.invoke();
+                builder = NAME.invoke(builder, name);
+                return (Thread) UNSTARTED.invoke(builder, task);
+            } catch (Throwable e) {
+                LOGGER.debug("Create virtual thread failed, fall back to platform thread.", e);
+            }
+        }
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static class Failure {
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
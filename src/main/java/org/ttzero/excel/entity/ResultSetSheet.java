@@ -16,17 +16,27 @@
 
 package org.ttzero.excel.entity;
 
+import org.ttzero.excel.entity.e7.XMLCellValueAndStyle;
+import org.ttzero.excel.entity.e7.XMLZebraLineCellValueAndStyle;
 import org.ttzero.excel.manager.Const;
+import org.ttzero.excel.processor.SQLExtractor;
 import org.ttzero.excel.processor.StyleProcessor;
 import org.ttzero.excel.reader.Cell;
+import org.ttzero.excel.util.DateUtil;
 import org.ttzero.excel.util.StringUtil;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
 
 import static java.sql.Types.BIGINT;
 import static java.sql.Types.BIT;
@@ -70,6 +80,30 @@ public class ResultSetSheet extends Sheet {
      * 行级动态样式处理器
      */
     private StyleProcessor<ResultSet> styleProcessor;
+    /**
+     * 预读行块数，大于0时由后台线程从{@code ResultSet}装填行块
+     */
+    protected int prefetch;
+    /**
+     * 后台装填线程
+     */
+    private transient Prefetcher<RowBlock> prefetcher;
+    /**
+     * 空闲行块
+     */
+    private transient BlockingQueue<RowBlock> freeBlocks;
+    /**
+     * 当前交给输出协议的行块
+     */
+    private transient RowBlock current;
+    /**
+     * 按SQL类型注册的自定义取值器
+     */
+    protected Map<Integer, SQLExtractor> extractors;
+    /**
+     * 每列最终使用的取值器，{@code null}表示使用通用取值方式
+     */
+    private transient SQLExtractor[] columnExtractors;
 
     /**
      * 实例化工作表，未指定工作表名称时默认以{@code 'Sheet'+id}命名
@@ -193,6 +227,38 @@ public class ResultSetSheet extends Sheet {
         return this;
     }
 
+    /**
+     * 设置预读行块数，开启后由后台线程（支持虚拟线程时使用虚拟线程）执行{@code rs.next()}和取值并装填行块，
+     * 输出协议从已装填的行块环中获取数据，数据库取数与写文件重叠进行，导出耗时由两者之和降为两者中的较大值。
+     * 每次从数据库拉取的记录数依然由{@code Statement#setFetchSize}控制
+     *
+     * <p>注意：开启后{@code ResultSet}和行级动态样式处理器将在后台线程中被访问</p>
+     *
+     * @param blocks 最多预读的行块数，小于等于0时不预读（默认）
+     * @return 当前工作表
+     */
+    public ResultSetSheet setPrefetch(int blocks) {
+        this.prefetch = blocks;
+        return this;
+    }
+
+    /**
+     * 为指定SQL类型注册取值器，优先级低于{@link SQLColumn#setExtractor}，
+     * 可用于支持厂商特有类型，如Oracle {@code TIMESTAMPTZ}或PostgreSQL {@code numeric}
+     *
+     * <p>注意：取值器直接将值写入单元格，非{@code null}值不再经过列的{@code conversion}转换和
+     * 输出协议{@link ICellValueAndStyle#setCellValue}，列的动态样式处理器收到的值为{@code null}</p>
+     *
+     * @param sqlType   SQL类型{@link java.sql.Types}或厂商类型
+     * @param extractor 取值器
+     * @return 当前工作表
+     */
+    public ResultSetSheet registerExtractor(int sqlType, SQLExtractor extractor) {
+        if (extractors == null) extractors = new HashMap<>();
+        extractors.put(sqlType, extractor);
+        return this;
+    }
+
     /**
      * 设置行级动态样式处理器，作用于整行优先级高于单元格动态样式处理器
      *
@@ -224,6 +290,11 @@ public class ResultSetSheet extends Sheet {
      */
     @Override
     public void close() throws IOException {
+        // Wait for the prefetch thread to stop reading before closing the ResultSet
+        if (prefetcher != null) {
+            prefetcher.close();
+            prefetcher = null;
+        }
         if (shouldClose && rs != null) {
             try {
                 rs.close();
@@ -234,13 +305,248 @@ public class ResultSetSheet extends Sheet {
         super.close();
     }
 
+    /**
+     * 输出失败时立即停止后台预读线程，避免调用方未调用{@link #close()}时预读线程和{@code ResultSet}游标泄漏
+     *
+     * @param path 指定保存路径
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void writeTo(Path path) throws IOException {
+        try {
+            super.writeTo(path);
+        } catch (IOException | RuntimeException | Error e) {
+            if (prefetcher != null) prefetcher.close();
+            throw e;
+        }
+    }
+
     /**
      * 重置{@code RowBlock}行块数据
      */
     @Override
     protected void resetBlockData() {
+        boolean hasNext = loadRows(rowBlock);
+
+        // Paging
+        if (rows >= getRowLimit()) {
+            rowBlock.markEOF();
+            insertCopySheet();
+        } else if (!hasNext) rowBlock.markEOF();
+    }
+
+    /**
+     * 获取下一段{@link RowBlock}行块数据，开启预读时从后台装填好的行块中获取，
+     * 并将上一次返回的行块归还给后台线程重新装填
+     *
+     * @return 行块
+     */
+    @Override
+    public RowBlock nextBlock() {
+        if (prefetch <= 0 || columns.length == 0) return super.nextBlock();
+        if (prefetcher == null) {
+            int n = prefetch + 2;
+            freeBlocks = new ArrayBlockingQueue<>(n);
+            freeBlocks.offer(rowBlock);
+            for (int i = 1; i < n; i++) freeBlocks.offer(new RowBlock(rowBlock.capacity()));
+            prefetcher = new Prefetcher<>("eec-prefetch-" + name, prefetch, blockSource()).start();
+        }
+        // 归还上一个行块
+        if (current != null) freeBlocks.offer(current);
+        RowBlock block = prefetcher.take();
+        // The prefetcher has ended or been closed, end the worksheet with an empty block
+        if (block == null) {
+            block = new RowBlock(1).flip(rows);
+            block.markEOF();
+        }
+        current = block;
+
+        // Paging
+        if (block.isEOF() && rows >= getRowLimit()) insertCopySheet();
+        return block;
+    }
+
+    /**
+     * 后台装填数据源，超过行上限或{@code ResultSet}结束后返回{@code null}
+     *
+     * @return 数据源
+     */
+    private Supplier<RowBlock> blockSource() {
+        return new Supplier<RowBlock>() {
+            boolean end;
+
+            @Override
+            public RowBlock get() {
+                if (end) return null;
+                RowBlock block;
+                try {
+                    block = freeBlocks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new ExcelWriteException(e);
+                }
+                int total = rows;
+                block.reopen();
+                boolean hasNext = loadRows(block);
+                block.flip(total);
+                if (!hasNext || rows >= getRowLimit()) {
+                    block.markEOF();
+                    end = true;
+                }
+                return block;
+            }
+        };
+    }
+
+    /**
+     * 解析每列的取值器，优先级为列上设置的取值器、按SQL类型注册的取值器、内置取值器，
+     * 内置取值器仅在输出协议为默认的{@link XMLCellValueAndStyle}时生效
+     *
+     * @return 与列一一对应的取值器
+     */
+    private SQLExtractor[] resolveExtractors() {
+        SQLExtractor[] array = new SQLExtractor[columns.length];
+        boolean builtin = isBuiltinOutput();
+        for (int i = 0; i < columns.length; i++) {
+            SQLColumn hc = (SQLColumn) columns[i];
+            SQLExtractor extractor = hc.extractor;
+            if (extractor == null && extractors != null) extractor = extractors.get(hc.sqlType);
+            if (extractor == null && builtin) extractor = defaultExtractor(hc);
+            array[i] = extractor;
+        }
+        return array;
+    }
+
+    /**
+     * 判断输出协议是否为默认的{@link XMLCellValueAndStyle}，内置取值器直接写入单元格会跳过
+     * {@link ICellValueAndStyle#setCellValue}，所以CSV或自定义的输出协议需要走通用取值方式
+     *
+     * @return true: 可以使用内置取值器
+     */
+    protected boolean isBuiltinOutput() {
+        Class<?> clazz = cellValueAndStyle.getClass();
+        return clazz == XMLCellValueAndStyle.class || clazz == XMLZebraLineCellValueAndStyle.class;
+    }
+
+    /**
+     * 获取内置取值器，仅当列的类型与SQL类型一致且没有转换器、动态样式和特殊输出类型时
+     * 才能直接写入单元格，否则返回{@code null}使用通用取值方式
+     *
+     * @param hc 列
+     * @return 内置取值器，{@code null}表示使用通用取值方式
+     */
+    protected SQLExtractor defaultExtractor(SQLColumn hc) {
+        Class<?> clazz = hc.getClazz();
+        if (clazz == null || hc.getConversion() != null || hc.styleProcessor != null || hc.getColumnType() != 0) return null;
+        SQLExtractor extractor;
+        switch (hc.sqlType) {
+            case VARCHAR:
+            case CHAR:
+            case LONGVARCHAR:
+            case NULL:      extractor = clazz == String.class ? STRING_EXTRACTOR : null;                         break;
+            case INTEGER:   extractor = clazz == Integer.class || clazz == int.class ? INT_EXTRACTOR : null;       break;
+            case TINYINT:
+            case SMALLINT:  extractor = clazz == Short.class || clazz == short.class ? SHORT_EXTRACTOR : null;     break;
+            case DATE:      extractor = clazz == java.sql.Date.class || clazz == java.util.Date.class ? DATE_EXTRACTOR : null; break;
+            case TIMESTAMP: extractor = clazz == Timestamp.class ? TIMESTAMP_EXTRACTOR : null;                    break;
+            case NUMERIC:
+            case DECIMAL:   extractor = clazz == BigDecimal.class ? DECIMAL_EXTRACTOR : null;                     break;
+            case BIGINT:    extractor = clazz == Long.class || clazz == long.class ? LONG_EXTRACTOR : null;        break;
+            case REAL:
+            case FLOAT:
+            case DOUBLE:    extractor = clazz == Double.class || clazz == double.class ? DOUBLE_EXTRACTOR : null;  break;
+            case BIT:       extractor = clazz == Boolean.class || clazz == boolean.class ? BOOL_EXTRACTOR : null;  break;
+            case TIME:      extractor = clazz == java.sql.Time.class ? TIME_EXTRACTOR : null;                     break;
+            default:        extractor = null;
+        }
+        return extractor;
+    }
+
+    private static final SQLExtractor STRING_EXTRACTOR = (rs, ri, cell) -> {
+        String v = rs.getString(ri);
+        if (v == null) return false;
+        cell.setString(v);
+        return true;
+    };
+    private static final SQLExtractor INT_EXTRACTOR = (rs, ri, cell) -> {
+        int v = rs.getInt(ri);
+        if (rs.wasNull()) return false;
+        cell.setInt(v);
+        return true;
+    };
+    private static final SQLExtractor SHORT_EXTRACTOR = (rs, ri, cell) -> {
+        short v = rs.getShort(ri);
+        if (rs.wasNull()) return false;
+        cell.setInt(v);
+        return true;
+    };
+    private static final SQLExtractor LONG_EXTRACTOR = (rs, ri, cell) -> {
+        long v = rs.getLong(ri);
+        if (rs.wasNull()) return false;
+        cell.setLong(v);
+        return true;
+    };
+    private static final SQLExtractor DOUBLE_EXTRACTOR = (rs, ri, cell) -> {
+        double v = rs.getDouble(ri);
+        if (rs.wasNull()) return false;
+        cell.setDouble(v);
+        return true;
+    };
+    private static final SQLExtractor BOOL_EXTRACTOR = (rs, ri, cell) -> {
+        boolean v = rs.getBoolean(ri);
+        if (rs.wasNull()) return false;
+        cell.setBool(v);
+        return true;
+    };
+    private static final SQLExtractor DECIMAL_EXTRACTOR = (rs, ri, cell) -> {
+        BigDecimal v = rs.getBigDecimal(ri);
+        if (v == null) return false;
+        cell.setDecimal(v);
+        return true;
+    };
+    private static final SQLExtractor DATE_EXTRACTOR = (rs, ri, cell) -> {
+        java.sql.Date v = rs.getDate(ri);
+        if (v == null) return false;
+        cell.setDateTime(DateUtil.toDateTimeValue(v));
+        return true;
+    };
+    private static final SQLExtractor TIMESTAMP_EXTRACTOR = (rs, ri, cell) -> {
+        Timestamp v = rs.getTimestamp(ri);
+        if (v == null) return false;
+        cell.setDateTime(DateUtil.toDateTimeValue(v));
+        return true;
+    };
+    private static final SQLExtractor TIME_EXTRACTOR = (rs, ri, cell) -> {
+        java.sql.Time v = rs.getTime(ri);
+        if (v == null) return false;
+        cell.setTime(DateUtil.toTimeValue(v));
+        return true;
+    };
+
+    /**
+     * 超过行上限时复制当前工作表并插入到当前位置之后，由复制的工作表继续读取{@code ResultSet}
+     */
+    private void insertCopySheet() {
+        shouldClose = false;
+        ResultSetSheet copy = getClass().cast(clone());
+        copy.shouldClose = true;
+        copy.prefetcher = null;
+        copy.freeBlocks = null;
+        copy.current = null;
+        workbook.insertSheet(id, copy);
+    }
+
+    /**
+     * 从{@code ResultSet}中读取数据装填到行块中
+     *
+     * @param rowBlock 行块
+     * @return {@code false}表示{@code ResultSet}已结束
+     */
+    private boolean loadRows(RowBlock rowBlock) {
         int len = columns.length, n = 0, limit = getRowLimit();
         boolean hasGlobalStyleProcessor = (extPropMark & 2) == 2, hasNext = true;
+        SQLExtractor[] columnExtractors = this.columnExtractors;
+        if (columnExtractors == null) columnExtractors = this.columnExtractors = resolveExtractors();
         try {
             for (int rbs = rowBlock.capacity(); n++ < rbs && rows < limit && (hasNext = rs.next()); rows++) {
                 Row row = rowBlock.next();
@@ -254,6 +560,17 @@ public class ResultSetSheet extends Sheet {
                     Cell cell = cells[i - 1];
                     cell.clear();
 
+                    SQLExtractor extractor = columnExtractors[i - 1];
+                    // 使用取值器直接写入单元格
+                    if (extractor != null && hc.ri > 0) {
+                        if (!extractor.extract(rs, hc.ri, cell)) cellValueAndStyle.setNullValue(row, cell, hc);
+                        cell.xf = cellValueAndStyle.getStyleIndex(row, hc, null);
+                        if (hasGlobalStyleProcessor) {
+                            cellValueAndStyle.setStyleDesign(rs, cell, hc, getStyleProcessor());
+                        }
+                        continue;
+                    }
+
                     Object e;
                     if (hc.ri > 0) {
                         switch (hc.sqlType) {
@@ -289,15 +606,7 @@ public class ResultSetSheet extends Sheet {
         } catch (SQLException e) {
             throw new ExcelWriteException(e);
         }
-
-        // Paging
-        if (rows >= limit) {
-            shouldClose = false;
-            rowBlock.markEOF();
-            ResultSetSheet copy = getClass().cast(clone());
-            copy.shouldClose = true;
-            workbook.insertSheet(id, copy);
-        } else if (!hasNext) rowBlock.markEOF();
+        return hasNext;
     }
 
     /**
@@ -420,6 +729,10 @@ public class ResultSetSheet extends Sheet {
          * ResultSet下标
          */
         public int ri;
+        /**
+         * 取值器，优先级高于工作表按SQL类型注册的取值器
+         */
+        public SQLExtractor extractor;
 
         public SQLColumn(String name, int sqlType, Class<?> clazz) {
             super(name, clazz);
@@ -432,6 +745,7 @@ public class ResultSetSheet extends Sheet {
                 SQLColumn o = (SQLColumn) other;
                 this.sqlType = o.sqlType;
                 this.ri = o.ri;
+                this.extractor = o.extractor;
             }
             if (other.next != null) {
                 addSubColumn(new SQLColumn(other.next));
@@ -441,5 +755,16 @@ public class ResultSetSheet extends Sheet {
         public static SQLColumn of(Column other) {
             return new SQLColumn(other);
         }
+
+        /**
+         * 设置取值器，取值器直接将值写入单元格，非{@code null}值不再经过{@code conversion}转换
+         *
+         * @param extractor 取值器
+         * @return 当前列
+         */
+        public SQLColumn setExtractor(SQLExtractor extractor) {
+            this.extractor = extractor;
+            return this;
+        }
     }
 }
@@ -135,6 +135,17 @@ public class RowBlock implements Iterator<Row> {
         return this;
     }
 
+    /**
+     * 切换为读模式并指定累计装填的数据个数，多个行块轮换装填时使用
+     *
+     * @param total 累计装填的数据个数（不包含本次）
+     * @return 当前行块
+     */
+    final RowBlock flip(int total) {
+        this.total = total;
+        return flip();
+    }
+
     /**
      * 获取容器大小
      *
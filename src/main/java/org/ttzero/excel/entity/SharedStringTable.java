@@ -24,6 +24,7 @@ import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.InvalidMarkException;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -48,7 +49,24 @@ public class SharedStringTable implements Closeable, Iterable<String> {
      */
     private int count;
 
-    private final SeekableByteChannel channel;
+    private final FileChannel channel;
+
+    /**
+     * Hash index of the keyword, {@code null} if the table was not created for writing
+     */
+    private HashIndex index;
+
+    /**
+     * Read buffer for checking the keyword in hash index
+     */
+    private ByteBuffer checkBuffer;
+
+    /**
+     * The keyword of the last missed lookup in hash index, pushing it next time
+     * uses the empty slot found by that lookup instead of probing again
+     */
+    private String missedKey;
+    private int missedChar = -1;
 
     /**
      * Byte array buffer
@@ -76,14 +94,29 @@ public class SharedStringTable implements Closeable, Iterable<String> {
      * @throws IOException if I/O error occur.
      */
     protected SharedStringTable() throws IOException {
+        this(true);
+    }
+
+    /**
+     * Create a temp file to storage shared strings
+     *
+     * @param hashIndex create a disk-backed hash index for {@link #find(String)} if true,
+     *                  otherwise find the keyword by scanning the temp file
+     * @throws IOException if I/O error occur.
+     */
+    protected SharedStringTable(boolean hashIndex) throws IOException {
         temp = Files.createTempFile("+", ".sst");
         shouldDelete = true;
-        channel = Files.newByteChannel(temp, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.READ);
         buffer = ByteBuffer.allocate(defaultBufferSize);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
         // Total keyword storage the header 4 bytes
         buffer.putInt(0);
         flush();
+        if (hashIndex) {
+            index = new HashIndex();
+            checkBuffer = ByteBuffer.allocate(defaultBufferSize);
+        }
     }
 
     /**
@@ -97,7 +130,7 @@ public class SharedStringTable implements Closeable, Iterable<String> {
             throw new IOException("The index path [" + path + "] not exists.");
         }
         this.temp = path;
-        channel = Files.newByteChannel(temp, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.READ);
 
         buffer = ByteBuffer.allocate(defaultBufferSize);
         buffer.order(ByteOrder.LITTLE_ENDIAN);
@@ -158,6 +191,12 @@ public class SharedStringTable implements Closeable, Iterable<String> {
             }
         }
 
+        if (index != null) {
+            if (key.equals(missedKey)) index.insert(key.hashCode(), count, position());
+            else index.put(key.hashCode(), count, position(), p -> matches(p, bytes.length, bytes));
+            missedKey = null;
+            missedChar = -1;
+        }
         buffer.putInt(bytes.length);
         buffer.put(bytes);
         return count++;
@@ -174,6 +213,13 @@ public class SharedStringTable implements Closeable, Iterable<String> {
         if (buffer.remaining() < 4) {
             flush();
         }
+        if (index != null) {
+            int header = ~c;
+            if (missedChar == c) index.insert(hashOf(c), count, position());
+            else index.put(hashOf(c), count, position(), p -> matches(p, header, null));
+            missedKey = null;
+            missedChar = -1;
+        }
         buffer.putInt(~c);
         return count++;
     }
@@ -198,6 +244,13 @@ public class SharedStringTable implements Closeable, Iterable<String> {
      * @throws IOException if io error occur
      */
     public int find(char c, long pos) throws IOException {
+        // Find in hash index
+        if (this.index != null && pos == 0L) {
+            int header = ~c, i = this.index.find(hashOf(c), p -> matches(p, header, null));
+            missedKey = null;
+            missedChar = i < 0 ? c : -1;
+            return i;
+        }
         // Flush before read
 //        flush();
         int index = 0;
@@ -249,6 +302,15 @@ public class SharedStringTable implements Closeable, Iterable<String> {
      */
     public int find(String key, long pos) throws IOException {
         if (key != null && key.length() == 1) return find(key.charAt(0), pos);
+        // Find in hash index
+        if (this.index != null && pos == 0L) {
+            if (key == null || key.isEmpty()) return find((char) 0xFFFF, pos);
+            byte[] bytes = key.getBytes(UTF_8);
+            int i = this.index.find(key.hashCode(), p -> matches(p, bytes.length, bytes));
+            missedKey = i < 0 ? key : null;
+            missedChar = -1;
+            return i;
+        }
 //        // Flush before read
 //        flush();
         // Mark current position
@@ -335,6 +397,58 @@ public class SharedStringTable implements Closeable, Iterable<String> {
         return index;
     }
 
+    /**
+     * The hash code of character value, it is the same as the single character string
+     * and the null or empty value use the hash code of empty string
+     *
+     * @param c the character value
+     * @return hash code
+     */
+    private static int hashOf(char c) {
+        return c != 0xFFFF ? c : 0;
+    }
+
+    /**
+     * Check the keyword at the specified position
+     *
+     * @param position the position of keyword in temp file
+     * @param header   the header of keyword, byte length for string value and negative for character value
+     * @param bytes    the UTF-8 bytes of string value, {@code null} for character value
+     * @return true if matched
+     * @throws IOException if I/O error occur
+     */
+    private boolean matches(long position, int header, byte[] bytes) throws IOException {
+        int n = header > 0 ? header : 0;
+        ByteBuffer buffer;
+        int p;
+        long flushed = channel.position();
+        // Not flushed
+        if (position >= flushed) {
+            buffer = this.buffer;
+            p = (int) (position - flushed);
+        } else {
+            if (checkBuffer.capacity() < n + 4) {
+                checkBuffer = ByteBuffer.allocate(tableSizeFor(n + 4));
+            }
+            buffer = checkBuffer;
+            buffer.clear();
+            buffer.limit(n + 4);
+            for (long i = position; buffer.hasRemaining(); ) {
+                int dist = channel.read(buffer, i);
+                if (dist <= 0) return false;
+                i += dist;
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            p = 0;
+        }
+        if (buffer.getInt(p) != header) return false;
+        p += 4;
+        for (int i = 0; i < n; i++) {
+            if (buffer.get(p + i) != bytes[i]) return false;
+        }
+        return true;
+    }
+
     /**
      * Returns the cache size
      *
@@ -443,6 +557,10 @@ public class SharedStringTable implements Closeable, Iterable<String> {
         if (channel != null) {
             channel.close();
         }
+        if (index != null) {
+            index.close();
+            index = null;
+        }
         if (shouldDelete) {
             FileUtil.rm(temp);
         }
@@ -529,6 +647,185 @@ public class SharedStringTable implements Closeable, Iterable<String> {
         return new SSTIterator(temp);
     }
 
+    /**
+     * Check the keyword at the specified position in temp file
+     */
+    @FunctionalInterface
+    private interface KeyMatcher {
+        boolean test(long position) throws IOException;
+    }
+
+    /**
+     * A disk-backed hash index, it maps the hash code of keyword to the index and position
+     * in temp file. Open addressing with linear probing is used, each slot takes 16 bytes
+     * {@code hash(4) + index+1(4) + position(8)} and zero means empty. The capacity will
+     * be doubled when the load factor exceeds 0.5, so finding a keyword takes O(1) I/Os.
+     */
+    private static class HashIndex implements Closeable {
+        private static final int SLOT_SIZE = 16, PAGE_SLOTS = 8;
+        private Path path;
+        private FileChannel channel;
+        private int capacity, mask, size;
+        /**
+         * The empty slot found by the last missed probing, -1 if it has been used
+         */
+        private int emptySlot = -1;
+        private final ByteBuffer page, slot;
+
+        private HashIndex() throws IOException {
+            page = ByteBuffer.allocate(SLOT_SIZE * PAGE_SLOTS).order(ByteOrder.LITTLE_ENDIAN);
+            slot = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            path = Files.createTempFile("+", ".sst.idx");
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            resize(1 << 12);
+        }
+
+        /**
+         * Find the index of keyword
+         *
+         * @param hash    the hash code of keyword
+         * @param matcher check the keyword if hash code matched
+         * @return the index of keyword, -1 if not found
+         * @throws IOException if I/O error occur
+         */
+        private int find(int hash, KeyMatcher matcher) throws IOException {
+            for (int i = spread(hash) & mask, n = 0; n < capacity; ) {
+                int slots = readPage(i);
+                for (int k = 0; k < slots; k++, n++) {
+                    int p = k * SLOT_SIZE, v = page.getInt(p + 4);
+                    if (v == 0) {
+                        emptySlot = i + k;
+                        return -1;
+                    }
+                    if (page.getInt(p) == hash && (matcher == null || matcher.test(page.getLong(p + 8)))) return v - 1;
+                }
+                i = (i + slots) & mask;
+            }
+            // Unreachable because the load factor is limited
+            throw new IllegalStateException("Hash index is full");
+        }
+
+        /**
+         * Add the keyword into index, ignore if the keyword already exists
+         *
+         * @param hash     the hash code of keyword
+         * @param index    the index of keyword
+         * @param position the position of keyword in temp file
+         * @param matcher  check the keyword if hash code matched
+         * @throws IOException if I/O error occur
+         */
+        private void put(int hash, int index, long position, KeyMatcher matcher) throws IOException {
+            if (find(hash, matcher) < 0) insert(hash, index, position);
+        }
+
+        /**
+         * Add the keyword into the empty slot found by the last missed {@link #find},
+         * the caller must make sure it is the same keyword and nothing was added in between
+         *
+         * @param hash     the hash code of keyword
+         * @param index    the index of keyword
+         * @param position the position of keyword in temp file
+         * @throws IOException if I/O error occur
+         */
+        private void insert(int hash, int index, long position) throws IOException {
+            if (emptySlot < 0) throw new IllegalStateException("No empty slot was found before insert");
+            writeSlot(emptySlot, hash, index, position);
+            emptySlot = -1;
+            if (++size > capacity >>> 1) resize(capacity << 1);
+        }
+
+        private void writeSlot(int i, int hash, int index, long position) throws IOException {
+            slot.clear();
+            slot.putInt(hash).putInt(index + 1).putLong(position).flip();
+            channel.write(slot, (long) i * SLOT_SIZE);
+        }
+
+        /**
+         * Read a page of slots start from the specified slot
+         *
+         * @param i the slot
+         * @return the number of slots read
+         * @throws IOException if I/O error occur
+         */
+        private int readPage(int i) throws IOException {
+            int slots = Math.min(PAGE_SLOTS, capacity - i);
+            page.clear();
+            page.limit(slots * SLOT_SIZE);
+            for (long pos = (long) i * SLOT_SIZE; page.hasRemaining(); ) {
+                int dist = channel.read(page, pos + page.position());
+                if (dist < 0) break;
+            }
+            // The sparse file is filled with zero
+            while (page.hasRemaining()) page.put((byte) 0);
+            return slots;
+        }
+
+        /**
+         * Rehash all slots into a new file with the specified capacity
+         *
+         * @param newCapacity the new capacity
+         * @throws IOException if I/O error occur
+         */
+        private void resize(int newCapacity) throws IOException {
+            FileChannel oldChannel = channel;
+            Path oldPath = path;
+            int oldCapacity = capacity;
+
+            path = Files.createTempFile("+", ".sst.idx");
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.READ);
+            capacity = newCapacity;
+            mask = newCapacity - 1;
+            // Allocate a sparse file
+            channel.write(ByteBuffer.allocate(1), (long) newCapacity * SLOT_SIZE - 1);
+
+            if (oldChannel != null) {
+                ByteBuffer buffer = ByteBuffer.allocate(SLOT_SIZE << 12).order(ByteOrder.LITTLE_ENDIAN);
+                long pos = 0L, limit = (long) oldCapacity * SLOT_SIZE;
+                while (pos < limit) {
+                    buffer.clear();
+                    int dist = oldChannel.read(buffer, pos);
+                    if (dist <= 0) break;
+                    pos += dist;
+                    buffer.flip();
+                    for (; buffer.remaining() >= SLOT_SIZE; ) {
+                        int hash = buffer.getInt(), v = buffer.getInt();
+                        long position = buffer.getLong();
+                        if (v == 0) continue;
+                        // Keywords in index are unique
+                        find(hash, p -> false);
+                        writeSlot(emptySlot, hash, v - 1, position);
+                    }
+                    // Uncompleted slot
+                    pos -= buffer.remaining();
+                }
+                oldChannel.close();
+                FileUtil.rm(oldPath);
+            }
+            emptySlot = -1;
+        }
+
+        /**
+         * Applies a supplemental hash function to the hash code (MurmurHash3 fmix32)
+         */
+        private static int spread(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+            FileUtil.rm(path);
+        }
+    }
+
     private static class SSTIterator implements Iterator<String> {
         private final SeekableByteChannel channel;
         private ByteBuffer buffer;
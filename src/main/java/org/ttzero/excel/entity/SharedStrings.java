@@ -16,7 +16,7 @@
 
 package org.ttzero.excel.entity;
 
-import org.ttzero.excel.hash.StringBloomFilter;
+import org.ttzero.excel.hash.ScalableStringBloomFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.ttzero.excel.manager.TopNS;
@@ -49,10 +49,11 @@ import static org.ttzero.excel.util.FileUtil.exists;
  * it first determines whether it exists. If it exists, returns the index
  * in the Table (zero base), otherwise add it in to the last element of
  * Table and returns the current subscript.
- * Introduced Google BloomFilter to increase filtering speed, the
- * BloomFilter estimates the amount of data to be 1 million, and the false
- * positive rate is {@code 0.3%}. When the number exceeds {@code 2^17},
- * it will be converted to inline string.
+ * Introduced a scalable BloomFilter to increase filtering speed, the first
+ * layer estimates the amount of data to be {@code 2^17}, and a larger layer
+ * is stacked when it full, the total false positive rate is bounded by
+ * {@code 0.03%}. Keywords that might exist are found by the disk-backed hash
+ * index in {@link SharedStringTable}, so all strings are shared without limit.
  * <p>
  * A hot zone is also designed internally to cache multiple occurrences,
  * the default size is {@code 512}, and the LRU elimination algorithm is used.
@@ -75,9 +76,9 @@ public class SharedStrings implements Storable, Closeable {
     private int count;
 
     /**
-     * Import google BloomFilter to check keyword not exists
+     * Scalable BloomFilter to check keyword not exists
      */
-    private StringBloomFilter filter;
+    private ScalableStringBloomFilter filter;
 
     /**
      * Cache ASCII value
@@ -97,12 +98,11 @@ public class SharedStrings implements Storable, Closeable {
      */
     private SharedStringTable sst;
 
-    private int j;
     // For debug
-    private int total_char_cache, total_sst_find, total_hot, filter_constructor = 1;
+    private int total_char_cache, total_sst_find, total_hot;
 
     /**
-     * The number of expected insertions to the constructed bloom
+     * The number of expected insertions to the first layer of bloom
      */
     private final long expectedInsertions = 1L << 17;
 
@@ -117,8 +117,8 @@ public class SharedStrings implements Storable, Closeable {
             ascii = new int[1 << 7];
             // -1 means the keyword not exists
             Arrays.fill(ascii, -1);
-            // Create a 2^17 expected insertions and 0.3% fpp bloom filter 2.84M
-            filter = StringBloomFilter.create(expectedInsertions, 0.0003);
+            // Create a 2^17 expected insertions and 0.03% fpp scalable bloom filter
+            filter = ScalableStringBloomFilter.create(expectedInsertions, 0.0003);
 
             try {
                 temp = Files.createTempFile("~", "sst");
@@ -169,29 +169,17 @@ public class SharedStrings implements Storable, Closeable {
         count++;
         // The keyword not exists
         if (!filter.mightContain(key)) {
-            // Reset the filter
-            if (j >= expectedInsertions) {
-                resetBloomFilter();
-            }
-            // Add to bloom if not full
             filter.put(key);
-            j++;
             return add(key);
         }
         // Check the keyword exists in cache
         Integer n = hot.get(key);
-        // TODO Create a B+ tree to store key and index
         if (n == null) {
-            if (sst.size() <= expectedInsertions) {
-                // Find in temp file
-                n = sst.find(key);
-                total_sst_find++;
-                // Append to last and cache it
-                if (n < 0) {
-                    n = add(key);
-                }
-            } else {
-                // @Mark: Convert to inline string
+            // Find in temp file by hash index
+            n = sst.find(key);
+            total_sst_find++;
+            // Append to last and cache it
+            if (n < 0) {
                 n = add(key);
             }
             hot.put(key, n);
@@ -289,28 +277,12 @@ public class SharedStrings implements Storable, Closeable {
         }
     }
 
-    /**
-     * Reset the bloom filter
-     */
-    private void resetBloomFilter() {
-        filter_constructor++;
-//        expectedInsertions <<= 1;
-        filter = StringBloomFilter.create(expectedInsertions, 0.0003);
-//        for (String key : hot) {
-//            filter.put(key);
-//        }
-        for (Cache.Entry<String, Integer> e : hot) {
-            filter.put(e.getKey());
-        }
-        j = hot.size();
-    }
-
     @Override
     public void close() throws IOException {
         // Already closed
         if (hot == null && sst == null && (temp == null || Files.notExists(temp))) return;
-        LOGGER.debug("Total: {}, Hot: {}, SST: {}, Char Cache: {}, Filter Constructor: {}"
-            , count, total_hot, total_sst_find, total_char_cache, filter_constructor);
+        LOGGER.debug("Total: {}, Hot: {}, SST: {}, Char Cache: {}, Filter: {}"
+            , count, total_hot, total_sst_find, total_char_cache, filter);
         filter = null;
         if (hot != null) {
             hot.clear();
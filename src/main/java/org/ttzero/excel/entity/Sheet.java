@@ -850,10 +850,14 @@ public abstract class Sheet implements Cloneable, Storable {
                 hc.realColIndex = columns[i - 1].realColIndex + 1;
             else if (hc.realColIndex <= i) hc.realColIndex = i + 1;
             else hc.realColIndex = hc.colIndex + 1;
+            // 预先计算列标识
+            hc.getColumnReference();
 
             if (hc.prev != null) {
-                for (Column col = hc.prev; col != null; col = col.prev)
+                for (Column col = hc.prev; col != null; col = col.prev) {
                     col.realColIndex = hc.realColIndex;
+                    col.getColumnReference();
+                }
             }
         }
     }
@@ -942,6 +946,14 @@ public abstract class Sheet implements Cloneable, Storable {
         }
     }
 
+    /**
+     * 输出前的准备工作，例如执行数据库查询等耗时操作。多个工作表并行输出时此方法会在工作线程中被调用，
+     * 所以实现中不要访问样式和共享字符串等全局资源，默认什么也不做
+     *
+     * @throws IOException if I/O error occur
+     */
+    public void prepare() throws IOException { }
+
     /**
      * 落盘，将工作表写到指定路径
      *
@@ -959,7 +971,6 @@ public abstract class Sheet implements Cloneable, Storable {
         if (rowBlock == null) {
             rowBlock = new RowBlock(getRowBlockSize());
         }
-        // 自动分页的Sheet可复用RowBlock
         else rowBlock.reopen();
 
         if (!copySheet) {
@@ -1265,6 +1276,8 @@ public abstract class Sheet implements Cloneable, Storable {
             copy.sheetWriter = sheetWriter.clone().setWorksheet(copy);
             copy.copySheet = true;
             copy.rows = 0;
+            // 使用独立的行块，分页产生的多个工作表可能被并行输出
+            copy.rowBlock = null;
         }
         return copy;
     }
@@ -1321,20 +1334,34 @@ public abstract class Sheet implements Cloneable, Storable {
      * @return Excel列标识
      */
     public static char[] int2Col(int n) {
-        char[] c;
+        char[][] cache = CACHE.get();
+        char[] c = cache[n <= 26 ? 0 : n <= 702 ? 1 : 2];
+        int2Col(n, c, 0);
+        return c;
+    }
+
+    /**
+     * 将列号转为Excel列标识并写入指定数组，该方法不使用共享缓存可重入
+     *
+     * @param n   列号（从1开始）
+     * @param buf 目标数组，从{@code off}开始至少有3个字符的空间
+     * @param off 起始位置
+     * @return 列标识的长度
+     */
+    public static int int2Col(int n, char[] buf, int off) {
         char A = 'A';
         if (n <= 26) {
-            c = cache[0];
-            c[0] = (char) (n - 1 + A);
+            buf[off] = (char) (n - 1 + A);
+            return 1;
         } else if (n <= 702) {
             int t = n / 26, w = n % 26;
             if (w == 0) {
                 t--;
                 w = 26;
             }
-            c = cache[1];
-            c[0] = (char) (t - 1 + A);
-            c[1] = (char) (w - 1 + A);
+            buf[off] = (char) (t - 1 + A);
+            buf[off + 1] = (char) (w - 1 + A);
+            return 2;
         } else {
             int tt = n / 26, t = tt / 26, w = n % 26, m = tt % 26;
             if (w == 0) {
@@ -1345,15 +1372,17 @@ public abstract class Sheet implements Cloneable, Storable {
                 t--;
                 m += 26;
             }
-            c = cache[2];
-            c[0] = (char) (t - 1 + A);
-            c[1] = (char) (m - 1 + A);
-            c[2] = (char) (w - 1 + A);
+            buf[off] = (char) (t - 1 + A);
+            buf[off + 1] = (char) (m - 1 + A);
+            buf[off + 2] = (char) (w - 1 + A);
+            return 3;
         }
-        return c;
     }
 
-    private static final char[][] cache = new char[][]{ {65}, {65, 65}, {65, 65, 65} };
+    /**
+     * 列标识缓存，多个工作表并行输出时每个线程使用独立的缓存
+     */
+    private static final ThreadLocal<char[][]> CACHE = ThreadLocal.withInitial(() -> new char[][]{ {65}, {65, 65}, {65, 65, 65} });
 
     /**
      * 将行列坐标转换为 Excel 样式的单元格地址
@@ -1363,11 +1392,10 @@ public abstract class Sheet implements Cloneable, Storable {
      * @return Excel 样式的单元格地址，例如{@code A1}、{@code B2}等
      */
     public static String toCoordinate(int row, int col) {
-        char[] cols = int2Col(col);
-        char[] chars = new char[cols.length + stringSize(row)];
-        System.arraycopy(cols, 0, chars, 0, cols.length);
-        getChars(row, chars.length, chars);
-        return new String(chars);
+        char[] chars = new char[3 + stringSize(row)];
+        int n = int2Col(col, chars, 0), len = n + stringSize(row);
+        getChars(row, len, chars);
+        return new String(chars, 0, len);
     }
 
     /**
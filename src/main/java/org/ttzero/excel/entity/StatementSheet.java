@@ -269,13 +269,12 @@ public class StatementSheet extends ResultSetSheet {
     }
 
     /**
-     * 落盘，将工作表写到指定路径
+     * 执行查询获取{@code ResultSet}
      *
-     * @param path 指定保存路径
      * @throws IOException if I/O error occur
      */
     @Override
-    public void writeTo(Path path) throws IOException {
+    public void prepare() throws IOException {
         if (rs == null) {
             if (ps == null) {
                 throw new ExcelWriteException("Constructor worksheet error.\nMiss the parameter Statement");
@@ -287,6 +286,17 @@ public class StatementSheet extends ResultSetSheet {
                 throw new ExcelWriteException(e);
             }
         }
+    }
+
+    /**
+     * 落盘，将工作表写到指定路径
+     *
+     * @param path 指定保存路径
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void writeTo(Path path) throws IOException {
+        prepare();
         super.writeTo(path);
     }
 }
@@ -26,6 +26,7 @@ import org.ttzero.excel.entity.style.Font;
 import org.ttzero.excel.entity.style.NumFmt;
 import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.manager.Const;
+import org.ttzero.excel.util.ClassMetadata;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.validation.ListValidation;
 import org.ttzero.excel.validation.Validation;
@@ -66,8 +67,6 @@ import java.util.function.BiFunction;
 import static org.ttzero.excel.entity.IWorksheetWriter.isString;
 import static org.ttzero.excel.entity.SimpleSheet.defaultDatetimeCell;
 import static org.ttzero.excel.entity.style.Styles.INDEX_FONT;
-import static org.ttzero.excel.util.ReflectUtil.listDeclaredFieldsUntilJavaPackage;
-import static org.ttzero.excel.util.ReflectUtil.readMethodsMap;
 
 /**
  * 模板工作表，它支持指定一个已有的Excel文件作为模板导出，{@code TemplateSheet}将复制模板工作表的样式并替换占位符，
@@ -1183,21 +1182,12 @@ public class TemplateSheet extends Sheet {
      * @return Key：字段名 Value: Method/Field
      */
     protected Map<String, AccessibleObject> parseClass(Class<?> clazz) {
-        Map<String, AccessibleObject> tmp = new HashMap<>();
         try {
-            tmp.putAll(readMethodsMap(clazz, Object.class));
-
-            Field[] declaredFields = listDeclaredFieldsUntilJavaPackage(clazz);
-            for (Field f : declaredFields) {
-                if (!tmp.containsKey(f.getName())) {
-                    f.setAccessible(true);
-                    tmp.put(f.getName(), f);
-                }
-            }
+            return ClassMetadata.of(clazz).getProperties();
         } catch (IntrospectionException e) {
             LOGGER.warn("Get class {} methods failed.", clazz);
         }
-        return tmp;
+        return new HashMap<>();
     }
 
     /**
@@ -24,6 +24,7 @@ import org.ttzero.excel.entity.style.PatternType;
 import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.manager.docProps.Core;
 import org.ttzero.excel.manager.docProps.CustomProperties;
+import org.ttzero.excel.util.CompressionPolicy;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
 
@@ -34,8 +35,13 @@ import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.zip.Deflater;
 
@@ -168,6 +174,30 @@ public class Workbook implements Storable {
      * 压缩等级 {@code 0-9}，数字越小压缩效果越好耗时越长
      */
     private int compressionLevel = 5;
+    /**
+     * 打包压缩策略，按条目决定压缩等级
+     */
+    private CompressionPolicy compressionPolicy = CompressionPolicy.DEFAULT;
+    /**
+     * 流式输出标识，开启后工作表数据直接写入压缩流不再落盘
+     */
+    private boolean streaming;
+    /**
+     * 并行输出工作表的执行器，为{@code null}时逐个输出工作表
+     */
+    private Executor parallelExecutor;
+    /**
+     * 延迟插入的工作表，key为插入位置前一个工作表，value为待插入的工作表
+     */
+    private List<Map.Entry<Sheet, Sheet>> deferredSheets;
+    /**
+     * 远程资源下载器
+     */
+    private MediaDownloader mediaDownloader;
+    /**
+     * 多媒体登记表，相同的图片只保存一次
+     */
+    private final MediaRegistry mediaRegistry = new MediaRegistry();
 
     /**
      * 创建一个未命名工作薄
@@ -483,7 +513,14 @@ public class Workbook implements Storable {
      * @param sheet 待插入的工作表
      * @return 当前工作薄
      */
-    public Workbook insertSheet(int index, Sheet sheet) {
+    public synchronized Workbook insertSheet(int index, Sheet sheet) {
+        // Insert after the specified worksheet later
+        if (deferredSheets != null && index > 0 && index <= size) {
+            sheet.setId(index + 1);
+            sheet.setWorkbook(this);
+            deferredSheets.add(new AbstractMap.SimpleEntry<>(sheets[index - 1], sheet));
+            return this;
+        }
         ensureCapacityInternal();
         int _size = size;
         if (sheets[index] != null) {
@@ -922,4 +959,148 @@ public class Workbook implements Storable {
     public int getCompressionLevel() {
         return Math.min(Math.max(compressionLevel, 0), 9);
     }
+
+    /**
+     * 设置打包压缩策略，可以为worksheet和styles、sharedStrings等元数据部件设置不同的压缩等级，
+     * 默认策略{@link CompressionPolicy#DEFAULT}将PNG、JPEG等已压缩的图片直接存储
+     *
+     * @param compressionPolicy 压缩策略，为{@code null}时所有条目使用{@link #getCompressionLevel()}压缩
+     * @return 当前工作薄
+     */
+    public Workbook setCompressionPolicy(CompressionPolicy compressionPolicy) {
+        this.compressionPolicy = compressionPolicy;
+        return this;
+    }
+
+    /**
+     * 获取打包压缩策略
+     *
+     * @return 压缩策略
+     */
+    public CompressionPolicy getCompressionPolicy() {
+        return compressionPolicy;
+    }
+
+    /**
+     * 设置流式输出，仅对{@link #writeTo(OutputStream)}和{@link #writeTo(File)}生效
+     *
+     * <p>开启后worksheet数据将逐个行块直接写入包装了目标流的{@code ZipOutputStream}，
+     * 不再生成临时文件夹和临时zip文件，sharedStrings、styles、workbook.xml等只有写完数据才能确定的部件
+     * 会作为尾部条目追加到压缩包。需要“自适应列宽”的工作表由于需要回写表头仍会先写入临时文件。
+     * 设置了{@link #setParallelExecutor}并行输出多个工作表时，worksheet数据同样先写入临时文件再移入压缩包。</p>
+     *
+     * @param streaming true: 流式输出，false: 先落盘再压缩（默认）
+     * @return 当前工作薄
+     */
+    public Workbook setStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
+    /**
+     * 是否为流式输出
+     * @return true: 流式输出
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * 设置并行输出工作表的执行器，设置后多个工作表将在{@code executor}中并行生成worksheet数据
+     *
+     * <p>并行输出只对{@link ListSheet}和{@link ResultSetSheet}及其子类生效，含有共享字符串、图片、
+     * 水印或动态样式的工作表依然在调用线程中按顺序输出，以保证样式索引、共享字符串索引与串行输出一致。
+     * 数据源需自行保证线程安全，例如多个{@link StatementSheet}不能共用同一个{@code Connection}，
+     * 另外{@link #onProgress}设置的进度窗口可能会在多个线程中被调用。并行输出时{@link #setStreaming}对worksheet不生效，
+     * 工作表先写入临时文件，全部完成后再按顺序移入压缩包。</p>
+     *
+     * <p>非流式输出时，打包阶段较大的文件也将被切块后在{@code executor}中并行压缩，参考{@link org.ttzero.excel.util.ParallelZipWriter}</p>
+     *
+     * <p>注意：执行器由调用方管理，工作薄不会关闭它</p>
+     *
+     * @param executor 执行器，为{@code null}时逐个输出（默认）
+     * @return 当前工作薄
+     */
+    public Workbook setParallelExecutor(Executor executor) {
+        this.parallelExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 获取并行输出工作表的执行器
+     *
+     * @return 执行器，为{@code null}时逐个输出
+     */
+    public Executor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    /**
+     * 设置远程资源下载器，可以通过它配置并发数、超时时间或支持其它协议
+     *
+     * @param mediaDownloader 远程资源下载器
+     * @return 当前工作薄
+     */
+    public Workbook setMediaDownloader(MediaDownloader mediaDownloader) {
+        this.mediaDownloader = mediaDownloader;
+        return this;
+    }
+
+    /**
+     * 获取多媒体登记表，相同的图片在工作薄中只保存一次
+     *
+     * @return 多媒体登记表
+     */
+    public MediaRegistry getMediaRegistry() {
+        return mediaRegistry;
+    }
+
+    /**
+     * 获取远程资源下载器，未设置时创建默认下载器，同一工作薄中相同的URL只下载一次
+     *
+     * @return 远程资源下载器
+     */
+    public synchronized MediaDownloader getMediaDownloader() {
+        if (mediaDownloader == null) mediaDownloader = new MediaDownloader();
+        return mediaDownloader;
+    }
+
+    /**
+     * 是否已设置或创建远程资源下载器
+     *
+     * @return true: 已存在下载器
+     */
+    public synchronized boolean hasMediaDownloader() {
+        return mediaDownloader != null;
+    }
+
+    /**
+     * 开启延迟插入，开启后{@link #insertSheet}不会立即修改工作表队列，而是记录插入位置之前的工作表，
+     * 待调用{@link #flushDeferredSheets}时统一插入到其后。
+     *
+     * <p>一般开发者不需要调用此方法，它用于多个工作表并行输出时收集分页产生的工作表</p>
+     *
+     * @return 当前工作薄
+     */
+    public synchronized Workbook deferInsertSheet() {
+        if (deferredSheets == null) deferredSheets = new ArrayList<>();
+        return this;
+    }
+
+    /**
+     * 关闭延迟插入，并将延迟期间记录的工作表按记录顺序依次插入到它的前一个工作表之后
+     *
+     * @return 延迟插入的工作表，key为插入位置前一个工作表，value为插入的工作表
+     */
+    public synchronized List<Map.Entry<Sheet, Sheet>> flushDeferredSheets() {
+        List<Map.Entry<Sheet, Sheet>> list = deferredSheets;
+        deferredSheets = null;
+        if (list == null) return Collections.emptyList();
+        for (Map.Entry<Sheet, Sheet> entry : list) {
+            int i = 0;
+            for (; i < size && sheets[i] != entry.getKey(); i++);
+            insertSheet(i + 1, entry.getValue());
+        }
+        return list;
+    }
 }
@@ -130,4 +130,31 @@ public class CSVCellValueAndStyle implements ICellValueAndStyle {
         return 0;
     }
 
+    /**
+     * 直接写入{@code int}值，跳过装箱
+     */
+    @Override
+    public void resetInt(Row row, Cell cell, int i, Column hc) {
+        cell.setInt(i);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+
+    /**
+     * 直接写入{@code long}值，跳过装箱
+     */
+    @Override
+    public void resetLong(Row row, Cell cell, long l, Column hc) {
+        cell.setLong(l);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+
+    /**
+     * 直接写入{@code double}值，跳过装箱
+     */
+    @Override
+    public void resetDouble(Row row, Cell cell, double d, Column hc) {
+        cell.setDouble(d);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+
 }
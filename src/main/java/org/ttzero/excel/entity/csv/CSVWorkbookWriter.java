@@ -172,8 +172,11 @@ public class CSVWorkbookWriter implements IWorkbookWriter {
             // Write worksheet data one by one
             for (int i = 0; i < workbook.getSize(); i++) {
                 Sheet e = workbook.getSheetAt(i);
-                e.writeTo(root);
-                e.close();
+                try {
+                    e.writeTo(root);
+                } finally {
+                    e.close();
+                }
             }
 
             // Zip compress if multi worksheet occur
@@ -132,7 +132,7 @@ public class ContentType implements Storable {
         }
     }
 
-    public void add(Type type) {
+    public synchronized void add(Type type) {
         set.add(type);
     }
 
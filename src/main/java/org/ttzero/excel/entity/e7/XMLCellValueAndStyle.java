@@ -16,9 +16,40 @@
 
 package org.ttzero.excel.entity.e7;
 
+import org.ttzero.excel.entity.Column;
 import org.ttzero.excel.entity.ICellValueAndStyle;
+import org.ttzero.excel.entity.Row;
+import org.ttzero.excel.reader.Cell;
 
 /**
  * @author guanquan.wang at 2019-09-25 11:25
  */
-public class XMLCellValueAndStyle implements ICellValueAndStyle { }
+public class XMLCellValueAndStyle implements ICellValueAndStyle {
+
+    /**
+     * 直接写入{@code int}值，跳过装箱
+     */
+    @Override
+    public void resetInt(Row row, Cell cell, int i, Column hc) {
+        cell.setInt(i);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+
+    /**
+     * 直接写入{@code long}值，跳过装箱
+     */
+    @Override
+    public void resetLong(Row row, Cell cell, long l, Column hc) {
+        cell.setLong(l);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+
+    /**
+     * 直接写入{@code double}值，跳过装箱
+     */
+    @Override
+    public void resetDouble(Row row, Cell cell, double d, Column hc) {
+        cell.setDouble(d);
+        cell.xf = getStyleIndex(row, hc, null);
+    }
+}
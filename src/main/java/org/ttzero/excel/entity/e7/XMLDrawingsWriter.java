@@ -17,6 +17,8 @@
 
 package org.ttzero.excel.entity.e7;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.ttzero.excel.drawing.Bevel;
 import org.ttzero.excel.drawing.Camera;
 import org.ttzero.excel.drawing.Enums.Angle;
@@ -51,6 +53,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 import static org.ttzero.excel.util.FileUtil.exists;
 
@@ -64,6 +67,7 @@ import static org.ttzero.excel.util.FileUtil.exists;
     , "http://schemas.openxmlformats.org/drawingml/2006/main"
     , Const.Relationship.RELATIONSHIP})
 public class XMLDrawingsWriter implements IDrawingsWriter {
+    protected final Logger LOGGER = LoggerFactory.getLogger(getClass());
     protected Path path;
     protected ExtBufferedWriter bw;
     protected int size;
@@ -79,6 +83,14 @@ public class XMLDrawingsWriter implements IDrawingsWriter {
      */
     protected long[] bits;
     protected int countDown;
+    /**
+     * Max time to wait for async pictures in #close (millis), 0 means wait until all complete
+     */
+    protected long waitTimeout;
+    /**
+     * Stop accepting async pictures, set after #close gave up waiting
+     */
+    protected boolean closed;
 
     public XMLDrawingsWriter(Path path) {
         this.path = path;
@@ -94,21 +106,45 @@ public class XMLDrawingsWriter implements IDrawingsWriter {
         }
     }
 
+    /**
+     * 设置关闭时等待异步图片的最长时间，默认{@code 0}表示等待全部完成
+     *
+     * @param waitTimeout 最长等待时间（毫秒）
+     * @return 当前输出协议
+     */
+    public XMLDrawingsWriter setWaitTimeout(long waitTimeout) {
+        this.waitTimeout = Math.max(waitTimeout, 0L);
+        return this;
+    }
+
+    /**
+     * 是否已停止接收异步图片，停止后完成的图片将被忽略，调用方不应再写入图片文件
+     *
+     * @return true: 已停止
+     */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
     @Override
     public void close() throws IOException {
         if (bw == null) return;
-        if (countDown > 0) {
-            int counter = 30; // Loop 30 times (1 minutes)
-            do {
-                // Check status
-                if (checkComplete() == 0) break;
-
-                try {
-                    Thread.sleep(2000);
-                } catch (InterruptedException e) {
-                    break;
+        synchronized (this) {
+            if (countDown > 0) {
+                // Woken up by #complete
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeout);
+                for (long remaining = 0L; checkComplete() > 0; ) {
+                    if (waitTimeout > 0L && (remaining = deadline - System.nanoTime()) <= 0L) break;
+                    try {
+                        wait(waitTimeout > 0L ? TimeUnit.NANOSECONDS.toMillis(remaining) + 1 : 0L);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
                 }
-            } while (--counter >= 0);
+                if (countDown > 0) logIncomplete();
+            }
+            closed = true;
         }
         // End tag
         bw.write("</xdr:wsDr>");
@@ -199,8 +235,11 @@ public class XMLDrawingsWriter implements IDrawingsWriter {
         // Grow and copy
         if (freeIndex < 0) {
             freeIndex = bits.length << 6;
-            bits = Arrays.copyOf(bits, bits.length + 2);
-            pictures = Arrays.copyOf(pictures, bits.length << 6);
+            // Prevent losing the completion of other threads
+            synchronized (this) {
+                bits = Arrays.copyOf(bits, bits.length + 2);
+                pictures = Arrays.copyOf(pictures, bits.length << 6);
+            }
         }
         // Write file if current location is completed
         else if (pictures[freeIndex] != null) {
@@ -216,8 +255,12 @@ public class XMLDrawingsWriter implements IDrawingsWriter {
 
     @Override
     public void complete(Picture picture) {
-        if (bits == null) return;
-        freeIndex(bits, picture.idx);
+        synchronized (this) {
+            if (bits == null || closed) return;
+            freeIndex(bits, picture.idx);
+            // Wake up the waiting thread in #close
+            notifyAll();
+        }
     }
 
     protected int checkComplete() throws IOException {
@@ -232,11 +275,25 @@ public class XMLDrawingsWriter implements IDrawingsWriter {
             drawing(p);
             // The completed position is marked as 1 to prevent further acquisition
             markIndex(bits, i);
+            pictures[i] = null;
             countDown--;
         }
         return countDown;
     }
 
+    /**
+     * Log the pictures that are still waiting, they will not be drawn
+     */
+    protected void logIncomplete() {
+        for (int i = 0; i < pictures.length; i++) {
+            Picture p = pictures[i];
+            // Marked and not drawn
+            if (p != null && (bits[i >> 6] & (1L << (63 - (i & 63)))) != 0L) {
+                LOGGER.warn("Picture {} at row {} column {} is not drawn, it did not complete in time", p.id, p.row, p.col);
+            }
+        }
+    }
+
     public static int getFreeIndex(long[] bits) {
         int i = 0, idx = 64;
         for (; i < bits.length && (idx = Long.numberOfTrailingZeros(Long.highestOneBit(~bits[i]))) == 64; i++);
@@ -23,7 +23,9 @@ import org.dom4j.Namespace;
 import org.dom4j.QName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.ttzero.excel.entity.Column;
 import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.entity.ResultSetSheet;
 import org.ttzero.excel.manager.TopNS;
 import org.ttzero.excel.entity.Comments;
 import org.ttzero.excel.entity.ExcelWriteException;
@@ -35,11 +37,13 @@ import org.ttzero.excel.entity.SharedStrings;
 import org.ttzero.excel.entity.Sheet;
 import org.ttzero.excel.entity.WaterMark;
 import org.ttzero.excel.entity.Workbook;
+import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.manager.RelManager;
 import org.ttzero.excel.manager.docProps.App;
 import org.ttzero.excel.manager.docProps.Core;
 import org.ttzero.excel.manager.docProps.CustomProperties;
+import org.ttzero.excel.util.CompressionPolicy;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
 import org.ttzero.excel.util.ZipUtil;
@@ -48,12 +52,21 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.ttzero.excel.util.FileUtil.exists;
 
@@ -121,6 +134,10 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
 
     @Override
     public void writeTo(OutputStream os) throws IOException {
+        if (workbook.isStreaming()) {
+            writeStreaming(os);
+            return;
+        }
         Path zip = createTemp();
         Files.copy(zip, os);
         FileUtil.rm(zip);
@@ -128,6 +145,12 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
 
     @Override
     public void writeTo(File file) throws IOException {
+        if (workbook.isStreaming()) {
+            try (OutputStream os = Files.newOutputStream(file.toPath())) {
+                writeStreaming(os);
+            }
+            return;
+        }
         Path zip = createTemp();
         FileUtil.cp(zip, file);
         FileUtil.rm(zip);
@@ -340,8 +363,22 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
     }
 
     protected void writeWorksheets(Path root) throws IOException {
+        writeWorksheets(root, null);
+    }
+
+    /**
+     * 输出所有工作表，指定压缩流时工作表数据将直接写入压缩流
+     *
+     * @param root xl目录
+     * @param zos  流式输出的压缩流，为{@code null}时落盘
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void writeWorksheets(Path root, ZipOutputStream zos) throws IOException {
         LOGGER.debug("Start to write Sheet.");
-        ContentType contentType = workbook.getContentType();
+        if (workbook.getParallelExecutor() != null && workbook.getSize() > 1) {
+            writeWorksheetsParallel(root, zos);
+            return;
+        }
         for (int i = 0; i < workbook.getSize(); i++) {
             Sheet sheet = workbook.getSheetAt(i);
             sheet.setId(i + 1);
@@ -349,56 +386,377 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
             if (StringUtil.isEmpty(sheet.getName())) {
                 sheet.setName("Sheet" + sheet.getId());
             }
-            if (sheet.getSheetWriter() == null) {
-                sheet.setSheetWriter(getWorksheetWriter(sheet));
+            initWorksheet(sheet);
+
+            // Streaming
+            if (zos != null && sheet.getSheetWriter() instanceof XMLWorksheetWriter) {
+                ((XMLWorksheetWriter) sheet.getSheetWriter()).setZipOutputStream(zos);
             }
-            if (workbook.isAutoSize() && sheet.getAutoSize() == 0) {
-                sheet.autoSize();
+
+            // Write to desk
+            writeWorksheet(root, sheet);
+
+            afterWorksheet(root, sheet, zos);
+        }
+    }
+
+    /**
+     * 并行输出所有工作表
+     *
+     * <p>未输出的工作表按顺序划分为多个批次，每个批次以第一个“顺序敏感”的工作表（参考{@link #isOrderSensitive}）结尾。
+     * 批次内先在调用线程中按顺序初始化表头并预先注册样式，然后将普通工作表提交到执行器并行输出，
+     * 顺序敏感的工作表则在调用线程中输出，以此保证样式和共享字符串的索引与串行输出一致。
+     * 批次内分页产生的工作表会在批次结束后统一插入，位置发生变化的工作表将被重新编号</p>
+     *
+     * <p>注意：并行输出不支持流式写入，工作表被并发写入且可能被重新编号，所以即使指定了{@code zos}
+     * 也会先写入临时文件，全部完成后再由{@link #afterWorksheet}按顺序移入压缩流</p>
+     *
+     * @param root xl目录
+     * @param zos  流式输出的压缩流，为{@code null}时落盘
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void writeWorksheetsParallel(Path root, ZipOutputStream zos) throws IOException {
+        Executor executor = workbook.getParallelExecutor();
+        if (zos != null) {
+            LOGGER.debug("Streaming is disabled for worksheets when writing in parallel, write to temp files first.");
+        }
+        // Create the global resources before worksheets access them concurrently
+        workbook.getStyles();
+        workbook.getSharedStrings();
+        // The id of worksheet when it was written
+        Map<Sheet, Integer> writtenIds = new IdentityHashMap<>();
+        // Worksheets with default name, value is the first worksheet of the paging chain
+        Map<Sheet, Sheet> defaultNamed = new IdentityHashMap<>();
+        Map<Sheet, String> defaultNames = new IdentityHashMap<>();
+        for (; ; ) {
+            List<Sheet> unwritten = new ArrayList<>();
+            for (int i = 0; i < workbook.getSize(); i++) {
+                Sheet sheet = workbook.getSheetAt(i);
+                if (writtenIds.containsKey(sheet)) continue;
+                sheet.setId(i + 1);
+                unwritten.add(sheet);
             }
-            if (workbook.getZebraFill() != null && sheet.getZebraFillStyle() < 0) {
-                sheet.setZebraLine(workbook.getZebraFill());
+            if (unwritten.isEmpty()) break;
+
+            List<Map.Entry<Sheet, Sheet>> inserted;
+            try {
+                // Prepare data sources concurrently, such as executing queries
+                List<CompletableFuture<Void>> futures = new ArrayList<>(unwritten.size());
+                for (Sheet sheet : unwritten) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            sheet.prepare();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor));
+                }
+                rethrow(await(futures, null));
+
+                // Initialize worksheets one by one until the first order-sensitive worksheet
+                List<Sheet> batch = new ArrayList<>();
+                Sheet orderSensitive = null;
+                for (Sheet sheet : unwritten) {
+                    if (StringUtil.isEmpty(sheet.getName())) {
+                        sheet.setName("Sheet" + sheet.getId());
+                        defaultNamed.put(sheet, sheet);
+                        defaultNames.put(sheet, sheet.getName());
+                    }
+                    initWorksheet(sheet);
+                    sheet.getAndSortHeaderColumns();
+                    if (isOrderSensitive(sheet)) {
+                        orderSensitive = sheet;
+                        break;
+                    }
+                    registerStyles(sheet);
+                    batch.add(sheet);
+                }
+
+                // Write worksheets
+                workbook.deferInsertSheet();
+                futures.clear();
+                for (Sheet sheet : batch) {
+                    writtenIds.put(sheet, sheet.getId());
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            writeWorksheet(root, sheet);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor));
+                }
+                Throwable error = null;
+                if (orderSensitive != null) {
+                    writtenIds.put(orderSensitive, orderSensitive.getId());
+                    try {
+                        writeWorksheet(root, orderSensitive);
+                    } catch (IOException | RuntimeException e) {
+                        error = e;
+                    }
+                }
+                error = await(futures, error);
+                inserted = workbook.flushDeferredSheets();
+                rethrow(error);
+            } catch (IOException | RuntimeException | Error e) {
+                // Worksheets that have been prepared but not written hold resources such as ResultSet
+                closeUnwritten(unwritten, writtenIds, e);
+                throw e;
             }
-            // Set cell value and style processor
-            if (sheet.getCellValueAndStyle() == null) {
-                int zebraFillStyle = sheet.getZebraFillStyle();
-                ICellValueAndStyle cvas = zebraFillStyle > 0 ? new XMLZebraLineCellValueAndStyle(zebraFillStyle) : new XMLCellValueAndStyle();
-                sheet.setCellValueAndStyle(cvas);
+
+            if (inserted.isEmpty()) continue;
+            // Paging worksheets inherit the default name
+            for (Map.Entry<Sheet, Sheet> entry : inserted) {
+                Sheet first = defaultNamed.get(entry.getKey());
+                if (first != null) defaultNamed.put(entry.getValue(), first);
+            }
+            // Renumber worksheets behind the inserted worksheets, from back to front
+            for (int i = workbook.getSize() - 1; i >= 0; i--) {
+                Sheet sheet = workbook.getSheetAt(i);
+                Integer id = writtenIds.get(sheet);
+                if (id != null && id != i + 1) {
+                    renumberWorksheet(root, sheet, id, i + 1);
+                    writtenIds.put(sheet, i + 1);
+                }
             }
+        }
 
-            // Force export all fields
-            if (workbook.getForceExport() > sheet.getForceExport() && ListSheet.class.isAssignableFrom(sheet.getClass())) {
-                ((ListSheet<?>) sheet).forceExport();
+        // Default worksheet name follows the final position
+        for (Map.Entry<Sheet, Sheet> entry : defaultNamed.entrySet()) {
+            Sheet sheet = entry.getKey();
+            String name = sheet.getName(), prefix = defaultNames.get(entry.getValue()), newPrefix = "Sheet" + entry.getValue().getId();
+            if (!prefix.equals(newPrefix) && name.startsWith(prefix)) {
+                sheet.setName(newPrefix + name.substring(prefix.length()));
             }
+        }
+
+        for (int i = 0; i < workbook.getSize(); i++) {
+            afterWorksheet(root, workbook.getSheetAt(i), zos);
+        }
+    }
+
+    /**
+     * 初始化工作表，将工作薄的全局设置合并到工作表
+     *
+     * @param sheet 工作表
+     */
+    protected void initWorksheet(Sheet sheet) {
+        if (sheet.getSheetWriter() == null) {
+            sheet.setSheetWriter(getWorksheetWriter(sheet));
+        }
+        if (workbook.isAutoSize() && sheet.getAutoSize() == 0) {
+            sheet.autoSize();
+        }
+        if (workbook.getZebraFill() != null && sheet.getZebraFillStyle() < 0) {
+            sheet.setZebraLine(workbook.getZebraFill());
+        }
+        // Set cell value and style processor
+        if (sheet.getCellValueAndStyle() == null) {
+            int zebraFillStyle = sheet.getZebraFillStyle();
+            ICellValueAndStyle cvas = zebraFillStyle > 0 ? new XMLZebraLineCellValueAndStyle(zebraFillStyle) : new XMLCellValueAndStyle();
+            sheet.setCellValueAndStyle(cvas);
+        }
+
+        // Force export all fields
+        if (workbook.getForceExport() > sheet.getForceExport() && ListSheet.class.isAssignableFrom(sheet.getClass())) {
+            ((ListSheet<?>) sheet).forceExport();
+        }
+
+        // Merge Progress window
+        if (workbook.getProgressConsumer() != null && sheet.getProgressConsumer() == null) {
+            sheet.onProgress(workbook.getProgressConsumer());
+        }
+    }
 
-            // Merge Progress window
-            if (workbook.getProgressConsumer() != null && sheet.getProgressConsumer() == null) {
-                sheet.onProgress(workbook.getProgressConsumer());
+    /**
+     * 输出工作表并关闭
+     *
+     * @param root  xl目录
+     * @param sheet 工作表
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void writeWorksheet(Path root, Sheet sheet) throws IOException {
+        try {
+            sheet.writeTo(root);
+        } finally {
+            sheet.close();
+        }
+    }
+
+    /**
+     * 工作表输出完成后添加content-type、批注和水印
+     *
+     * @param root  xl目录
+     * @param sheet 工作表
+     * @param zos   流式输出的压缩流，为{@code null}时落盘
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void afterWorksheet(Path root, Sheet sheet, ZipOutputStream zos) throws IOException {
+        ContentType contentType = workbook.getContentType();
+        if (zos != null) {
+            Path sheetPath = root.resolve("worksheets").resolve(sheet.getFileName());
+            // Not streaming (auto-size or customize writer), move it into zip stream immediately
+            if (exists(sheetPath)) {
+                String name = root.getFileName() + "/worksheets/" + sheet.getFileName();
+                CompressionPolicy policy = workbook.getCompressionPolicy();
+                ZipUtil.putEntry(zos, name, sheetPath, policy != null ? policy.levelOf(name, sheetPath, workbook.getCompressionLevel()) : workbook.getCompressionLevel());
+                Files.delete(sheetPath);
             }
+            zos.closeEntry();
+        }
 
-            try {
-                // Write to desk
-                sheet.writeTo(root);
-            } finally {
-                sheet.close();
+        // Add content-type
+        contentType.add(new ContentType.Override(Const.ContentType.SHEET, "/xl/worksheets/sheet" + sheet.getId() + Const.Suffix.XML));
+
+        // Add comments
+        Comments comments = sheet.getComments();
+        if (comments != null) {
+            comments.writeTo(root);
+            contentType.add(new ContentType.Override(Const.ContentType.COMMENTS, "/xl/comments" + sheet.getId() + Const.Suffix.XML));
+            contentType.add(new ContentType.Default(Const.ContentType.VMLDRAWING, "vml"));
+        }
+
+        // Add water marker
+        WaterMark wm = sheet.getWaterMark();
+        if (wm != null && wm.canWrite()) {
+            contentType.add(new ContentType.Default(wm.getContentType(), wm.getSuffix().substring(1)));
+        }
+    }
+
+    /**
+     * 判断工作表是否需要在调用线程中按顺序输出，输出过程中可能向全局样式、共享字符串或媒体文件
+     * 注册新内容的工作表均为顺序敏感，并行输出这类工作表将导致索引顺序不确定
+     *
+     * @param sheet 工作表
+     * @return true: 须在调用线程中按顺序输出
+     */
+    protected boolean isOrderSensitive(Sheet sheet) {
+        if (!(sheet instanceof ListSheet || sheet instanceof ResultSetSheet)) return true;
+        if (sheet.getWaterMark() != null || workbook.getWaterMark() != null) return true;
+        if (sheet.getExtPropValue(Const.ExtendPropertyKey.STYLE_DESIGN) != null) return true;
+        Class<?> cvasClass = sheet.getCellValueAndStyle().getClass();
+        if (cvasClass != XMLCellValueAndStyle.class && cvasClass != XMLZebraLineCellValueAndStyle.class) return true;
+        Column[] columns = sheet.getAndSortHeaderColumns();
+        if (columns.length == 0) return true;
+        for (Column column : columns) {
+            for (Column col : column.toArray()) {
+                if (col.isShare() || col.isAutoShare() || col.styleProcessor != null || col.getColumnType() == 1 || col.getClazz() == null
+                    || col.headerComment != null) return true;
             }
+        }
+        return false;
+    }
 
-            // Add content-type
-            contentType.add(new ContentType.Override(Const.ContentType.SHEET, "/xl/worksheets/sheet" + sheet.getId() + Const.Suffix.XML));
+    /**
+     * 按串行输出时的顺序预先注册工作表会用到的样式，注册完成后工作表输出时只查询样式索引
+     *
+     * @param sheet 工作表
+     */
+    protected void registerStyles(Sheet sheet) {
+        Column[] columns = sheet.getAndSortHeaderColumns();
+        // Cell styles of the first row-block
+        for (Column column : columns) column.getCellStyle();
+        int zebraFillStyle = sheet.getZebraFillStyle();
+        if (zebraFillStyle > 0 && sheet.getCellValueAndStyle() instanceof XMLZebraLineCellValueAndStyle) {
+            for (Column column : columns) {
+                int style = column.getCellStyle();
+                if (!Styles.hasFill(style)) column.styles.of(style | zebraFillStyle);
+            }
+        }
+        // Header styles
+        if (sheet.getNonHeader() != 1) {
+            sheet.defaultHeadStyleIndex();
+            Column[][] columnsArray = new Column[columns.length][];
+            for (int i = 0; i < columns.length; i++) {
+                columnsArray[i] = columns[i].toArray();
+            }
+            for (int i = columns[0].subColumnSize() - 1; i >= 0; i--) {
+                for (Column[] array : columnsArray) array[i].getHeaderStyleIndex();
+            }
+        }
+    }
 
-            // Add comments
-            Comments comments = sheet.getComments();
-            if (comments != null) {
-                comments.writeTo(root);
-                contentType.add(new ContentType.Override(Const.ContentType.COMMENTS, "/xl/comments" + sheet.getId() + Const.Suffix.XML));
-                contentType.add(new ContentType.Default(Const.ContentType.VMLDRAWING, "vml"));
+    /**
+     * 工作表位置发生变化后重新编号，修改已输出的worksheet文件名及批注关联
+     *
+     * @param root  xl目录
+     * @param sheet 工作表
+     * @param oldId 输出时的编号
+     * @param newId 新的编号
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void renumberWorksheet(Path root, Sheet sheet, int oldId, int newId) throws IOException {
+        Path worksheets = root.resolve("worksheets");
+        sheet.setId(oldId);
+        String oldFileName = sheet.getFileName();
+        sheet.setId(newId);
+        String newFileName = sheet.getFileName();
+        Path path = worksheets.resolve(oldFileName);
+        if (exists(path)) {
+            Files.move(path, worksheets.resolve(newFileName));
+        }
+
+        Comments comments = sheet.getComments();
+        if (comments != null) {
+            comments.id = newId;
+            Relationship r = sheet.findRel("vmlDrawing");
+            if (r != null) r.setTarget("../drawings/vmlDrawing" + newId + Const.Suffix.VML);
+            r = sheet.findRel("comments");
+            if (r != null) r.setTarget("../comments" + newId + Const.Suffix.XML);
+        }
+
+        // Relationship
+        path = worksheets.resolve("_rels").resolve(oldFileName + Const.Suffix.RELATION);
+        if (exists(path)) {
+            Files.delete(path);
+            sheet.getRelManager().write(worksheets, newFileName);
+        }
+    }
+
+    /**
+     * 等待所有任务结束
+     *
+     * @param futures 任务
+     * @param error   已发生的异常
+     * @return 第一个发生的异常，无异常时返回{@code null}
+     */
+    /**
+     * 关闭未输出的工作表，已输出的工作表在{@link #writeWorksheet}中关闭
+     *
+     * @param sheets     本轮需要输出的工作表
+     * @param writtenIds 已输出的工作表
+     * @param cause      输出失败的异常，关闭时发生的异常将附加到此异常上
+     */
+    private static void closeUnwritten(List<Sheet> sheets, Map<Sheet, Integer> writtenIds, Throwable cause) {
+        for (Sheet sheet : sheets) {
+            if (writtenIds.containsKey(sheet)) continue;
+            try {
+                sheet.close();
+            } catch (IOException | RuntimeException e) {
+                cause.addSuppressed(e);
             }
+        }
+    }
 
-            // Add water marker
-            WaterMark wm = sheet.getWaterMark();
-            if (wm != null && wm.canWrite()) {
-                contentType.add(new ContentType.Default(wm.getContentType(), wm.getSuffix().substring(1)));
+    private static Throwable await(List<CompletableFuture<Void>> futures, Throwable error) {
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof UncheckedIOException) cause = cause.getCause();
+                if (error == null) error = cause;
+                else error.addSuppressed(cause);
             }
         }
+        return error;
+    }
+
+    private static void rethrow(Throwable e) throws IOException {
+        if (e == null) return;
+        if (e instanceof IOException) throw (IOException) e;
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+        throw new ExcelWriteException(e);
     }
 
     protected Path createTemp() throws IOException, ExcelWriteException {
@@ -417,7 +775,7 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
             LOGGER.debug("All sheets have completed writing, starting to compression ...");
 
             // Zip compress
-            Path zipFile = ZipUtil.zipExcludeRoot(root, workbook.getCompressionLevel(), root);
+            Path zipFile = ZipUtil.zipExcludeRoot(root, workbook.getCompressionLevel(), workbook.getParallelExecutor(), workbook.getCompressionPolicy(), root);
             LOGGER.debug("Compression completed. {}", zipFile);
 
             return zipFile;
@@ -427,6 +785,47 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
         }
     }
 
+    /**
+     * 流式输出，worksheet数据直接写入包装了{@code os}的压缩流，sharedStrings、styles、
+     * workbook.xml和content types等只有在所有工作表写完后才能确定的部件作为尾部条目追加，
+     * 整个过程不产生临时zip文件
+     *
+     * <p>注意：此方法不会关闭{@code os}</p>
+     *
+     * @param os 输出流
+     * @throws IOException 如果写入过程中发生I/O错误
+     */
+    protected void writeStreaming(OutputStream os) throws IOException {
+        Path root = null;
+        try {
+            root = FileUtil.mktmp(Const.EEC_PREFIX);
+            LOGGER.debug("Create temporary folder {}", root);
+
+            Path xl = Files.createDirectory(root.resolve("xl"));
+
+            ZipOutputStream zos = new ZipOutputStream(os);
+            zos.setLevel(workbook.getCompressionLevel());
+
+            // Write worksheet data into zip stream one by one
+            writeWorksheets(xl, zos);
+
+            // Write SharedString, Styles and workbook.xml
+            writeGlobalAttribute(xl);
+            LOGGER.debug("All sheets have completed writing, append trailing entries ...");
+
+            // Append the trailing entries
+            ZipUtil.appendExcludeRoot(zos, root, workbook.getCompressionLevel(), workbook.getCompressionPolicy());
+
+            // Do not close the target stream
+            zos.finish();
+            zos.flush();
+            LOGGER.debug("Streaming completed.");
+        } finally {
+            // Remove temp path
+            if (root != null) FileUtil.rm_rf(root);
+        }
+    }
+
     protected void reMarkPath(Path zip, Path path) throws IOException {
         String name;
         if (StringUtil.isEmpty(name = workbook.getName())) {
@@ -445,6 +844,8 @@ public class XMLWorkbookWriter implements IWorkbookWriter {
         }
         if (workbook.getWaterMark() != null) workbook.getWaterMark().delete() ; // Delete template image
         workbook.getSharedStrings().close();
+        if (workbook.hasMediaDownloader()) workbook.getMediaDownloader().close();
+        workbook.getMediaRegistry().clear();
     }
 
     // --- Customize worksheet writer
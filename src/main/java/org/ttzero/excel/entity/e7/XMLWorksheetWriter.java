@@ -19,6 +19,8 @@ package org.ttzero.excel.entity.e7;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.ttzero.excel.entity.IDrawingsWriter;
+import org.ttzero.excel.entity.MediaDownloader;
+import org.ttzero.excel.entity.MediaRegistry;
 import org.ttzero.excel.entity.Picture;
 import org.ttzero.excel.entity.WaterMark;
 import org.ttzero.excel.entity.style.Border;
@@ -26,6 +28,7 @@ import org.ttzero.excel.entity.style.Fill;
 import org.ttzero.excel.entity.style.Font;
 import org.ttzero.excel.entity.style.PatternType;
 import org.ttzero.excel.entity.style.Styles;
+import org.ttzero.excel.hash.HyperLogLog;
 import org.ttzero.excel.manager.RelManager;
 import org.ttzero.excel.manager.TopNS;
 import org.ttzero.excel.entity.Column;
@@ -37,30 +40,32 @@ import org.ttzero.excel.entity.Row;
 import org.ttzero.excel.entity.RowBlock;
 import org.ttzero.excel.entity.SharedStrings;
 import org.ttzero.excel.entity.Sheet;
+import org.ttzero.excel.entity.Workbook;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.validation.Validation;
 import org.ttzero.excel.reader.Cell;
 import org.ttzero.excel.reader.Dimension;
 import org.ttzero.excel.reader.Grid;
 import org.ttzero.excel.reader.GridFactory;
+import org.ttzero.excel.util.CompressionPolicy;
+import org.ttzero.excel.util.DoubleToDecimal;
 import org.ttzero.excel.util.ExtBufferedWriter;
 import org.ttzero.excel.util.FileSignatures;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.Utf8BufferedWriter;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.SeekableByteChannel;
@@ -69,6 +74,8 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -77,6 +84,8 @@ import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.ttzero.excel.entity.Sheet.int2Col;
 import static org.ttzero.excel.entity.Sheet.toCoordinate;
@@ -152,6 +161,51 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      * 超链接管理
      */
     protected Map<String, List<String>> hyperlinkMap;
+    /**
+     * 流式输出的压缩流，不为{@code null}时工作表数据直接写入该压缩流
+     */
+    protected ZipOutputStream zipOutputStream;
+    /**
+     * 标记当前工作表是否以流式写入压缩流
+     */
+    protected boolean streaming;
+    /**
+     * 自动共享列的采样个数，采样结束后根据估算的基数判断该列是否共享字符串
+     */
+    public static final int AUTO_SHARE_SAMPLES = 1 << 10;
+    /**
+     * 估算基数不超过采样个数的该比例时共享字符串，否则内嵌
+     */
+    public static final double AUTO_SHARE_RATIO = 0.5D;
+    /**
+     * 自动共享列的基数估算器（按列下标），判断完成后置为{@code null}
+     */
+    protected HyperLogLog[] cardinalities;
+    /**
+     * 自动共享列已采样的字符串个数
+     */
+    protected int[] shareSamples;
+    /**
+     * 自动共享列的判断结果（按列下标），{@code 0}未判断, {@code 1}共享, {@code -1}内嵌，
+     * 只对当前工作表有效，不修改列属性，同一列再次输出时重新采样
+     */
+    protected byte[] shareDecisions;
+
+    /**
+     * 预编码的常量标签，通过{@link ExtBufferedWriter#writeAscii(byte[])}直接输出
+     */
+    protected static final byte[] ROW_START = ascii("<row r=\"")
+        , SPANS = ascii("\" spans=\"")
+        , TAG_END = ascii("\">")
+        , ROW_END = ascii("</row>")
+        , CELL_START = ascii("<c r=\"")
+        , STYLE = ascii("\" s=\"")
+        , SST_START = ascii("\" t=\"s\"><v>")
+        , V_START = ascii("<v>")
+        , V_END = ascii("</v></c>")
+        , INLINE_START = ascii("\" t=\"inlineStr\"><is><t>")
+        , INLINE_END = ascii("</t></is></c>")
+        , BOOL_TYPE = ascii("\" t=\"b");
 
     public XMLWorksheetWriter() { }
 
@@ -276,7 +330,27 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
 
         Path sheetPath = workSheetPath.resolve(sheet.getFileName());
 
-        this.bw = new ExtBufferedWriter(Files.newBufferedWriter(sheetPath, StandardCharsets.UTF_8));
+        // 流式输出，自适应列宽需要回写表头所以仍然落盘
+        if (zipOutputStream != null && !hasAutoWidthColumn()) {
+            String name = root.getFileName() + "/" + workSheetPath.getFileName() + "/" + sheet.getFileName();
+            Workbook workbook = sheet.getWorkbook();
+            CompressionPolicy policy = workbook.getCompressionPolicy();
+            // The size is unknown before writing, so STORED is treated as level 0
+            int level = policy != null ? policy.levelOf(name, null, workbook.getCompressionLevel()) : workbook.getCompressionLevel();
+            zipOutputStream.setLevel(Math.min(Math.max(level, 0), 9));
+            zipOutputStream.putNextEntry(new ZipEntry(name));
+            this.bw = new Utf8BufferedWriter(new FilterOutputStream(zipOutputStream) {
+                @Override public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+                // Keep the zip stream open, the entry is closed by workbook writer
+                @Override public void close() throws IOException {
+                    flush();
+                }
+            });
+            streaming = true;
+        }
+        else this.bw = new Utf8BufferedWriter(Files.newOutputStream(sheetPath));
 
         if (sst == null) this.sst = sheet.getWorkbook().getSharedStrings();
         if (styles == null) this.styles = sheet.getWorkbook().getStyles();
@@ -348,9 +422,43 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         e.sheetDataReady = 0;
         e.totalRows = 0;
         e.drawingsWriter = null;
+        e.streaming = false;
         return copy;
     }
 
+    /**
+     * 设置流式输出的压缩流，设置后工作表数据将直接写入{@code ZipOutputStream}而不落盘，
+     * 包含自适应列宽的工作表不受影响
+     *
+     * @param zos 压缩流，{@code null}表示取消流式输出
+     * @return 当前输出协议
+     */
+    public XMLWorksheetWriter setZipOutputStream(ZipOutputStream zos) {
+        this.zipOutputStream = zos;
+        return this;
+    }
+
+    /**
+     * 当前工作表是否以流式写入压缩流
+     *
+     * @return true: 数据已直接写入压缩流
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * 检查是否包含自适应列宽的列
+     *
+     * @return true: 包含自适应列宽
+     */
+    protected boolean hasAutoWidthColumn() {
+        for (Column col : sheet.getAndSortHeaderColumns()) {
+            if (col.getAutoSize() == 1) return true;
+        }
+        return false;
+    }
+
     /**
      * Returns the worksheet name
      *
@@ -467,7 +575,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
                     sheet.createComments().addComment(toCoordinate(row, hc.getRealColIndex()), hc.headerComment);
                 }
             }
-            bw.write("</row>");
+            bw.writeAscii(ROW_END);
         }
         return subColumnSize;
     }
@@ -508,9 +616,55 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         } else {
             bw.write("</worksheet>");
         }
+        // 数据不足采样个数的自动共享列
+        if (cardinalities != null) {
+            for (int i = 0; i < cardinalities.length; i++) {
+                if (cardinalities[i] != null && shareSamples[i] > 0) decideShare(columns[i], i);
+            }
+        }
         LOGGER.debug("Sheet [{}] writing completed, total rows: {}", sheet.getName(), total);
     }
 
+    /**
+     * 自动共享列采样，采样个数达到{@link #AUTO_SHARE_SAMPLES}后判断是否共享字符串
+     *
+     * @param hc  列属性
+     * @param col 列下标
+     * @param s   字符串
+     */
+    protected void sampleShare(Column hc, int col, String s) {
+        cardinalities[col].put(s);
+        if (++shareSamples[col] >= AUTO_SHARE_SAMPLES) decideShare(hc, col);
+    }
+
+    /**
+     * 根据估算的基数判断是否共享字符串，判断结果记录在{@link #shareDecisions}中，后续字符串按该结果输出
+     *
+     * @param hc  列属性
+     * @param col 列下标
+     */
+    protected void decideShare(Column hc, int col) {
+        long cardinality = cardinalities[col].cardinality();
+        int samples = shareSamples[col];
+        boolean share = cardinality <= samples * AUTO_SHARE_RATIO;
+        shareDecisions[col] = (byte) (share ? 1 : -1);
+        cardinalities[col] = null;
+        LOGGER.debug("Sheet [{}] column [{}] auto share: {}, estimated cardinality: {} of {} samples"
+            , sheet.getName(), hc.getName() != null ? hc.getName() : hc.key, share, cardinality, samples);
+    }
+
+    /**
+     * 判断列是否共享字符串，自动共享列判断完成前使用列的原始设置
+     *
+     * @param hc  列属性
+     * @param col 列下标
+     * @return true: 共享
+     */
+    protected boolean isShare(Column hc, int col) {
+        byte decision = shareDecisions != null && col < shareDecisions.length ? shareDecisions[col] : 0;
+        return decision != 0 ? decision > 0 : hc.isShare();
+    }
+
     /**
      * Write a row-block
      *
@@ -550,7 +704,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // Row number
         int r = rows + startRow;
 
-        bw.write("<row r=\"");
+        bw.writeAscii(ROW_START);
         bw.writeInt(r);
         // default data row height 16.5
         if (rowHeight != null && rowHeight >= 0D) {
@@ -558,7 +712,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.write(rowHeight);
         }
         if (this.columns.length > 0) {
-            bw.write("\" spans=\"");
+            bw.writeAscii(SPANS);
             bw.writeInt(this.columns[0].realColIndex);
             bw.write(':');
             bw.writeInt(this.columns[this.columns.length - 1].realColIndex);
@@ -566,7 +720,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.write("\" spans=\"1:");
             bw.writeInt(columns);
         }
-        bw.write("\">");
+        bw.writeAscii(TAG_END);
         return r;
     }
 
@@ -581,7 +735,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // Row number
         int r = row.getIndex() + startRow;
 
-        bw.write("<row r=\"");
+        bw.writeAscii(ROW_START);
         bw.writeInt(r);
         Double rowHeight = row.getHeight();
         // default data row height 16.5
@@ -590,13 +744,13 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.write(rowHeight);
         }
         if (row.lc - row.fc >= 1) {
-            bw.write("\" spans=\"");
+            bw.writeAscii(SPANS);
             bw.writeInt(row.fc + 1);
             bw.write(':');
             bw.writeInt(row.lc);
         }
         else if (this.columns.length > 0) {
-            bw.write("\" spans=\"");
+            bw.writeAscii(SPANS);
             bw.writeInt(this.columns[0].realColIndex);
             bw.write(':');
             bw.writeInt(this.columns[this.columns.length - 1].realColIndex);
@@ -621,12 +775,12 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         Cell[] cells = row.getCells();
         int r = startRow(row);
         if (row.lc > row.fc) {
-            bw.write("\">");
+            bw.writeAscii(TAG_END);
 
             // 循环写单元格
             for (int i = row.fc; i < row.lc; i++) writeCell(cells[i], r, i);
 
-            bw.write("</row>");
+            bw.writeAscii(ROW_END);
         } else bw.write("\"/>");
     }
 
@@ -680,8 +834,8 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      */
     protected void writeString(Cell cell, int row, int col) throws IOException {
         Column hc = getColumn(col);
-        bw.write("<c r=\"");
-        bw.write(int2Col(hc.getRealColIndex()));
+        bw.writeAscii(CELL_START);
+        bw.writeAscii(hc.getColumnReference());
         bw.writeInt(row);
 
         String s = cell.stringVal;
@@ -695,7 +849,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         }
 
         if (cell.xf > 0) {
-            bw.write("\" s=\"");
+            bw.writeAscii(STYLE);
             bw.writeInt(cell.xf);
         }
 
@@ -704,21 +858,23 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.escapeWrite(cell.formula);
             bw.write("</f>");
             if (notEmpty) {
-                bw.write("<v>");
+                bw.writeAscii(V_START);
                 bw.escapeWrite(s);
                 bw.write("</v>");
             }
             bw.write("</c>");
         } else if (notEmpty) {
+            // 采样估算基数
+            if (cardinalities != null && cardinalities[col] != null) sampleShare(hc, col, s);
             int i;
-            if (hc.isShare() && (i = sst.get(s)) >= 0) {
-                bw.write("\" t=\"s\"><v>");
+            if (isShare(hc, col) && (i = sst.get(s)) >= 0) {
+                bw.writeAscii(SST_START);
                 bw.writeInt(i);
-                bw.write("</v></c>");
+                bw.writeAscii(V_END);
             } else {
-                bw.write("\" t=\"inlineStr\"><is><t>");
+                bw.writeAscii(INLINE_START);
                 bw.escapeWrite(s); // escape text
-                bw.write("</t></is></c>");
+                bw.writeAscii(INLINE_END);
             }
         } else bw.write("\"/>");
 
@@ -739,20 +895,20 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      */
     protected void writeNumeric(Cell cell, int row, int col) throws IOException {
         Column hc = getColumn(col);
-        bw.write("<c r=\"");
-        bw.write(int2Col(hc.getRealColIndex()));
+        bw.writeAscii(CELL_START);
+        bw.writeAscii(hc.getColumnReference());
         bw.writeInt(row);
         if (cell.xf > 0) {
-            bw.write("\" s=\"");
+            bw.writeAscii(STYLE);
             bw.writeInt(cell.xf);
         }
-        bw.write("\">");
+        bw.writeAscii(TAG_END);
         if (cell.f) {
             bw.write("<f>");
             bw.escapeWrite(cell.formula);
             bw.write("</f>");
         }
-        bw.write("<v>");
+        bw.writeAscii(V_START);
         boolean autoSize = hc.getAutoSize() == 1;
         String s = null;
         switch (cell.t) {
@@ -769,13 +925,13 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             case DOUBLE:
             case TIME:
                 bw.write(cell.doubleVal);
-                if (autoSize) s = Double.toString(cell.doubleVal);
+                if (autoSize) s = DoubleToDecimal.toString(cell.doubleVal);
                 break;
             case DECIMAL:
                 bw.write(s = cell.decimal.toString());
                 break;
         }
-        bw.write("</v></c>");
+        bw.writeAscii(V_END);
 
         if (autoSize && s != null) {
             double n;
@@ -796,23 +952,23 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      */
     protected void writeBool(Cell cell, int row, int col) throws IOException {
         Column hc = getColumn(col);
-        bw.write("<c r=\"");
-        bw.write(int2Col(hc.getRealColIndex()));
+        bw.writeAscii(CELL_START);
+        bw.writeAscii(hc.getColumnReference());
         bw.writeInt(row);
-        bw.write("\" t=\"b");
+        bw.writeAscii(BOOL_TYPE);
         if (cell.xf > 0) {
-            bw.write("\" s=\"");
+            bw.writeAscii(STYLE);
             bw.writeInt(cell.xf);
         }
-        bw.write("\">");
+        bw.writeAscii(TAG_END);
         if (cell.f) {
             bw.write("<f>");
             bw.escapeWrite(cell.formula);
             bw.write("</f>");
         }
-        bw.write("<v>");
+        bw.writeAscii(V_START);
         bw.writeInt(cell.boolVal ? 1 : 0);
-        bw.write("</v></c>");
+        bw.writeAscii(V_END);
 
         // TODO optimize If auto-width
         if (hc.getAutoSize() == 1) {
@@ -831,11 +987,11 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      */
     protected void writeChar(Cell cell, int row, int col) throws IOException {
         Column hc = getColumn(col);
-        bw.write("<c r=\"");
-        bw.write(int2Col(hc.getRealColIndex()));
+        bw.writeAscii(CELL_START);
+        bw.writeAscii(hc.getColumnReference());
         bw.writeInt(row);
         if (cell.xf > 0) {
-            bw.write("\" s=\"");
+            bw.writeAscii(STYLE);
             bw.writeInt(cell.xf);
         }
         char c = cell.charVal;
@@ -844,15 +1000,15 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.escapeWrite(cell.formula);
             bw.write("</f><v>");
             bw.escapeWrite(c);
-            bw.write("</v></c>");
-        } else if (hc.isShare()) {
-            bw.write("\" t=\"s\"><v>");
+            bw.writeAscii(V_END);
+        } else if (isShare(hc, col)) {
+            bw.writeAscii(SST_START);
             bw.writeInt(sst.get(c));
-            bw.write("</v></c>");
+            bw.writeAscii(V_END);
         } else {
-            bw.write("\" t=\"inlineStr\"><is><t>");
+            bw.writeAscii(INLINE_START);
             bw.escapeWrite(c);
-            bw.write("</t></is></c>");
+            bw.writeAscii(INLINE_END);
         }
         // TODO optimize If auto-width
         if (hc.getAutoSize() == 1) {
@@ -877,10 +1033,10 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         Fill fill = styles.getFill(style);
         Border border = styles.getBorder(style);
         if (fill != null && fill.getPatternType() != PatternType.none || border != null && border.isEffectiveBorder() || cell.f) {
-            bw.write("<c r=\"");
-            bw.write(int2Col(getColumn(col).getRealColIndex()));
+            bw.writeAscii(CELL_START);
+            bw.writeAscii(getColumn(col).getColumnReference());
             bw.writeInt(row);
-            bw.write("\" s=\"");
+            bw.writeAscii(STYLE);
             bw.writeInt(cell.xf);
             if (cell.f) {
                 bw.write("\"><f>");
@@ -908,9 +1064,13 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // 实例化drawingsWriter
         if (drawingsWriter == null) createDrawingsWriter();
         int id = sheet.getWorkbook().incrementMediaCounter();
-        String name = "image" + id + "." + signature.extension;
-        // Store in disk
-        Files.write(mediaPath.resolve(name), bytes, StandardOpenOption.CREATE_NEW);
+        String key = MediaRegistry.keyOf(bytes), name = sheet.getWorkbook().getMediaRegistry().get(key);
+        if (name == null) {
+            name = "image" + id + "." + signature.extension;
+            // Store in disk
+            Files.write(mediaPath.resolve(name), bytes, StandardOpenOption.CREATE_NEW);
+            name = registerMedia(key, name);
+        }
 
         // Write picture
         writePictureDirect(id, name, column, row, signature);
@@ -935,13 +1095,17 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // 实例化drawingsWriter
         if (drawingsWriter == null) createDrawingsWriter();
         int id = sheet.getWorkbook().incrementMediaCounter();
-        String name = "image" + id + "." + signature.extension;
         // Reset buffer position
         byteBuffer.position(position);
-        // Store in disk
-        SeekableByteChannel channel = Files.newByteChannel(mediaPath.resolve(name), StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
-        channel.write(byteBuffer);
-        channel.close();
+        String key = MediaRegistry.keyOf(byteBuffer), name = sheet.getWorkbook().getMediaRegistry().get(key);
+        if (name == null) {
+            name = "image" + id + "." + signature.extension;
+            // Store in disk
+            SeekableByteChannel channel = Files.newByteChannel(mediaPath.resolve(name), StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW);
+            channel.write(byteBuffer);
+            channel.close();
+            name = registerMedia(key, name);
+        }
 
         // Write picture
         writePictureDirect(id, name, column, row, signature);
@@ -965,9 +1129,13 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // 实例化drawingsWriter
         if (drawingsWriter == null) createDrawingsWriter();
         int id = sheet.getWorkbook().incrementMediaCounter();
-        String name = "image" + id + "." + signature.extension;
-        // Store
-        Files.copy(path, mediaPath.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+        String key = MediaRegistry.keyOf(path), name = sheet.getWorkbook().getMediaRegistry().get(key);
+        if (name == null) {
+            name = "image" + id + "." + signature.extension;
+            // Store
+            Files.copy(path, mediaPath.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            name = registerMedia(key, name);
+        }
 
         // Write picture
         writePictureDirect(id, name, column, row, signature);
@@ -999,13 +1167,18 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             if (drawingsWriter == null) createDrawingsWriter();
             int id = sheet.getWorkbook().incrementMediaCounter();
             String name = "image" + id + "." + signature.extension;
-            os = Files.newOutputStream(mediaPath.resolve(name));
+            // Digest while copying
+            MessageDigest digest = MediaRegistry.newDigest();
+            os = new DigestOutputStream(Files.newOutputStream(mediaPath.resolve(name)), digest);
             os.write(bytes, 0, n);
 
             if (n == bytes.length) {
                 while ((n = stream.read(bytes)) > 0)
                     os.write(bytes, 0, n);
             }
+            os.close();
+            os = null;
+            name = registerMedia(MediaRegistry.toKey(digest), name);
 
             // Write picture
             writePictureDirect(id, name, column, row, signature);
@@ -1063,11 +1236,15 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         if (drawingsWriter == null) createDrawingsWriter();
         int id = sheet.getWorkbook().incrementMediaCounter();
         picture.id = id;
-        String name = "image" + id + "." + signature.extension;
+        String key = MediaRegistry.keyOf(picture.localPath), name = sheet.getWorkbook().getMediaRegistry().get(key);
+        if (name == null) {
+            name = "image" + id + "." + signature.extension;
+            // Store
+            Files.copy(picture.localPath, mediaPath.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            name = registerMedia(key, name);
+        }
         picture.picName = name;
         picture.size = signature.width << 16 | signature.height;
-        // Store
-        Files.copy(picture.localPath, mediaPath.resolve(name), StandardCopyOption.REPLACE_EXISTING);
 
         // Write picture
         // Drawing
@@ -1124,7 +1301,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         _writer.includeAutoWidth = includeAutoWidth;
         _writer.styles = styles;
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        _writer.bw = new ExtBufferedWriter(new OutputStreamWriter(baos, StandardCharsets.UTF_8));
+        _writer.bw = new Utf8BufferedWriter(baos);
         _writer.writeBefore();
         _writer.bw.close();
 
@@ -1173,7 +1350,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             bw.write("<worksheet xmlns=\"");
             bw.write(Const.SCHEMA_MAIN);
         }
-        bw.write("\">");
+        bw.writeAscii(TAG_END);
     }
 
     /**
@@ -1267,7 +1444,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             char[] cols = int2Col(columns[0].realColIndex);
             bw.write(cols);
             bw.writeInt(startHeaderRow);
-            bw.write("\">");
+            bw.writeAscii(TAG_END);
             bw.write("<selection activeCell=\"");
             bw.write(cols);
             bw.writeInt(startHeaderRow);
@@ -1406,7 +1583,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             if (extList.size() < validations.size()) {
                 bw.write("<dataValidations count=\"");
                 bw.writeInt(validations.size() - extList.size());
-                bw.write("\">");
+                bw.writeAscii(TAG_END);
                 for (Validation e : validations) {
                     if (!e.isExtension()) bw.write(e.toString());
                 }
@@ -1503,7 +1680,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         bw.write("<extLst><ext xmlns:x14=\"http://schemas.microsoft.com/office/spreadsheetml/2009/9/main\" uri=\"{CCE6A557-97BC-4b89-ADB6-D9C93CAAB3DF}\">");
         bw.write("<x14:dataValidations xmlns:xm=\"http://schemas.microsoft.com/office/excel/2006/main\" count=\"");
         bw.writeInt(extList.size());
-        bw.write("\">");
+        bw.writeAscii(TAG_END);
         for (Validation e : extList) {
             bw.write(e.toString());
         }
@@ -1522,7 +1699,7 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         if (mergeCells != null && !mergeCells.isEmpty()) {
             bw.write("<mergeCells count=\"");
             bw.writeInt(mergeCells.size());
-            bw.write("\">");
+            bw.writeAscii(TAG_END);
             for (Dimension dim : mergeCells) {
                 bw.write("<mergeCell ref=\"");
                 bw.write(dim.toString());
@@ -1649,36 +1826,42 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
      * Download remote resources
      *
      * By default, only HTTP or HTTPS protocols are supported.
-     * Use {@code HttpURLConnection} to synchronously download remote resources.
-     * For more complex scenarios (asynchronous download, Connection pool, authentication, FTP, etc.), please override this method
+     * Resources are downloaded asynchronously by the workbook's {@link MediaDownloader},
+     * which limits concurrency per host and downloads identical urls only once.
+     * The worksheet waits for pending downloads when it closes, see {@link MediaDownloader#setCompletionTimeout}.
+     * For more complex scenarios (authentication, FTP, etc.), please override this method
+     * or set a custom {@link MediaDownloader} with {@link org.ttzero.excel.entity.Workbook#setMediaDownloader}
      *
      * @param picture {@link Picture} info
      * @param url remote url
      * @throws IOException if I/O error occur.
      */
     public void downloadRemoteResource(Picture picture, String url) throws IOException {
-        try {
-            // Support http or https
-            if (url.charAt(0) == 'h') {
-                HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
-                con.connect();
-                InputStream is = con.getInputStream();
-                if (is != null) {
-                    ByteArrayOutputStream bos = new ByteArrayOutputStream(1 << 18);
-                    int i;
-                    byte[] bytes = new byte[1 << 18];
-                    while ((i = is.read(bytes)) > 0) bos.write(bytes, 0, i);
-                    downloadCompleted(picture, bos.toByteArray());
-                    return;
+        // Support http or https
+        if (url.charAt(0) == 'h') {
+            MediaDownloader downloader = sheet.getWorkbook().getMediaDownloader();
+            IDrawingsWriter writer = drawingsWriter;
+            if (writer instanceof XMLDrawingsWriter) ((XMLDrawingsWriter) writer).setWaitTimeout(downloader.getCompletionTimeout());
+            downloader.download(url).whenComplete((body, e) -> {
+                if (e != null) LOGGER.error("Download remote resource [{}] error", url, e);
+                // Hold the drawings writer so that it does not close while saving
+                synchronized (writer) {
+                    // The drawings writer stopped waiting, the media directory may have been packed
+                    if (writer instanceof XMLDrawingsWriter && ((XMLDrawingsWriter) writer).isClosed()) {
+                        LOGGER.warn("Remote resource [{}] completed after the worksheet was closed, ignore it", url);
+                        return;
+                    }
+                    try {
+                        downloadCompleted(picture, e == null ? body : null);
+                    } catch (IOException | RuntimeException ex) {
+                        LOGGER.error("Save remote resource [{}] error", url, ex);
+                        writer.complete(picture);
+                    }
                 }
-                con.disconnect();
-            }
-            // Ignore others
-            downloadCompleted(picture, null);
-        } catch (IOException e) {
-            LOGGER.error("Download remote resource [{}] error", url, e);
-            downloadCompleted(picture, null);
+            });
         }
+        // Ignore others
+        else downloadCompleted(picture, null);
     }
 
     /**
@@ -1697,9 +1880,13 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         // Test file signatures
         FileSignatures.Signature signature = FileSignatures.test(ByteBuffer.wrap(body));
         if (signature != null && signature.isTrusted()) {
-            String name = "image" + picture.id + "." + signature.extension;
-            // Store onto disk
-            Files.write(mediaPath.resolve(name), body, StandardOpenOption.CREATE_NEW);
+            String key = MediaRegistry.keyOf(body), name = sheet.getWorkbook().getMediaRegistry().get(key);
+            if (name == null) {
+                name = "image" + picture.id + "." + signature.extension;
+                // Store onto disk
+                Files.write(mediaPath.resolve(name), body, StandardOpenOption.CREATE_NEW);
+                name = registerMedia(key, name);
+            }
             picture.picName = name;
             picture.size = signature.width << 16 | signature.height;
             // Add global contentType
@@ -1710,6 +1897,21 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         drawingsWriter.complete(picture);
     }
 
+    /**
+     * 登记已保存的图片，其它线程已登记相同内容时删除刚保存的文件并使用已登记的图片
+     *
+     * @param key  图片Key，参考{@link MediaRegistry}
+     * @param name 刚保存的图片名
+     * @return 最终使用的图片名
+     * @throws IOException if I/O error occur.
+     */
+    protected String registerMedia(String key, String name) throws IOException {
+        String exists = sheet.getWorkbook().getMediaRegistry().putIfAbsent(key, name);
+        if (exists == null) return name;
+        Files.deleteIfExists(mediaPath.resolve(name));
+        return exists;
+    }
+
     // Write picture
     protected void writePictureDirect(int id, String name, int column, int row, FileSignatures.Signature signature) throws IOException {
         Picture picture = createPicture(column, row);
@@ -1759,6 +1961,19 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
             includeAutoWidth |= col.getAutoSize() == 1;
             hasSharedString |= col.isShare();
         }
+        // 自动共享列创建基数估算器
+        cardinalities = null;
+        shareDecisions = null;
+        for (int i = 0; i < columns.length; i++) {
+            if (!columns[i].isAutoShare()) continue;
+            if (cardinalities == null) {
+                cardinalities = new HyperLogLog[columns.length];
+                shareSamples = new int[columns.length];
+                shareDecisions = new byte[columns.length];
+            }
+            cardinalities[i] = new HyperLogLog(10);
+            hasSharedString = true;
+        }
         // 初始化SharedStringsTable
         if (hasSharedString && sst != null) sst.init();
         // 如果有自适应列宽则创建临时数组
@@ -1767,6 +1982,10 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         }
     }
 
+    /**
+     * 超出表头范围的未分配列（按列下标）
+     */
+    protected Column[] unallocatedColumns;
     /**
      * 按cellXfs下标缓存字体
      */
@@ -1788,6 +2007,16 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
         return f;
     }
 
+    /**
+     * 将ASCII常量编码为字节数组
+     *
+     * @param s ASCII字符串
+     * @return 字节数组
+     */
+    protected static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
     /**
      * 获取列属性
      *
@@ -1797,8 +2026,16 @@ public class XMLWorksheetWriter implements IWorksheetWriter {
     protected Column getColumn(int index) {
         Column hc = index < columns.length ? columns[index] : null;
         if (hc == null) {
-            hc = Column.UNALLOCATED_COLUMN;
-            hc.realColIndex = index + 1;
+            // 每个输出协议使用独立的未分配列，避免并发输出时相互修改列位置
+            if (unallocatedColumns == null || index >= unallocatedColumns.length) {
+                unallocatedColumns = unallocatedColumns == null ? new Column[Math.max(index + 1, 16)]
+                    : Arrays.copyOf(unallocatedColumns, Math.max(index + 1, unallocatedColumns.length << 1));
+            }
+            hc = unallocatedColumns[index];
+            if (hc == null) {
+                unallocatedColumns[index] = hc = new Column();
+                hc.realColIndex = index + 1;
+            }
         }
         return hc;
     }
@@ -92,6 +92,8 @@ public class Fill implements Cloneable {
         if (patternType != null) {
             hash += patternType.ordinal() << 24;
         }
+        // 与equals保持一致：无填充时忽略颜色
+        if (patternType == PatternType.none) return hash;
         int c = 0;
         if (bgColor != null) {
             c += bgColor.hashCode();
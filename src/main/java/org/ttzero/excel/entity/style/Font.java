@@ -625,12 +625,13 @@ public class Font implements Cloneable {
     @Override
     public int hashCode() {
         int hash = size << 16;
-        hash += color != null ? color.hashCode() : 0;
+        // Null color equals BLACK
+        hash += (color != null ? color : Color.BLACK).hashCode();
         hash += style << 24;
         if (("minor".equals(scheme) || "major".equals(scheme))) {
             hash += scheme.hashCode();
         } else {
-            hash += name.hashCode() << 8;
+            hash += Objects.hashCode(name) << 8;
             hash += charset;
             hash += family;
         }
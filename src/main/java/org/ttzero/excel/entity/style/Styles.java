@@ -38,12 +38,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.ttzero.excel.util.StringUtil.isEmpty;
 import static org.ttzero.excel.util.StringUtil.isNotEmpty;
@@ -80,8 +79,14 @@ public class Styles implements Storable {
      * LOGGER
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(Styles.class);
-    private final Map<Integer, Integer> map;
-    private final AtomicInteger counter;
+    /**
+     * 样式值与样式索引的映射
+     */
+    private final StyleIndex map;
+    /**
+     * 样式个数
+     */
+    private volatile int counter;
     private int[] styleIndex;
     private Document document;
 
@@ -89,18 +94,25 @@ public class Styles implements Storable {
     private List<NumFmt> numFmts;
     private List<Fill> fills;
     private List<Border> borders;
+    /**
+     * 格式化、字体、填充和边框在各自列表中的下标，首次添加时根据列表创建，避免{@code List.indexOf}的线性查找
+     */
+    private Map<NumFmt, Integer> numFmtIndex;
+    private Map<Font, Integer> fontIndex;
+    private Map<Fill, Integer> fillIndex;
+    private Map<Border, Integer> borderIndex;
 
     public Color[] indexedColors;
 
     /**
      * Cache the data/time format style index.
-     * It's use for fast test the cell value is a data or time value
+     * It's use for fast test the cell value is a data or time value,
+     * thread-safe so that multiple worksheets can be read concurrently
      */
-    private Set<Integer> dateFmtCache;
+    private volatile Set<Integer> dateFmtCache;
 
     private Styles() {
-        map = new HashMap<>();
-        counter = new AtomicInteger();
+        map = new StyleIndex();
         styleIndex = new int[10];
     }
 
@@ -111,10 +123,10 @@ public class Styles implements Storable {
      * @param s 样式值
      * @return 样式索引
      */
-    public int of(int s) {
-        int n = map.getOrDefault(s, -1);
+    public synchronized int of(int s) {
+        int n = map.get(s);
         if (n == -1) {
-            n = counter.getAndIncrement();
+            n = counter++;
             map.put(s, n);
             if (n >= styleIndex.length) {
                 styleIndex = Arrays.copyOf(styleIndex, styleIndex.length << 1);
@@ -130,8 +142,8 @@ public class Styles implements Storable {
      * @param styleIndex 样式索引
      * @return 样式值，查找失败时返回{@code 0} 表示默认样式
      */
-    public int getStyleByIndex(int styleIndex) {
-        if (styleIndex >= counter.get()) {
+    public synchronized int getStyleByIndex(int styleIndex) {
+        if (styleIndex >= counter) {
             return -1;
         }
         return styleIndex >= 0 ? this.styleIndex[styleIndex] : 0;
@@ -143,7 +155,7 @@ public class Styles implements Storable {
      * @return the total styles
      */
     public int size() {
-        return map.size();
+        return map.size;
     }
 
     public static final int INDEX_NUMBER_FORMAT = 24;
@@ -392,10 +404,10 @@ public class Styles implements Storable {
             self.styleIndex[i] = style;
             i++;
         }
-        self.counter.set(i);
+        self.counter = i;
         // Test number format
-        for (Integer styleIndex : self.map.values()) {
-            self.isDate(styleIndex);
+        for (int j = 0; j < i; j++) {
+            if (self.map.get(self.styleIndex[j]) == j) self.isDate(j);
         }
 
         return self;
@@ -409,7 +421,7 @@ public class Styles implements Storable {
      * @param numFmt 格式化{@link NumFmt}
      * @return 样式值中“格式化”部分的2进制值
      */
-    public final int addNumFmt(NumFmt numFmt) {
+    public final synchronized int addNumFmt(NumFmt numFmt) {
         if (numFmt.getId() < 0 || numFmt.getId() > 58) {
             if (isEmpty(numFmt.getCode())) {
                 throw new NullPointerException("NumFmt code");
@@ -419,7 +431,8 @@ public class Styles implements Storable {
             if (index > -1) {
                 numFmt.setId(index);
             } else {
-                int i = numFmts.indexOf(numFmt);
+                if (numFmtIndex == null) numFmtIndex = indexOf(numFmts);
+                int i = numFmtIndex.getOrDefault(numFmt, -1);
                 if (i <= -1) {
                     int id;
                     if (numFmts.isEmpty()) {
@@ -428,6 +441,7 @@ public class Styles implements Storable {
                         id = numFmts.get(numFmts.size() - 1).getId() + 1;
                     }
                     numFmt.setId(id);
+                    numFmtIndex.put(numFmt, numFmts.size());
                     numFmts.add(numFmt);
                 } else {
                     numFmt.setId(numFmts.get(i).getId());
@@ -445,13 +459,15 @@ public class Styles implements Storable {
      * @param font 字体{@link Font}
      * @return 样式值中“字体”部分的2进制值
      */
-    public final int addFont(Font font) {
+    public final synchronized int addFont(Font font) {
         if (isEmpty(font.getName())) {
             throw new IllegalArgumentException("Font name not support.");
         }
-        int i = fonts.indexOf(font);
+        if (fontIndex == null) fontIndex = indexOf(fonts);
+        int i = fontIndex.getOrDefault(font, -1);
         if (i <= -1) {
             i = fonts.size();
+            fontIndex.put(font, i);
             fonts.add(font);
         }
         return i << INDEX_FONT;
@@ -465,10 +481,12 @@ public class Styles implements Storable {
      * @param fill 填充{@link Font}
      * @return 样式值中“填充”部分的2进制值
      */
-    public final int addFill(Fill fill) {
-        int i = fills.indexOf(fill);
+    public final synchronized int addFill(Fill fill) {
+        if (fillIndex == null) fillIndex = indexOf(fills);
+        int i = fillIndex.getOrDefault(fill, -1);
         if (i <= -1) {
             i = fills.size();
+            fillIndex.put(fill, i);
             fills.add(fill);
         }
         return i << INDEX_FILL;
@@ -482,15 +500,29 @@ public class Styles implements Storable {
      * @param border 边框{@link Border}
      * @return 样式值中“边框”部分的2进制值
      */
-    public final int addBorder(Border border) {
-        int i = borders.indexOf(border);
+    public final synchronized int addBorder(Border border) {
+        if (borderIndex == null) borderIndex = indexOf(borders);
+        int i = borderIndex.getOrDefault(border, -1);
         if (i <= -1) {
             i = borders.size();
+            borderIndex.put(border, i);
             borders.add(border);
         }
         return i << INDEX_BORDER;
     }
 
+    /**
+     * 创建元素与下标的映射，重复的元素保留第一个下标，元素的{@code hashCode}必须与{@code equals}保持一致，
+     * 如{@link Font}的{@code null}颜色与黑色相等、{@link Fill}的无填充忽略颜色
+     *
+     * <p>注意：已添加的元素被修改后将无法通过映射找到，再次添加相同的元素时会追加到列表末尾</p>
+     */
+    private static <T> Map<T, Integer> indexOf(List<T> list) {
+        Map<T, Integer> index = new HashMap<>(Math.max(list.size() << 1, 16));
+        for (int i = 0; i < list.size(); i++) index.putIfAbsent(list.get(i), i);
+        return index;
+    }
+
     public static int[] unpack(int style) {
         int[] styles = new int[7];
         styles[0] = style >>> INDEX_NUMBER_FORMAT;
@@ -568,9 +600,9 @@ public class Styles implements Storable {
             for (Border border : borders) border.toDom(element);
         }
 
-        Element cellXfs = root.element("cellXfs").addAttribute("count", String.valueOf(map.size()));
+        Element cellXfs = root.element("cellXfs").addAttribute("count", String.valueOf(map.size));
 
-        for (int i = 0, len = counter.get(); i < len; i++) {
+        for (int i = 0, len = counter; i < len; i++) {
             int[] styles = unpack(styleIndex[i]);
 
             Element newXf = cellXfs.addElement("xf");
@@ -833,7 +865,7 @@ public class Styles implements Storable {
      * @param style 样式值
      * @return 格式化或 {@code null}
      */
-    public NumFmt getNumFmt(int style) {
+    public synchronized NumFmt getNumFmt(int style) {
         int n = style >>> INDEX_NUMBER_FORMAT;
         if (n <= 0) return null;
         NumFmt fmt = null;
@@ -859,7 +891,7 @@ public class Styles implements Storable {
      * @param style 样式值
      * @return 当前样式包含的格式化，不含格式化时返回{@code null}
      */
-    public Fill getFill(int style) {
+    public synchronized Fill getFill(int style) {
         return fills.get(style << 14 >>> (INDEX_FILL + 14));
     }
 
@@ -869,7 +901,7 @@ public class Styles implements Storable {
      * @param style 样式值
      * @return 当前样式包含的字体，样式一定包含字体
      */
-    public Font getFont(int style) {
+    public synchronized Font getFont(int style) {
         return fonts.get(Math.max(0, style << 8 >>> (INDEX_FONT + 8)));
     }
 
@@ -879,7 +911,7 @@ public class Styles implements Storable {
      * @param style 样式值
      * @return 当前样式包含的边框，不含边框时返回{@code null}
      */
-    public Border getBorder(int style) {
+    public synchronized Border getBorder(int style) {
         return borders.get(style << 20 >>> (INDEX_BORDER + 20));
     }
 
@@ -974,9 +1006,10 @@ public class Styles implements Storable {
      */
     public boolean isDate(int styleIndex) {
         // Test from cache
-        if (dateFmtCache != null && dateFmtCache.contains(styleIndex)) return true;
+        Set<Integer> cache = dateFmtCache;
+        if (cache != null && cache.contains(styleIndex)) return true;
 
-        if (styleIndex > counter.get()) return false;
+        if (styleIndex > counter) return false;
         int style = this.styleIndex[styleIndex];
         int nf = style >> INDEX_NUMBER_FORMAT & 0xFF;
 
@@ -995,13 +1028,25 @@ public class Styles implements Storable {
 
         // Put into data/time format cache
         // Ignore the style code, Uniform use of 'yyyy-mm-dd hh:mm:ss' format output
-        if (isDate) {
-            if (dateFmtCache == null) dateFmtCache = new HashSet<>();
-            dateFmtCache.add(styleIndex);
-        }
+        if (isDate) dateFmtCache().add(styleIndex);
         return isDate;
     }
 
+    /**
+     * Returns the data/time format cache, create it if not exists
+     *
+     * @return the data/time format cache
+     */
+    private Set<Integer> dateFmtCache() {
+        Set<Integer> cache = dateFmtCache;
+        if (cache == null) {
+            synchronized (this) {
+                if ((cache = dateFmtCache) == null) dateFmtCache = cache = ConcurrentHashMap.newKeySet();
+            }
+        }
+        return cache;
+    }
+
     // All indexes from 0 to 163 are reserved for built-in formats.
     // The first user-defined format starts at 164.
     private static boolean isBuildInDateFormat(int nf) {
@@ -1140,7 +1185,8 @@ public class Styles implements Storable {
      */
     @Deprecated
     public boolean fastTestDateFmt(int styleIndex) {
-        return dateFmtCache != null && dateFmtCache.contains(styleIndex);
+        Set<Integer> cache = dateFmtCache;
+        return cache != null && cache.contains(styleIndex);
     }
 
     /**
@@ -1149,8 +1195,7 @@ public class Styles implements Storable {
      * @param xf the XFRecord id
      */
     public void addDateFmtCache(int xf) {
-        if (dateFmtCache == null) dateFmtCache = new HashSet<>();
-        dateFmtCache.add(xf);
+        dateFmtCache().add(xf);
     }
 
     /**
@@ -1183,4 +1228,74 @@ public class Styles implements Storable {
         }
         return color;
     }
+
+    /**
+     * 样式值到样式索引的映射，使用开放寻址和线性探测，避免{@code HashMap<Integer, Integer>}
+     * 每次查找时的装箱开销。数组中保存{@code 索引+1}，{@code 0}表示空槽，装载因子超过0.5时扩容
+     */
+    private static class StyleIndex {
+        private int[] keys, values;
+        private int mask, size;
+
+        private StyleIndex() {
+            keys = new int[64];
+            values = new int[64];
+            mask = 63;
+        }
+
+        /**
+         * 查找样式索引
+         *
+         * @param key 样式值
+         * @return 样式索引，未找到时返回{@code -1}
+         */
+        private int get(int key) {
+            for (int i = spread(key) & mask; ; i = i + 1 & mask) {
+                int v = values[i];
+                if (v == 0) return -1;
+                if (keys[i] == key) return v - 1;
+            }
+        }
+
+        /**
+         * 添加映射，样式值已存在时覆盖原索引
+         *
+         * @param key   样式值
+         * @param value 样式索引
+         */
+        private void put(int key, int value) {
+            int i = spread(key) & mask;
+            for (; values[i] != 0; i = i + 1 & mask) {
+                if (keys[i] == key) {
+                    values[i] = value + 1;
+                    return;
+                }
+            }
+            keys[i] = key;
+            values[i] = value + 1;
+            if (++size << 1 > keys.length) resize();
+        }
+
+        private void resize() {
+            int[] oldKeys = keys, oldValues = values;
+            keys = new int[oldKeys.length << 1];
+            values = new int[oldValues.length << 1];
+            mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] == 0) continue;
+                int i = spread(oldKeys[j]) & mask;
+                while (values[i] != 0) i = i + 1 & mask;
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+
+        /**
+         * 样式值的低位多为对齐方式，使用乘法散列打散
+         */
+        private static int spread(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ h >>> 16;
+        }
+    }
 }
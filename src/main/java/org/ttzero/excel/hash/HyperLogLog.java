@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.hash;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog基数估算，使用{@code 2^p}个寄存器以极小的内存估算不重复值的个数，
+ * 标准误差约为{@code 1.04/sqrt(2^p)}，基数较小时使用线性计数修正
+ *
+ * @author guanquan.wang at 2026-10-17 18:05
+ */
+public final class HyperLogLog {
+    /**
+     * 寄存器下标位数
+     */
+    private final int p;
+    /**
+     * 寄存器，保存每个分桶中最大的前导零个数+1
+     */
+    private final byte[] registers;
+    private final double alphaMM;
+
+    /**
+     * 创建基数估算器
+     *
+     * @param p 寄存器下标位数，取值范围{@code [4, 16]}
+     */
+    public HyperLogLog(int p) {
+        if (p < 4 || p > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16, current = " + p);
+        }
+        this.p = p;
+        int m = 1 << p;
+        this.registers = new byte[m];
+        double alpha;
+        switch (m) {
+            case 16: alpha = 0.673D; break;
+            case 32: alpha = 0.697D; break;
+            case 64: alpha = 0.709D; break;
+            default: alpha = 0.7213D / (1.0D + 1.079D / m);
+        }
+        this.alphaMM = alpha * m * m;
+    }
+
+    /**
+     * 添加字符串，使用{@link String#hashCode()}作为原始哈希值（String会缓存该值）
+     * 不重复值超过{@code 2^16}时32位哈希的碰撞会使估算值偏小
+     *
+     * @param value 字符串，{@code null}被忽略
+     */
+    public void put(String value) {
+        if (value != null) putHash(fmix64(value.hashCode()));
+    }
+
+    /**
+     * 添加一个已经充分混合的64位哈希值
+     *
+     * @param hash 64位哈希值
+     */
+    public void putHash(long hash) {
+        int index = (int) (hash >>> (64 - p));
+        // 剩余位的前导零个数+1，最后补一个1位保证不超过64-p+1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1);
+        if (registers[index] < rank) registers[index] = rank;
+    }
+
+    /**
+     * 估算不重复值的个数
+     *
+     * @return 基数估算值
+     */
+    public long cardinality() {
+        int m = registers.length, zeros = 0;
+        double sum = 0.0D;
+        for (byte r : registers) {
+            sum += 1.0D / (1L << r);
+            if (r == 0) zeros++;
+        }
+        double estimate = alphaMM / sum;
+        // 小基数使用线性计数修正
+        if (estimate <= 2.5D * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * 清空所有寄存器
+     */
+    public void clear() {
+        Arrays.fill(registers, (byte) 0);
+    }
+
+    /**
+     * MurmurHash3 64位混合函数
+     */
+    static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
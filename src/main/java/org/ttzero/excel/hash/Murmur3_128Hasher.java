@@ -41,11 +41,15 @@ final class Murmur3_128Hasher extends AbstractStreamingHasher {
     private static final int CHUNK_SIZE = 16;
     private static final long C1 = 0x87c37b91114253d5L;
     private static final long C2 = 0x4cf5ad432745937fL;
-    private static final byte[] unsafeBytes = new byte[CHUNK_SIZE];
+    private final byte[] unsafeBytes = new byte[CHUNK_SIZE];
     private final int seed;
     private long h1;
     private long h2;
     private int length;
+    // Pending bytes of the current chunk for hashUtf8
+    private long k1;
+    private long k2;
+    private int n;
 
     Murmur3_128Hasher(int seed) {
         super(CHUNK_SIZE);
@@ -122,8 +126,82 @@ final class Murmur3_128Hasher extends AbstractStreamingHasher {
         h2 ^= mixK2(k2);
     }
 
-    @Override
-    public byte[] makeHash() {
+    /**
+     * Hashes the UTF-8 encoding of the string without creating any byte array, the result is the
+     * same as {@code clear().putBytes(s.getBytes(UTF_8)).hash()}, read it by {@link #h1()} and
+     * {@link #h2()}. Unpaired surrogates are encoded as {@code '?'} just like {@link String#getBytes}.
+     *
+     * @param s the string value
+     * @return this hasher
+     */
+    Murmur3_128Hasher hashUtf8(String s) {
+        h1 = seed;
+        h2 = seed;
+        length = 0;
+        k1 = k2 = 0L;
+        n = 0;
+        for (int i = 0, len = s.length(); i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                put(c);
+            } else if (c < 0x800) {
+                put(0xC0 | (c >> 6));
+                put(0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                char d;
+                if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(d = s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, d);
+                    put(0xF0 | (cp >> 18));
+                    put(0x80 | ((cp >> 12) & 0x3F));
+                    put(0x80 | ((cp >> 6) & 0x3F));
+                    put(0x80 | (cp & 0x3F));
+                    i++;
+                } else put('?');
+            } else {
+                put(0xE0 | (c >> 12));
+                put(0x80 | ((c >> 6) & 0x3F));
+                put(0x80 | (c & 0x3F));
+            }
+        }
+        if (n > 0) {
+            length += n;
+            h1 ^= mixK1(k1);
+            h2 ^= mixK2(k2);
+        }
+        finalizeHash();
+        return this;
+    }
+
+    private void put(int b) {
+        if (n < 8) k1 |= (b & 0xFFL) << (n << 3);
+        else k2 |= (b & 0xFFL) << ((n - 8) << 3);
+        if (++n == CHUNK_SIZE) {
+            bmix64(k1, k2);
+            length += CHUNK_SIZE;
+            k1 = k2 = 0L;
+            n = 0;
+        }
+    }
+
+    /**
+     * Returns the first 64 bits of the last hash, it is the little-endian value of {@code hash()[0..7]}
+     *
+     * @return the first 64 bits
+     */
+    long h1() {
+        return h1;
+    }
+
+    /**
+     * Returns the last 64 bits of the last hash, it is the little-endian value of {@code hash()[8..15]}
+     *
+     * @return the last 64 bits
+     */
+    long h2() {
+        return h2;
+    }
+
+    private void finalizeHash() {
         h1 ^= length;
         h2 ^= length;
 
@@ -135,6 +213,11 @@ final class Murmur3_128Hasher extends AbstractStreamingHasher {
 
         h1 += h2;
         h2 += h1;
+    }
+
+    @Override
+    public byte[] makeHash() {
+        finalizeHash();
 
         unsafeBytes[0] = (byte) (h1 & 0xFF);
         unsafeBytes[1] = (byte) ((h1 >> 8) & 0xFF);
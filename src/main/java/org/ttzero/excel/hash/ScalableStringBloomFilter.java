@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.hash;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 可扩容的布隆过滤器，由多层{@link StringBloomFilter}堆叠而成，当前层写满后新建一层，
+ * 新层的容量为上一层的{@link #GROWTH}倍，误判率为上一层的{@link #TIGHTENING_RATIO}倍，
+ * 所以总误判率不超过{@code fpp}。每个元素只计算一次哈希，各层共用哈希结果
+ *
+ * @author guanquan.wang at 2026-10-17 19:40
+ */
+public final class ScalableStringBloomFilter implements Predicate<String> {
+    /**
+     * 每层容量的增长倍数
+     */
+    public static final int GROWTH = 2;
+    /**
+     * 每层误判率的收紧比例
+     */
+    public static final double TIGHTENING_RATIO = 0.8D;
+    /**
+     * 所有层，最后一个为当前写入层
+     */
+    private final List<StringBloomFilter> layers;
+    private final Charset charset;
+    private final StringBloomFilter.Strategy strategy;
+    /**
+     * 当前层的容量和已写入个数
+     */
+    private long capacity, count;
+    /**
+     * 当前层的误判率
+     */
+    private double fpp;
+
+    private ScalableStringBloomFilter(Charset charset, long initialCapacity, double fpp) {
+        this.charset = charset;
+        this.strategy = new StringBloomFilter.Strategy();
+        this.layers = new ArrayList<>();
+        this.capacity = initialCapacity;
+        // 各层误判率为等比数列，首层取 fpp * (1 - r) 使总和不超过fpp
+        this.fpp = fpp * (1.0D - TIGHTENING_RATIO);
+        layers.add(StringBloomFilter.create(charset, capacity, this.fpp));
+    }
+
+    /**
+     * 创建可扩容的布隆过滤器
+     *
+     * @param initialCapacity 首层的预期插入个数
+     * @param fpp             总误判率上限
+     * @return ScalableStringBloomFilter
+     */
+    public static ScalableStringBloomFilter create(long initialCapacity, double fpp) {
+        return create(StandardCharsets.UTF_8, initialCapacity, fpp);
+    }
+
+    /**
+     * 创建可扩容的布隆过滤器
+     *
+     * @param charset         字符集
+     * @param initialCapacity 首层的预期插入个数
+     * @param fpp             总误判率上限
+     * @return ScalableStringBloomFilter
+     */
+    public static ScalableStringBloomFilter create(Charset charset, long initialCapacity, double fpp) {
+        if (initialCapacity <= 0) initialCapacity = 1;
+        if (fpp <= 0.0D || fpp >= 1.0D) {
+            throw new IllegalArgumentException("False positive probability (" + fpp + ") must be > 0.0 and < 1.0");
+        }
+        return new ScalableStringBloomFilter(charset, initialCapacity, fpp);
+    }
+
+    @Override
+    public boolean test(String t) {
+        return mightContain(t);
+    }
+
+    /**
+     * 判断元素是否可能存在，返回{@code false}时一定不存在
+     *
+     * @param object 字符串
+     * @return true: 可能存在
+     */
+    public boolean mightContain(String object) {
+        Murmur3_128Hasher hasher = strategy.hash(object, charset);
+        long hash1 = hasher.h1(), hash2 = hasher.h2();
+        // 从最新层开始查找
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            if (layers.get(i).mightContain(hash1, hash2)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 添加元素，当前层写满时新建一层
+     *
+     * @param object 字符串
+     * @return true: 过滤器的位发生变化
+     */
+    public boolean put(String object) {
+        Murmur3_128Hasher hasher = strategy.hash(object, charset);
+        long hash1 = hasher.h1(), hash2 = hasher.h2();
+        if (count >= capacity) {
+            capacity *= GROWTH;
+            fpp *= TIGHTENING_RATIO;
+            layers.add(StringBloomFilter.create(charset, capacity, fpp));
+            count = 0L;
+        }
+        boolean changed = layers.get(layers.size() - 1).put(hash1, hash2);
+        if (changed) count++;
+        return changed;
+    }
+
+    /**
+     * 获取层数
+     *
+     * @return 层数
+     */
+    public int layers() {
+        return layers.size();
+    }
+
+    /**
+     * 获取指定层占用的内存大小
+     *
+     * @param layer 层下标（从0开始）
+     * @return 字节数
+     */
+    public long memoryOf(int layer) {
+        return layers.get(layer).bitSize() >>> 3;
+    }
+
+    /**
+     * 获取所有层占用的内存大小
+     *
+     * @return 字节数
+     */
+    public long memory() {
+        long n = 0L;
+        for (StringBloomFilter layer : layers) n += layer.bitSize() >>> 3;
+        return n;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder buf = new StringBuilder("Layers: ").append(layers.size()).append(", Memory: [");
+        for (int i = 0; i < layers.size(); i++) {
+            if (i > 0) buf.append(", ");
+            buf.append(memoryOf(i));
+        }
+        return buf.append("] bytes").toString();
+    }
+}
@@ -66,11 +66,15 @@ public final class StringBloomFilter implements Predicate<String>, Serializable
          * <p>Returns whether any bits changed as a result of this operation.
          */
         public boolean put(String object, Charset charset, int numHashFunctions, LockFreeBitArray bits) {
-            long bitSize = bits.bitSize();
-            byte[] bytes = hasher.clear().putBytes(object.getBytes(charset)).hash();
-            long hash1 = fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
-            long hash2 = fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+            hash(object, charset);
+            return put(hasher.h1(), hasher.h2(), numHashFunctions, bits);
+        }
 
+        /**
+         * Sets {@code numHashFunctions} bits of the given bit array by the two 64-bit halves of a hash.
+         */
+        boolean put(long hash1, long hash2, int numHashFunctions, LockFreeBitArray bits) {
+            long bitSize = bits.bitSize();
             boolean bitsChanged = false;
             long combinedHash = hash1;
             for (int i = 0; i < numHashFunctions; i++) {
@@ -86,11 +90,15 @@ public final class StringBloomFilter implements Predicate<String>, Serializable
          * returns {@code true} if and only if all selected bits are set.
          */
         public boolean mightContain(String object, Charset charset, int numHashFunctions, LockFreeBitArray bits) {
-            long bitSize = bits.bitSize();
-            byte[] bytes = hasher.clear().putBytes(object.getBytes(charset)).hash();
-            long hash1 = fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
-            long hash2 = fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]);
+            hash(object, charset);
+            return mightContain(hasher.h1(), hasher.h2(), numHashFunctions, bits);
+        }
 
+        /**
+         * Queries {@code numHashFunctions} bits of the given bit array by the two 64-bit halves of a hash.
+         */
+        boolean mightContain(long hash1, long hash2, int numHashFunctions, LockFreeBitArray bits) {
+            long bitSize = bits.bitSize();
             long combinedHash = hash1;
             for (int i = 0; i < numHashFunctions; i++) {
                 // Make the combined hash positive and indexable
@@ -102,6 +110,19 @@ public final class StringBloomFilter implements Predicate<String>, Serializable
             return true;
         }
 
+        /**
+         * Hashes the element, read the result by {@code hasher.h1()} and {@code hasher.h2()}
+         */
+        Murmur3_128Hasher hash(String object, Charset charset) {
+            if (StandardCharsets.UTF_8.equals(charset)) {
+                // Hash the chars directly without encoding
+                hasher.hashUtf8(object);
+            } else {
+                hasher.clear().putBytes(object.getBytes(charset)).hash();
+            }
+            return hasher;
+        }
+
         /**
          * Returns the {@code long} value whose byte representation is the given 8 bytes, in big-endian
          * order; equivalent to {@code Longs.fromByteArray(new byte[] {b1, b2, b3, b4, b5, b6, b7, b8})}.
@@ -184,6 +205,23 @@ public final class StringBloomFilter implements Predicate<String>, Serializable
         return strategy.put(object, charset, numHashFunctions, bits);
     }
 
+    /**
+     * Returns the number of bits in the underlying bit array.
+     *
+     * @return the bit size
+     */
+    public long bitSize() {
+        return bits.bitSize();
+    }
+
+    boolean mightContain(long hash1, long hash2) {
+        return strategy.mightContain(hash1, hash2, numHashFunctions, bits);
+    }
+
+    boolean put(long hash1, long hash2) {
+        return strategy.put(hash1, hash2, numHashFunctions, bits);
+    }
+
     /**
      * Combines this Bloom filter with another Bloom filter by performing a bitwise OR of the
      * underlying data. The mutations happen to <b>this</b> instance. Callers must ensure the Bloom
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.processor;
+
+import org.ttzero.excel.reader.Cell;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@code ResultSet}取值器，从{@code ResultSet}当前行中读取指定列的值并直接写入单元格，
+ * 省掉装箱和二次类型判断。可以为厂商特有类型（如Oracle {@code TIMESTAMPTZ}）注册自定义取值器
+ *
+ * <pre>
+ * new ResultSetSheet(rs).registerExtractor(-101, (rs, ri, cell) -&gt; {
+ *     OffsetDateTime v = rs.getObject(ri, OffsetDateTime.class);
+ *     if (v == null) return false;
+ *     cell.setDateTime(DateUtil.toDateTimeValue(v.toLocalDateTime()));
+ *     return true;
+ * })</pre>
+ *
+ * @author guanquan.wang at 2026-10-18 00:10
+ */
+@FunctionalInterface
+public interface SQLExtractor {
+    /**
+     * 读取{@code ResultSet}当前行第{@code ri}列的值并写入单元格
+     *
+     * @param rs   {@code ResultSet}，已定位到当前行
+     * @param ri   列下标，从1开始
+     * @param cell 单元格
+     * @return {@code false}表示值为{@code null}，单元格将按空值处理
+     * @throws SQLException if SQL error occur
+     */
+    boolean extract(ResultSet rs, int ri, Cell cell) throws SQLException;
+}
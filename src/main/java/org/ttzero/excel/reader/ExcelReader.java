@@ -63,10 +63,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -241,29 +239,18 @@ public class ExcelReader implements Closeable {
      * 返回一个工作表的流，它将按顺序解析当前excel包含所有工作表（含隐藏工作表），
      * 此方法默认{@code load}工作表所以外部无需再次调用{@code load}方法
      *
-     * @return 一个顺序的工作表流
+     * <p>每个工作表拥有独立的读取流和行缓冲，共享字符串和样式支持并发读取，调用{@link Stream#parallel()}后
+     * 多个工作表将在{@code ForkJoinPool}中同时读取，单个工作表内部仍按顺序读取</p>
+     *
+     * <pre>
+     * List&lt;Item&gt; list = reader.sheets().parallel()
+     *     .flatMap(sheet -&gt; sheet.dataRows().map(row -&gt; row.to(Item.class)))
+     *     .collect(Collectors.toList());</pre>
+     *
+     * @return 一个顺序的工作表流，支持转为并行流
      */
     public Stream<Sheet> sheets() {
-        Iterator<Sheet> iter = new Iterator<Sheet>() {
-            int n = 0;
-
-            @Override
-            public boolean hasNext() {
-                return n < sheets.length;
-            }
-
-            @Override
-            public Sheet next() {
-                try {
-                    // test and load sheet data
-                    return sheets[n++].load();
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
-                }
-            }
-        };
-        return StreamSupport.stream(Spliterators.spliterator(iter, sheets.length
-            , Spliterator.ORDERED | Spliterator.NONNULL), false);
+        return IntStream.range(0, sheets.length).mapToObj(this::sheet);
     }
 
     /**
@@ -576,6 +563,20 @@ public class ExcelReader implements Closeable {
         return new XMLSheet();
     }
 
+    /**
+     * 使用内存映射的共享字符串表，首次读取字符串时将所有字符串写入临时文件并映射到内存，之后按下标直接定位，
+     * 适用于字符串随机分布在大表（超过16384个字符串）中的场景，须在读取工作表数据之前调用，否则设置无效
+     *
+     * <pre>ExcelReader.read(path).mapSharedStrings().sheet(0).dataRows()...</pre>
+     *
+     * @return 当前解析器
+     * @see SharedStrings#setMapped(boolean)
+     */
+    public ExcelReader mapSharedStrings() {
+        if (sharedStringTable != null) sharedStringTable.setMapped(true);
+        return this;
+    }
+
     /**
      * 获取Shared String Table
      *
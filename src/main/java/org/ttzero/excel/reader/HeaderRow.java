@@ -24,6 +24,7 @@ import org.ttzero.excel.entity.Column;
 import org.ttzero.excel.entity.ListSheet;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.processor.Converter;
+import org.ttzero.excel.util.AccessorFactory;
 import org.ttzero.excel.util.StringUtil;
 
 import java.beans.IntrospectionException;
@@ -44,6 +45,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.StringJoiner;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 import java.util.stream.Collectors;
 
 import static org.ttzero.excel.entity.IWorksheetWriter.isBool;
@@ -102,6 +107,37 @@ public class HeaderRow extends Row {
      * </pre></blockquote>
      */
     protected int option;
+    /**
+     * 每列的绑定器，由{@link #setClass}生成
+     */
+    protected ColumnBinder[] binders;
+
+    /**
+     * 列绑定器，读取单元格的值并写入对象
+     */
+    @FunctionalInterface
+    protected interface ColumnBinder {
+        /**
+         * 读取单元格的值并写入对象
+         *
+         * @param row 行
+         * @param t   目标对象
+         */
+        void bind(Row row, Object t);
+    }
+
+    /**
+     * 读取指定列的单元格值
+     */
+    @FunctionalInterface
+    interface CellReader {
+        Object read(Row row, int columnIndex);
+    }
+
+    /**
+     * 不支持的类型不做任何处理
+     */
+    private static final ColumnBinder NOOP_BINDER = (row, t) -> { };
 
     public HeaderRow with(Row ... rows) {
         return with(null, rows.length, rows);
@@ -321,9 +357,156 @@ public class HeaderRow extends Row {
                 .map(e -> (e instanceof ListSheet.EntryColumn) ? (ListSheet.EntryColumn) e : new ListSheet.EntryColumn(e))
                 .toArray(ListSheet.EntryColumn[]::new);
 
+        // 预先生成每列的绑定器
+        this.binders = createBinders();
+
         return this;
     }
 
+    /**
+     * 为每列生成绑定器，子类覆写了{@link #fieldPut}或{@link #methodPut}时保持逐列分派
+     *
+     * @return 绑定器数组，返回{@code null}或数组中为{@code null}的列使用{@link #fieldPut}或{@link #methodPut}赋值
+     */
+    protected ColumnBinder[] createBinders() {
+        if (isPutOverridden()) return null;
+        ColumnBinder[] binders = new ColumnBinder[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            binders[i] = createBinder(columns[i]);
+        }
+        return binders;
+    }
+
+    /**
+     * 生成单列的绑定器，取值方法和赋值器在这里一次性确定，{@code int}、{@code long}和{@code double}
+     * 类型的属性直接读取单元格的基本类型值不装箱
+     *
+     * @param ec 列
+     * @return 绑定器，无法生成时返回{@code null}
+     */
+    protected ColumnBinder createBinder(ListSheet.EntryColumn ec) {
+        AccessibleObject ao = ec.method != null ? ec.method : ec.field;
+        if (ao == null || ec.method != null && ec.method.getParameterCount() != 1) return null;
+        int c = ec.colIndex;
+        Class<?> fieldClazz = ec.clazz;
+        Class<?> memberType = ec.method != null ? ec.method.getParameterTypes()[0] : ec.field.getType();
+
+        if (ec.converter == null && memberType == fieldClazz) {
+            if (fieldClazz == int.class) {
+                ObjIntConsumer<Object> setter = AccessorFactory.intSetter(ao);
+                if (setter != null) return (row, t) -> setter.accept(t, intValue(row, c));
+            } else if (fieldClazz == long.class) {
+                ObjLongConsumer<Object> setter = AccessorFactory.longSetter(ao);
+                if (setter != null) return (row, t) -> setter.accept(t, longValue(row, c));
+            } else if (fieldClazz == double.class) {
+                ObjDoubleConsumer<Object> setter = AccessorFactory.doubleSetter(ao);
+                if (setter != null) return (row, t) -> setter.accept(t, doubleValue(row, c));
+            }
+        }
+
+        BiConsumer<Object, Object> setter = AccessorFactory.setter(ao);
+        if (setter == null) return null;
+        if (ec.converter != null) {
+            Converter<?> converter = ec.converter;
+            return (row, t) -> setter.accept(t, converter.reversion(row, row.getCell(c), fieldClazz));
+        }
+        CellReader reader = cellReader(fieldClazz);
+        return reader != null ? (row, t) -> setter.accept(t, reader.read(row, c)) : NOOP_BINDER;
+    }
+
+    /**
+     * 与{@link #fieldPut}中的类型分派一致，基本类型在单元格为空时返回默认值
+     *
+     * @param fieldClazz 属性类型
+     * @return 单元格读取方法，不支持的类型返回{@code null}
+     */
+    static CellReader cellReader(Class<?> fieldClazz) {
+        if (fieldClazz == String.class) return Row::getString;
+        if (fieldClazz == Integer.class) return Row::getInt;
+        if (fieldClazz == Long.class) return Row::getLong;
+        if (fieldClazz == java.util.Date.class || fieldClazz == java.sql.Date.class) return Row::getDate;
+        if (fieldClazz == java.sql.Timestamp.class) return Row::getTimestamp;
+        if (fieldClazz == Double.class) return Row::getDouble;
+        if (fieldClazz == Float.class) return Row::getFloat;
+        if (fieldClazz == Boolean.class) return Row::getBoolean;
+        if (fieldClazz == BigDecimal.class) return Row::getDecimal;
+        if (fieldClazz == int.class) return (row, c) -> intValue(row, c);
+        if (fieldClazz == long.class) return (row, c) -> longValue(row, c);
+        if (fieldClazz == double.class) return (row, c) -> doubleValue(row, c);
+        if (fieldClazz == float.class) return (row, c) -> { Float v; return (v = row.getFloat(c)) != null ? v : 0.0F; };
+        if (fieldClazz == boolean.class) return (row, c) -> { Boolean v; return (v = row.getBoolean(c)) != null ? v : false; };
+        if (fieldClazz == java.sql.Time.class) return Row::getTime;
+        if (fieldClazz == LocalDateTime.class) return Row::getLocalDateTime;
+        if (fieldClazz == LocalDate.class) return Row::getLocalDate;
+        if (fieldClazz == LocalTime.class) return Row::getLocalTime;
+        if (fieldClazz == Character.class) return Row::getChar;
+        if (fieldClazz == Byte.class) return Row::getByte;
+        if (fieldClazz == Short.class) return Row::getShort;
+        if (fieldClazz == char.class) return (row, c) -> { Character v; return (v = row.getChar(c)) != null ? v : '\0'; };
+        if (fieldClazz == byte.class) return (row, c) -> { Byte v; return (v = row.getByte(c)) != null ? v : 0; };
+        if (fieldClazz == short.class) return (row, c) -> { Short v; return (v = row.getShort(c)) != null ? v : 0; };
+        if (fieldClazz == RowNum.class) return (row, c) -> row.getRowNum();
+        return null;
+    }
+
+    /**
+     * 读取{@code int}值，数值类型的单元格不装箱，其余类型同{@link Row#getInt(Cell)}，空值返回0
+     */
+    static int intValue(Row row, int columnIndex) {
+        Cell c = row.getCell(columnIndex);
+        switch (c.t) {
+            case Cell.NUMERIC: return c.intVal;
+            case Cell.LONG   : return (int) c.longVal;
+            case Cell.DOUBLE : return (int) c.doubleVal;
+            default:
+                Integer v = row.getInt(c);
+                return v != null ? v : 0;
+        }
+    }
+
+    /**
+     * 读取{@code long}值，数值类型的单元格不装箱，其余类型同{@link Row#getLong(Cell)}，空值返回0
+     */
+    static long longValue(Row row, int columnIndex) {
+        Cell c = row.getCell(columnIndex);
+        switch (c.t) {
+            case Cell.LONG   : return c.longVal;
+            case Cell.NUMERIC: return c.intVal;
+            case Cell.DOUBLE : return (long) c.doubleVal;
+            default:
+                Long v = row.getLong(c);
+                return v != null ? v : 0L;
+        }
+    }
+
+    /**
+     * 读取{@code double}值，数值类型的单元格不装箱，其余类型同{@link Row#getDouble(Cell)}，空值返回0
+     */
+    static double doubleValue(Row row, int columnIndex) {
+        Cell c = row.getCell(columnIndex);
+        switch (c.t) {
+            case Cell.DOUBLE : return c.doubleVal;
+            case Cell.NUMERIC: return c.intVal;
+            case Cell.LONG   : return c.longVal;
+            default:
+                Double v = row.getDouble(c);
+                return v != null ? v : 0.0D;
+        }
+    }
+
+    /**
+     * 检查子类是否覆写了{@link #fieldPut}或{@link #methodPut}
+     */
+    private boolean isPutOverridden() {
+        for (Class<?> c = getClass(); c != HeaderRow.class; c = c.getSuperclass()) {
+            for (Method m : c.getDeclaredMethods()) {
+                if ((m.getName().equals("fieldPut") || m.getName().equals("methodPut")) && m.getParameterCount() == 3)
+                    return true;
+            }
+        }
+        return false;
+    }
+
     static boolean isTopRow(List<Dimension> mergeCells, int row, int col) {
         for (Dimension dim : mergeCells) {
             if (dim.checkRange(row, col) && row == dim.firstRow) return true;
@@ -461,9 +644,13 @@ public class HeaderRow extends Row {
 
     void put(Row row, Object t) throws IllegalAccessException, InvocationTargetException {
         int i = 0;
+        ColumnBinder[] binders = this.binders;
         try {
             for (; i < columns.length; i++) {
-                if (columns[i].method != null)
+                ColumnBinder binder;
+                if (binders != null && (binder = binders[i]) != null)
+                    binder.bind(row, t);
+                else if (columns[i].method != null)
                     methodPut(i, row, t);
                 else
                     fieldPut(i, row, t);
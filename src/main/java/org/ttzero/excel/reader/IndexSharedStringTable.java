@@ -86,7 +86,7 @@ public class IndexSharedStringTable extends SharedStringTable {
      * @throws IOException if I/O error occur.
      */
     public IndexSharedStringTable() throws IOException {
-        super();
+        super(false);
 
         Path superPath = getTemp();
         temp = Files.createFile(Paths.get(superPath.toString() + ".idx"));
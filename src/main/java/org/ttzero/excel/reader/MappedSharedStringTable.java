@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.ttzero.excel.util.FileUtil;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * 内存映射的共享字符串表，所有字符串以UTF-8编码紧凑地写入临时文件，写完后映射到内存，
+ * 另外使用一个{@code int}数组记录每个字符串的起始位置，按下标获取字符串只需一次定位和解码，
+ * 与{@link IndexSharedStringTable}按页加载不同，随机访问不会引起反复换页
+ *
+ * <p>写入阶段非线程安全，调用{@link #map()}之后{@link #get(int)}可以被多个线程同时调用，
+ * 但不支持在{@link #close()}之后或与其并发调用{@link #get(int)}，关闭后读取将抛出{@link IllegalStateException}</p>
+ *
+ * @author guanquan.wang at 2026-10-18 04:30
+ */
+public class MappedSharedStringTable implements Closeable {
+    /**
+     * 临时文件
+     */
+    private final Path temp;
+    private OutputStream os;
+    /**
+     * 字符串的起始位置，{@code offsets[i + 1] - offsets[i]}为第{@code i}个字符串的字节数
+     */
+    private volatile int[] offsets;
+    private int size;
+    private long position;
+    private volatile MappedByteBuffer buffer;
+
+    public MappedSharedStringTable() throws IOException {
+        temp = Files.createTempFile("+", ".sst.map");
+        os = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16);
+        offsets = new int[1 << 10];
+    }
+
+    /**
+     * 写入一个字符串
+     *
+     * @param value 字符串
+     * @return 字符串的下标
+     * @throws IOException if I/O error occur
+     */
+    public int push(String value) throws IOException {
+        if (os == null) throw new IllegalStateException("The table has been mapped");
+        byte[] bytes = value.getBytes(UTF_8);
+        if (position + bytes.length > Integer.MAX_VALUE)
+            throw new ExcelReadException("The shared string table is too large to be mapped");
+        os.write(bytes);
+        position += bytes.length;
+        if (size + 2 > offsets.length) offsets = Arrays.copyOf(offsets, offsets.length << 1);
+        offsets[++size] = (int) position;
+        return size - 1;
+    }
+
+    /**
+     * 结束写入并将临时文件映射到内存
+     *
+     * @return 当前共享字符串表
+     * @throws IOException if I/O error occur
+     */
+    public MappedSharedStringTable map() throws IOException {
+        if (os != null) {
+            os.close();
+            os = null;
+        }
+        // The mapping remains valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, position);
+        }
+        return this;
+    }
+
+    /**
+     * 按下标获取字符串，从映射的字节中解码
+     *
+     * @param index 下标
+     * @return 字符串
+     * @throws IndexOutOfBoundsException 下标越界
+     * @throws IllegalStateException 未映射或已关闭
+     */
+    public String get(int index) {
+        // Read the fields once, close() may clear them at any time
+        MappedByteBuffer mapped = this.buffer;
+        int[] offsets = this.offsets;
+        if (mapped == null || offsets == null)
+            throw new IllegalStateException("The table is not mapped or has been closed");
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        int from = offsets[index], n = offsets[index + 1] - from;
+        if (n == 0) return "";
+        byte[] bytes = new byte[n];
+        // Duplicate to keep the position of the shared buffer unchanged
+        ByteBuffer buffer = mapped.duplicate();
+        buffer.position(from);
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * 字符串数量
+     *
+     * @return 字符串数量
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 关闭并删除临时文件，先释放映射的引用使后续的{@link #get(int)}失败，再删除文件
+     *
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void close() throws IOException {
+        buffer = null;
+        offsets = null;
+        if (os != null) {
+            os.close();
+            os = null;
+        }
+        FileUtil.rm(temp);
+    }
+}
@@ -18,13 +18,12 @@ package org.ttzero.excel.reader;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.ttzero.excel.util.Utf8Reader;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 import static java.lang.Character.highSurrogate;
@@ -90,7 +89,7 @@ public class SharedStrings implements Closeable {
      * @param hotSize   the number of high frequency word
      */
     public SharedStrings(InputStream is, int cacheSize, int hotSize) {
-        this.reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+        this.reader = new Utf8Reader(is);
         if (cacheSize > 0) {
             this.page = tableSizeFor(cacheSize);
         }
@@ -182,8 +181,17 @@ public class SharedStrings implements Closeable {
      * 1: forward only
      * 2: forward + backward
      * 4: large model/unknown size
+     * 8: mapped
      */
     private int status;
+    /**
+     * Use {@link MappedSharedStringTable} for the large model
+     */
+    private boolean mapped;
+    /**
+     * The mapped table, all strings are parsed on first access
+     */
+    private volatile MappedSharedStringTable mappedTable;
     /**
      * Buffer
      */
@@ -301,12 +309,46 @@ public class SharedStrings implements Closeable {
     }
 
     /**
-     * Getting the strings value by index
+     * 大表（超过16384个字符串或数量未知）使用内存映射的共享字符串表，首次获取字符串时解析所有字符串并写入
+     * {@link MappedSharedStringTable}，之后按下标直接定位，适用于字符串随机分布在大表中的场景，
+     * 避免按页加载时的反复换页。须在获取字符串之前设置，小表所有字符串已在内存中设置无效，
+     * 已经获取过字符串后再设置也将被忽略，继续按页加载
+     *
+     * @param mapped true: 使用内存映射
+     * @return current SharedStrings
+     */
+    public SharedStrings setMapped(boolean mapped) {
+        this.mapped = mapped;
+        return this;
+    }
+
+    /**
+     * Getting the strings value by index, the mapped table is read without lock
      *
      * @param index the index of SharedStringTable
      * @return string
      */
     public String get(int index) {
+        MappedSharedStringTable table = mappedTable;
+        return table != null ? table.get(index) : get0(index);
+    }
+
+    /**
+     * Getting the strings value by index, the forward/backward windows and the hot cache
+     * are shared by all worksheets, so it is synchronized for concurrent readers
+     *
+     * @param index the index of SharedStringTable
+     * @return string
+     */
+    private synchronized String get0(int index) {
+        // Mapped by another thread
+        if (mappedTable != null) return mappedTable.get(index);
+        // Parse all strings into mapped table, only if nothing has been read yet,
+        // otherwise the reader is not at the first string and all indexes will be shifted
+        if (mapped && status == 4 && reader != null && offset_forward == -1) {
+            map();
+            return mappedTable.get(index);
+        }
 //        checkBound(index);
         total++;
 
@@ -407,6 +449,38 @@ public class SharedStrings implements Closeable {
         limit_backward = limit_forward;
     }
 
+    /**
+     * Parse all strings into {@link MappedSharedStringTable}
+     */
+    private void map() {
+        MappedSharedStringTable table = null;
+        try {
+            table = new MappedSharedStringTable();
+            // Mark mapped so that the paging table will not be written
+            status = 8;
+            forward = new String[page = 1 << 10];
+            for (int n; ; ) {
+                n = readData();
+                for (int i = 0; i < n; i++) table.push(forward[i]);
+                if (n < page) break;
+            }
+            mappedTable = table.map();
+        } catch (IOException e) {
+            if (table != null) {
+                try {
+                    table.close();
+                } catch (IOException ex) {
+                    // Ignore
+                }
+            }
+            throw new ExcelReadException(e);
+        }
+        max = table.size();
+        forward = null;
+        backward = null;
+        LOGGER.debug("Mapped {} shared strings", max);
+    }
+
     /**
      * Load string record from xml
      */
@@ -463,6 +537,8 @@ public class SharedStrings implements Closeable {
             nChar = 0;
         }
 
+        length = len;
+
         // Reset totals when unknown size
         if (max < n) {
             max = offsetM * page + n;
@@ -716,6 +792,9 @@ public class SharedStrings implements Closeable {
         if (sst != null) {
             sst.close();
         }
+        if (mappedTable != null) {
+            mappedTable.close();
+        }
     }
 
     @Override
@@ -262,6 +262,46 @@ public interface Sheet extends Closeable {
             dataIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
+    /**
+     * 返回一个并行行流（包含空行），由当前线程按{@code </row>}切分为若干批次，解析单元格在{@code ForkJoinPool}中并行进行。
+     * 与{@link #rows()}不同，每行都是独立的{@code Row}对象可以直接收集，
+     * 流保持行顺序，不关心顺序时可以调用{@link Stream#unordered()}获得更高的吞吐量。
+     *
+     * <pre>
+     * // 在指定线程池中解析
+     * new ForkJoinPool(8).submit(() -&gt; sheet.parallelRows().map(Row::toMap).collect(Collectors.toList())).get()</pre>
+     *
+     * <p>注意：切分速度快于解析时已切分未解析的行会暂存在内存中。默认以及不支持并行解析的实现（如{@link FullSheet}
+     * 需要跨行复制合并单元格的值）返回顺序流</p>
+     *
+     * @return 并行行流
+     */
+    default Stream<Row> parallelRows() {
+        return rows();
+    }
+
+    /**
+     * 返回一个并行非空行流，表头的处理与{@link #dataRows()}相同，其余特性参考{@link #parallelRows()}
+     *
+     * @return 并行非空行流
+     */
+    default Stream<Row> parallelDataRows() {
+        return dataRows();
+    }
+
+    /**
+     * 返回一个并行对象流，解析单元格与转换对象均在{@code ForkJoinPool}中并行进行，其余特性参考{@link #parallelRows()}
+     *
+     * <pre>List&lt;Item&gt; list = reader.sheet(0).parallelDataRows(Item.class).collect(Collectors.toList())</pre>
+     *
+     * @param clazz 指定转换类型
+     * @param <T>   对象类型
+     * @return 并行对象流
+     */
+    default <T> Stream<T> parallelDataRows(Class<T> clazz) {
+        return parallelDataRows().map(row -> row.to(clazz));
+    }
+
 
     /**
      * 将当前工作表另存为{@code CSV}格式并保存到{@code path}文件中，默认以{@code UTF-8}字符集保存
@@ -436,6 +476,21 @@ public interface Sheet extends Closeable {
      */
     int getHeaderColumnReadOption();
 
+    /**
+     * 设置预读缓冲块数量，开启后由一个后台线程提前解压工作表数据，调用线程只负责解析，
+     * 解压和解析并行进行，行的顺序以及迭代器的行为保持不变。须在读取数据之前设置
+     *
+     * <pre>reader.sheet(0).setReadAhead(4).rows().forEach(System.out::println)</pre>
+     *
+     * <p>注意：默认不开启，不支持预读的实现将忽略此设置</p>
+     *
+     * @param buffers 预读缓冲块数量，每块64K，{@code 0}表示关闭
+     * @return 当前工作表
+     */
+    default Sheet setReadAhead(int buffers) {
+        return this;
+    }
+
     /**
      * 将工作表转为普通工作表{@code Sheet}，它只专注获取值
      *
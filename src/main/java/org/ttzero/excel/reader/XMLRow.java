@@ -164,6 +164,20 @@ public class XMLRow extends Row {
         for (Cell cell; (cell = nextCell()) != null; parseCellValue(cell)) ;
     }
 
+    /**
+     * 提前从共享字符串表中获取本行所有字符串，并行解析时每行只加锁一次以减少对共享字符串表的竞争
+     */
+    protected void loadSharedStrings() {
+        if (sst == null || cells == null) return;
+        Cell[] cells = this.cells;
+        synchronized (sst) {
+            for (int i = 0, len = Math.min(lc, cells.length); i < len; i++) {
+                Cell c = cells[i];
+                if (c.t == SST && c.stringVal == null) c.setString(sst.get(c.intVal));
+            }
+        }
+    }
+
     /**
      * Loop parse cell
      *
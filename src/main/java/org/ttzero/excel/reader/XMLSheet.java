@@ -30,12 +30,13 @@ import org.ttzero.excel.entity.Relationship;
 import org.ttzero.excel.entity.style.Styles;
 import org.ttzero.excel.manager.Const;
 import org.ttzero.excel.manager.RelManager;
+import org.ttzero.excel.util.ReadAheadInputStream;
 import org.ttzero.excel.util.StringUtil;
+import org.ttzero.excel.util.Utf8Reader;
 import org.ttzero.excel.validation.Validation;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -44,7 +45,11 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -90,6 +95,7 @@ public class XMLSheet implements Sheet {
         this.entry = sheet.entry;
         this.option = sheet.option;
         this.relManager = sheet.relManager;
+        this.readAhead = sheet.readAhead;
     }
 
     protected String name;
@@ -123,6 +129,8 @@ public class XMLSheet implements Sheet {
     protected int option;
     // Relationship Manager
     protected RelManager relManager;
+    // The number of read-ahead buffers, 0 means inflate in the current thread
+    protected int readAhead;
 
     /**
      * Setting the worksheet name
@@ -481,7 +489,7 @@ public class XMLSheet implements Sheet {
             return this;
         }
         LOGGER.debug("Load {}", path);
-        reader = new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8);
+        reader = openReader();
         cb = new char[8192];
         nChar = 0; mark = 0;
 
@@ -498,6 +506,24 @@ public class XMLSheet implements Sheet {
         return this;
     }
 
+    /**
+     * 打开工作表数据流，设置了预读时由后台线程解压
+     *
+     * @return 工作表的{@code Reader}
+     * @throws IOException if io error occur
+     */
+    protected Reader openReader() throws IOException {
+        InputStream is = zipFile.getInputStream(entry);
+        if (readAhead > 0) is = new ReadAheadInputStream(is, readAhead);
+        return new Utf8Reader(is);
+    }
+
+    @Override
+    public XMLSheet setReadAhead(int buffers) {
+        this.readAhead = Math.max(buffers, 0);
+        return this;
+    }
+
     // 解析工作表头信息，注意reader的position必须从0开始
     protected void parseBOF() throws IOException {
         int left = 0;
@@ -565,14 +591,31 @@ public class XMLSheet implements Sheet {
      * @return Row
      */
     protected XMLRow nextRow() {
-        if (eof) return null;
+        int start = nextRowStart();
+        if (start < 0) return null;
+        // Empty Row
+        if (cb[nChar - 1] == '/') {
+            return sRow.empty(cb, start, nChar - start);
+        }
+        // share row
+        return sRow.with(cb, start, nChar - start);
+    }
+
+    /**
+     * 查找下一行的位置，找到后行数据为{@code cb[start, nChar)}，空行时{@code nChar}指向{@code "/>"}中的{@code '>'}，
+     * 所以可以使用{@code cb[nChar - 1] == '/'}判断是否为空行
+     *
+     * @return 行的起始位置，{@code -1}表示没有更多行
+     */
+    protected int nextRowStart() {
+        if (eof) return -1;
         boolean endTag = false;
         int start = nChar;
         // find end of row tag
         for (; ++nChar < length && cb[nChar] != '>'; ) ;
         // Empty Row
         if (nChar < length && cb[nChar - 1] == '/') {
-            return sRow.empty(cb, start, nChar - start);
+            return start;
         }
         // Not empty
         for (; nChar < length - 6; nChar++) {
@@ -587,7 +630,9 @@ public class XMLSheet implements Sheet {
         /* Load more when not found end of row tag */
         if (!endTag) {
             int n;
-            if (start == 0) {
+            // Short read, the buffer is not full yet
+            if (start == 0 && length < cb.length) n = length;
+            else if (start == 0) {
                 char[] _cb = new char[cb.length << 1];
                 System.arraycopy(cb, start, _cb, 0, n = length - start);
                 cb = _cb;
@@ -604,22 +649,21 @@ public class XMLSheet implements Sheet {
                     LOGGER.debug("end of file.");
                     if (dimension == null)
                         dimension = new Dimension(1, (short) Math.max(sRow.fc, 1), Math.max(sRow.getRowNum(), 1), (short) Math.max(sRow.lc, 1));
-                    return null;
+                    return -1;
                 }
             } catch (IOException e) {
                 if (e.getMessage() != null && e.getMessage().contains("Stream closed")) {
                     eof = true;
-                    return null;
+                    return -1;
                 }
                 throw new ExcelReadException("Parse row data error", e);
             }
             nChar = 0;
             length += n;
-            return nextRow();
+            return nextRowStart();
         }
 
-        // share row
-        return sRow.with(cb, start, nChar - start);
+        return start;
     }
 
     protected Row findRow0() {
@@ -681,6 +725,180 @@ public class XMLSheet implements Sheet {
         return nIter;
     }
 
+    /**
+     * Parallel stream of each row of data contains header information and blank lines,
+     * the {@code FullSheet} and other sub-sheets fallback to sequential stream
+     *
+     * @return a parallel row stream
+     */
+    @Override
+    public Stream<Row> parallelRows() {
+        if (!supportParallel()) return Sheet.super.parallelRows();
+        // If the header row number is specified, the header will be parsed first
+        if (hrf > 0) getHeader();
+        return StreamSupport.stream(new RowSpliterator(), true);
+    }
+
+    /**
+     * Parallel stream of data rows without header information and blank lines
+     *
+     * @return a parallel row stream
+     */
+    @Override
+    public Stream<Row> parallelDataRows() {
+        if (!supportParallel()) return Sheet.super.parallelDataRows();
+        // If the header row number is specified, the header will be parsed first
+        if (hrf > 0) getHeader();
+        // Same as dataIterator, the first non-blank row will be used as the header
+        else {
+            XMLRow row;
+            for (; (row = nextRow()) != null && row.isBlank(); ) ;
+            if (row != null) {
+                if (header == null) header = row.asHeader().setOptions(option << 16 >>> 16);
+                row.setHeader(header);
+            }
+        }
+        return StreamSupport.stream(new RowSpliterator(), true).filter(Row::nonBlank);
+    }
+
+    @Override
+    public <T> Stream<T> parallelDataRows(Class<T> clazz) {
+        if (!supportParallel()) return Sheet.super.parallelDataRows(clazz);
+        Stream<Row> rows = parallelDataRows();
+        // Parse the class before splitting, the binders are read-only after that
+        HeaderRow hr = sRow != null ? sRow.hr : null;
+        if (hr != null && !hr.is(clazz)) hr.setClass(clazz);
+        return rows.map(row -> row.to(clazz));
+    }
+
+    /**
+     * 是否支持并行解析，{@code FullSheet}需要跨行复制合并单元格的值所以不支持
+     *
+     * @return true: 支持
+     */
+    protected boolean supportParallel() {
+        return sRow == null || sRow.getClass() == XMLRow.class;
+    }
+
+    /**
+     * 并行行流的切分器，每次切分从工作表读取一批行并复制到独立的缓冲区，批次大小逐步增加到{@link #MAX_BATCH}，
+     * 切出的批次在{@code ForkJoinPool}中解析
+     */
+    protected class RowSpliterator implements Spliterator<Row> {
+        static final int BATCH_UNIT = 1 << 10;
+        static final int MAX_BATCH = 1 << 14;
+        private final HeaderRow hr = sRow != null ? sRow.hr : null;
+        private final int startRow = XMLSheet.this.startRow > 0 ? XMLSheet.this.startRow : 1;
+        private int batch;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Row> action) {
+            RowChunk chunk = read(1);
+            return chunk != null && chunk.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<Row> trySplit() {
+            int n = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+            RowChunk chunk = read(n);
+            if (chunk != null) batch = n;
+            return chunk;
+        }
+
+        /**
+         * 读取一批行，行数据复制到独立的缓冲区
+         *
+         * @param max 最大行数
+         * @return 行批次，{@code null}表示没有更多行
+         */
+        protected RowChunk read(int max) {
+            char[] buf = new char[Math.min(max, 64) << 7];
+            int[] bounds = new int[max + 1];
+            boolean[] empty = new boolean[max];
+            int n = 0, pos = 0;
+            for (int start; n < max && (start = nextRowStart()) >= 0; n++) {
+                int len = nChar - start;
+                // Keep the closing '>' of empty row and a spare char so that the row parser never reads out of bound
+                if (pos + len + 2 > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + len + 2));
+                System.arraycopy(cb, start, buf, pos, len);
+                bounds[n] = pos;
+                pos += len;
+                if (empty[n] = cb[nChar - 1] == '/') buf[pos++] = '>';
+            }
+            bounds[n] = pos;
+            return n > 0 ? new RowChunk(buf, bounds, empty, 0, n, sst, styles, startRow, hr) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+
+    /**
+     * 一批已切分未解析的行，每行解析为独立的{@link XMLRow}对象
+     */
+    protected static class RowChunk implements Spliterator<Row> {
+        private final char[] cb;
+        private final int[] bounds;
+        private final boolean[] empty;
+        private final SharedStrings sst;
+        private final Styles styles;
+        private final int startRow;
+        private final HeaderRow hr;
+        private int index;
+        private final int fence;
+
+        RowChunk(char[] cb, int[] bounds, boolean[] empty, int index, int fence
+            , SharedStrings sst, Styles styles, int startRow, HeaderRow hr) {
+            this.cb = cb;
+            this.bounds = bounds;
+            this.empty = empty;
+            this.index = index;
+            this.fence = fence;
+            this.sst = sst;
+            this.styles = styles;
+            this.startRow = startRow;
+            this.hr = hr;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Row> action) {
+            if (index >= fence) return false;
+            int i = index++, from = bounds[i];
+            XMLRow row = new XMLRow(sst, styles, startRow);
+            row.hr = hr;
+            if (empty[i]) row.empty(cb, from, bounds[i + 1] - from - 1);
+            else {
+                row.with(cb, from, bounds[i + 1] - from);
+                row.loadSharedStrings();
+            }
+            action.accept(row);
+            return true;
+        }
+
+        @Override
+        public Spliterator<Row> trySplit() {
+            int lo = index, mid = (lo + fence) >>> 1;
+            return lo < mid ? new RowChunk(cb, bounds, empty, lo, index = mid, sst, styles, startRow, hr) : null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | SIZED | SUBSIZED;
+        }
+    }
+
     /**
      * List all pictures in workbook
      *
@@ -755,7 +973,7 @@ public class XMLSheet implements Sheet {
                 return this.load();
             }
             // Reload
-            reader = new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8);
+            reader = openReader();
             reader.skip(mark);
             length = reader.read(cb);
             nChar = 0;
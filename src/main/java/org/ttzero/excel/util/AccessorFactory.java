@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * 生成编译后的属性取值器和赋值器，替代{@link Method#invoke}、{@link Field#get}和{@link Field#set}反射调用。
+ *
+ * <p>公开类的公开方法使用{@link LambdaMetafactory}生成直接调用的实现类，与手写Lambda性能一致；
+ * 私有方法、Bean字段或当前类加载器不可见的类使用{@link MethodHandle}调用。
+ * {@code int}、{@code long}和{@code double}等基本类型可以生成对应的{@link ToIntFunction}、
+ * {@link ObjIntConsumer}等特化版本以避免装箱。</p>
+ *
+ * <p>生成的结果按声明类缓存在{@link ClassMetadata}中，类卸载时随之回收。无法生成时返回{@code null}，调用方需回退到反射</p>
+ *
+ * @author guanquan.wang at 2026-10-17 21:10
+ */
+public final class AccessorFactory {
+    private AccessorFactory() { }
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    /**
+     * 取值器类型：对象、int、long、double，赋值器类型为取值器类型+{@link #SETTER}
+     */
+    private static final int OBJECT = 0, INT = 1, LONG = 2, DOUBLE = 3, SETTER = 4;
+    private static final Class<?>[] INTERFACES = { Function.class, ToIntFunction.class, ToLongFunction.class, ToDoubleFunction.class
+        , BiConsumer.class, ObjIntConsumer.class, ObjLongConsumer.class, ObjDoubleConsumer.class };
+    private static final String[] SAM_NAMES = { "apply", "applyAsInt", "applyAsLong", "applyAsDouble", "accept", "accept", "accept", "accept" };
+    private static final Class<?>[] VALUE_TYPES = { Object.class, int.class, long.class, double.class };
+    /**
+     * 无法生成时的占位符
+     */
+    private static final Object NONE = new Object();
+
+    /**
+     * 生成对象取值器，基本类型的返回值会被装箱
+     *
+     * @param ao 无参get方法或Bean字段
+     * @return 取值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static Function<Object, Object> getter(AccessibleObject ao) {
+        return (Function<Object, Object>) get(ao, OBJECT);
+    }
+
+    /**
+     * 生成{@code int}取值器，仅支持{@code int}、{@code short}、{@code byte}和{@code char}类型
+     *
+     * @param ao 无参get方法或Bean字段
+     * @return 取值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ToIntFunction<Object> intGetter(AccessibleObject ao) {
+        return (ToIntFunction<Object>) get(ao, INT);
+    }
+
+    /**
+     * 生成{@code long}取值器，支持{@code long}以及可以拓宽为{@code long}的基本类型
+     *
+     * @param ao 无参get方法或Bean字段
+     * @return 取值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ToLongFunction<Object> longGetter(AccessibleObject ao) {
+        return (ToLongFunction<Object>) get(ao, LONG);
+    }
+
+    /**
+     * 生成{@code double}取值器，支持{@code double}以及可以拓宽为{@code double}的基本类型
+     *
+     * @param ao 无参get方法或Bean字段
+     * @return 取值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ToDoubleFunction<Object> doubleGetter(AccessibleObject ao) {
+        return (ToDoubleFunction<Object>) get(ao, DOUBLE);
+    }
+
+    /**
+     * 生成对象赋值器，基本类型的参数会被拆箱，传入{@code null}时抛{@code NullPointerException}
+     *
+     * @param ao 单参数set方法或Bean字段
+     * @return 赋值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static BiConsumer<Object, Object> setter(AccessibleObject ao) {
+        return (BiConsumer<Object, Object>) get(ao, SETTER | OBJECT);
+    }
+
+    /**
+     * 生成{@code int}赋值器，仅支持参数或字段类型为{@code int}
+     *
+     * @param ao 单参数set方法或Bean字段
+     * @return 赋值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ObjIntConsumer<Object> intSetter(AccessibleObject ao) {
+        return (ObjIntConsumer<Object>) get(ao, SETTER | INT);
+    }
+
+    /**
+     * 生成{@code long}赋值器，仅支持参数或字段类型为{@code long}
+     *
+     * @param ao 单参数set方法或Bean字段
+     * @return 赋值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ObjLongConsumer<Object> longSetter(AccessibleObject ao) {
+        return (ObjLongConsumer<Object>) get(ao, SETTER | LONG);
+    }
+
+    /**
+     * 生成{@code double}赋值器，仅支持参数或字段类型为{@code double}
+     *
+     * @param ao 单参数set方法或Bean字段
+     * @return 赋值器，无法生成时返回{@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public static ObjDoubleConsumer<Object> doubleSetter(AccessibleObject ao) {
+        return (ObjDoubleConsumer<Object>) get(ao, SETTER | DOUBLE);
+    }
+
+    private static Object get(AccessibleObject ao, int kind) {
+        if (!(ao instanceof Method) && !(ao instanceof Field)) return null;
+        Class<?> declaringClass = ao instanceof Method ? ((Method) ao).getDeclaringClass() : ((Field) ao).getDeclaringClass();
+        String key;
+        if (ao instanceof Method) {
+            Method method = (Method) ao;
+            // 区分重载的set方法
+            key = "m:" + method.getName() + (method.getParameterCount() == 1 ? '(' + method.getParameterTypes()[0].getName() + ')' : "") + ':' + kind;
+        } else key = "f:" + ((Field) ao).getName() + ':' + kind;
+        ConcurrentMap<String, Object> cache = ClassMetadata.of(declaringClass).accessors;
+        Object accessor = cache.get(key);
+        if (accessor == null) {
+            accessor = compile(ao, kind);
+            if (accessor == null) accessor = NONE;
+            Object prev = cache.putIfAbsent(key, accessor);
+            if (prev != null) accessor = prev;
+        }
+        return accessor != NONE ? accessor : null;
+    }
+
+    private static Object compile(AccessibleObject ao, int kind) {
+        boolean setter = (kind & SETTER) == SETTER;
+        Class<?> samValueType = VALUE_TYPES[kind & 3];
+        MethodHandle mh;
+        Class<?> declaringClass, valueType;
+        boolean canSpin;
+        try {
+            if (ao instanceof Method) {
+                Method method = (Method) ao;
+                if (Modifier.isStatic(method.getModifiers())) return null;
+                // 取值器仅支持无参方法，赋值器仅支持单参数方法
+                if (setter) {
+                    if (method.getParameterCount() != 1) return null;
+                    valueType = method.getParameterTypes()[0];
+                } else {
+                    if (method.getParameterCount() != 0 || method.getReturnType() == void.class) return null;
+                    valueType = method.getReturnType();
+                }
+                declaringClass = method.getDeclaringClass();
+                canSpin = Modifier.isPublic(method.getModifiers()) && isPublicAndVisible(declaringClass)
+                    // 赋值器的参数需要强转，所以参数类型也必须可见
+                    && (!setter || valueType.isPrimitive() || isPublicAndVisible(valueType));
+                if (!canSpin) method.setAccessible(true);
+                mh = LOOKUP.unreflect(method);
+            } else {
+                Field field = (Field) ao;
+                if (Modifier.isStatic(field.getModifiers())) return null;
+                declaringClass = field.getDeclaringClass();
+                valueType = field.getType();
+                // LambdaMetafactory不支持字段
+                canSpin = false;
+                field.setAccessible(true);
+                mh = setter ? LOOKUP.unreflectSetter(field) : LOOKUP.unreflectGetter(field);
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+
+        if (samValueType != Object.class && (setter ? valueType != samValueType : !isWidening(valueType, samValueType))) return null;
+
+        MethodType samType = setter ? MethodType.methodType(void.class, Object.class, samValueType)
+            : MethodType.methodType(samValueType, Object.class);
+        if (canSpin) {
+            try {
+                MethodType instantiatedType = setter
+                    ? MethodType.methodType(void.class, declaringClass, samValueType != Object.class ? samValueType : wrap(valueType))
+                    : MethodType.methodType(samValueType, declaringClass);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, SAM_NAMES[kind], MethodType.methodType(INTERFACES[kind])
+                    , samType, mh, instantiatedType);
+                return site.getTarget().invoke();
+            } catch (Throwable e) {
+                // Fall back to method handle
+            }
+        }
+
+        final MethodHandle target;
+        try {
+            target = mh.asType(samType);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        switch (kind) {
+            case INT:
+                return (ToIntFunction<Object>) o -> {
+                    try {
+                        return (int) target.invokeExact(o);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case LONG:
+                return (ToLongFunction<Object>) o -> {
+                    try {
+                        return (long) target.invokeExact(o);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case DOUBLE:
+                return (ToDoubleFunction<Object>) o -> {
+                    try {
+                        return (double) target.invokeExact(o);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case SETTER | OBJECT:
+                return (BiConsumer<Object, Object>) (o, v) -> {
+                    try {
+                        target.invokeExact(o, v);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case SETTER | INT:
+                return (ObjIntConsumer<Object>) (o, v) -> {
+                    try {
+                        target.invokeExact(o, v);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case SETTER | LONG:
+                return (ObjLongConsumer<Object>) (o, v) -> {
+                    try {
+                        target.invokeExact(o, v);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            case SETTER | DOUBLE:
+                return (ObjDoubleConsumer<Object>) (o, v) -> {
+                    try {
+                        target.invokeExact(o, v);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+            default:
+                return (Function<Object, Object>) o -> {
+                    try {
+                        return (Object) target.invokeExact(o);
+                    } catch (Throwable t) {
+                        throw rethrow(t);
+                    }
+                };
+        }
+    }
+
+    /**
+     * 基本类型转为包装类型
+     */
+    private static Class<?> wrap(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    /**
+     * 生成的实现类由当前类加载器定义，所以目标类必须是公开的且当前类加载器可见
+     */
+    private static boolean isPublicAndVisible(Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers())) return false;
+        try {
+            return Class.forName(clazz.getName(), false, AccessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 判断基本类型{@code from}是否可以拓宽（或等于）基本类型{@code to}
+     */
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        if (from == to) return true;
+        if (!from.isPrimitive() || from == boolean.class || from == void.class) return false;
+        if (to == int.class) return from == short.class || from == byte.class || from == char.class;
+        if (to == long.class) return from == int.class || from == short.class || from == byte.class || from == char.class;
+        if (to == double.class) return from != boolean.class;
+        return false;
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException) return (RuntimeException) t;
+        if (t instanceof Error) throw (Error) t;
+        return new UndeclaredThrowableException(t);
+    }
+}
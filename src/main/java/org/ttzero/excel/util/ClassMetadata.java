@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类的反射元数据缓存，保存字段、方法、get/set方法映射以及编译后的取值器和赋值器，
+ * 导出（{@code ListSheet}）、读取（{@code HeaderRow}）和模板（{@code TemplateSheet}）共用同一份缓存。
+ *
+ * <p>元数据使用{@link ClassValue}保存，类卸载时随之回收。缓存的内容不可变，
+ * 所有返回数组和{@code Map}的方法都返回副本，调用方可以放心修改。
+ * 热加载等类结构会发生变化的环境可以调用{@link #invalidate(Class)}或{@link #invalidateAll()}清除缓存</p>
+ *
+ * @author guanquan.wang at 2026-10-17 22:30
+ */
+public final class ClassMetadata {
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type, version);
+        }
+    };
+    /**
+     * 全局版本号，{@link #invalidateAll()}时递增，版本不一致的元数据会被重新解析
+     */
+    private static volatile int version;
+
+    private final int ver;
+    /**
+     * 所有字段（包含父类，不包含{@code java}包中的类）
+     */
+    private final Field[] declaredFields;
+    /**
+     * 所有方法（包含父类，不包含{@code Object}）
+     */
+    private final Method[] declaredMethods;
+    /**
+     * 属性名与get/set方法的映射
+     */
+    private final Map<String, Method> readMethods, writeMethods;
+    /**
+     * 属性名与取值方法的映射，优先使用get方法，没有get方法时使用字段
+     */
+    private final Map<String, AccessibleObject> properties;
+    /**
+     * 解析方法时的异常，获取方法时重新抛出
+     */
+    private final IntrospectionException introspectionException;
+    /**
+     * 编译后的取值器和赋值器
+     */
+    final ConcurrentMap<String, Object> accessors = new ConcurrentHashMap<>();
+
+    private ClassMetadata(Class<?> clazz, int ver) {
+        this.ver = ver;
+        this.declaredFields = ReflectUtil.listDeclaredFieldsUntilJavaPackage0(clazz, Object.class);
+        Method[] declaredMethods = null;
+        Map<String, Method> readMethods = null, writeMethods = null;
+        IntrospectionException ex = null;
+        try {
+            declaredMethods = ReflectUtil.listDeclaredMethods0(clazz, Object.class);
+            readMethods = Collections.unmodifiableMap(ReflectUtil.readMethodsMap0(clazz, Object.class));
+            writeMethods = Collections.unmodifiableMap(ReflectUtil.writeMethodsMap0(clazz, Object.class));
+        } catch (IntrospectionException e) {
+            ex = e;
+        }
+        this.declaredMethods = declaredMethods;
+        this.readMethods = readMethods;
+        this.writeMethods = writeMethods;
+        this.introspectionException = ex;
+
+        if (readMethods != null) {
+            Map<String, AccessibleObject> properties = new HashMap<>(readMethods);
+            for (Field f : declaredFields) {
+                if (!properties.containsKey(f.getName())) {
+                    f.setAccessible(true);
+                    properties.put(f.getName(), f);
+                }
+            }
+            this.properties = Collections.unmodifiableMap(properties);
+        } else this.properties = null;
+    }
+
+    /**
+     * 获取类的元数据，首次获取时解析
+     *
+     * @param clazz 类
+     * @return 元数据
+     */
+    public static ClassMetadata of(Class<?> clazz) {
+        ClassMetadata metadata = CACHE.get(clazz);
+        if (metadata.ver != version) {
+            CACHE.remove(clazz);
+            metadata = CACHE.get(clazz);
+        }
+        return metadata;
+    }
+
+    /**
+     * 清除指定类的元数据，下次获取时重新解析
+     *
+     * @param clazz 类
+     */
+    public static void invalidate(Class<?> clazz) {
+        CACHE.remove(clazz);
+    }
+
+    /**
+     * 清除所有类的元数据
+     */
+    public static void invalidateAll() {
+        version++;
+    }
+
+    /**
+     * 获取所有字段（包含父类，不包含{@code java}包中的类）
+     *
+     * @return 字段数组副本
+     */
+    public Field[] getDeclaredFields() {
+        return declaredFields.clone();
+    }
+
+    /**
+     * 获取所有方法（包含父类，不包含{@code Object}）
+     *
+     * @return 方法数组副本
+     * @throws IntrospectionException 解析失败
+     */
+    public Method[] getDeclaredMethods() throws IntrospectionException {
+        if (introspectionException != null) throw introspectionException;
+        return declaredMethods.clone();
+    }
+
+    /**
+     * 获取属性名与get方法的映射
+     *
+     * @return 映射副本
+     * @throws IntrospectionException 解析失败
+     */
+    public Map<String, Method> getReadMethods() throws IntrospectionException {
+        if (introspectionException != null) throw introspectionException;
+        return new HashMap<>(readMethods);
+    }
+
+    /**
+     * 获取属性名与取值方法的映射，优先使用get方法，没有get方法时使用字段
+     *
+     * @return 映射副本，Value为{@code Method}或{@code Field}
+     * @throws IntrospectionException 解析失败
+     */
+    public Map<String, AccessibleObject> getProperties() throws IntrospectionException {
+        if (introspectionException != null) throw introspectionException;
+        return new HashMap<>(properties);
+    }
+
+    /**
+     * 获取属性名与set方法的映射
+     *
+     * @return 映射副本
+     * @throws IntrospectionException 解析失败
+     */
+    public Map<String, Method> getWriteMethods() throws IntrospectionException {
+        if (introspectionException != null) throw introspectionException;
+        return new HashMap<>(writeMethods);
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.nio.file.Path;
+
+/**
+ * 打包压缩策略，按条目决定压缩等级，可以为worksheet与styles等元数据部件设置不同的压缩等级，
+ * 返回{@link #STORED}时条目不压缩直接存储。
+ *
+ * <p>默认策略{@link #DEFAULT}将{@code media}目录下PNG、JPEG、GIF和WEBP等已压缩的图片直接存储，
+ * 再次deflate只会消耗CPU而几乎不能减小体积，其余条目使用工作薄的压缩等级。自定义策略时可以组合默认策略</p>
+ *
+ * <pre>
+ * new Workbook().setCompressionPolicy((name, path, level) -&gt; name.startsWith("xl/worksheets/")
+ *     ? Deflater.BEST_SPEED : CompressionPolicy.DEFAULT.levelOf(name, path, level))</pre>
+ *
+ * @author guanquan.wang at 2026-10-18 02:10
+ */
+@FunctionalInterface
+public interface CompressionPolicy {
+    /**
+     * 不压缩，直接存储
+     */
+    int STORED = -1;
+
+    /**
+     * 默认策略，已压缩的图片直接存储，其余条目使用默认压缩等级
+     */
+    CompressionPolicy DEFAULT = (name, path, level) ->
+        path != null && name.contains("media/") && FileSignatures.isCompressed(path) ? STORED : level;
+
+    /**
+     * 获取条目的压缩等级
+     *
+     * @param name  条目名，如{@code xl/worksheets/sheet1.xml}
+     * @param path  条目对应的文件，流式输出时为{@code null}
+     * @param level 默认压缩等级
+     * @return 压缩等级{@code 0-9}或{@link #STORED}，条目对应的文件为{@code null}时{@link #STORED}按{@code 0}处理
+     */
+    int levelOf(String name, Path path, int level);
+}
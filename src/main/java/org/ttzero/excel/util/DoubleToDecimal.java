@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Long.numberOfLeadingZeros;
+
+/**
+ * 双精度浮点数转字符串，使用Raffaello Giulietti的Schubfach算法输出能还原原值的最短十进制数，
+ * 格式与{@link Double#toString(double)}一致（JDK19及以上版本的实现），直接写入字节数组不产生任何对象，
+ * 整数值走快速路径
+ * <p>
+ * 参考：Raffaello Giulietti, "The Schubfach way to render doubles"
+ *
+ * @author guanquan.wang at 2026-10-17 21:00
+ */
+public final class DoubleToDecimal {
+    private DoubleToDecimal() { }
+
+    /**
+     * 输出的最大长度，如{@code -2.2250738585072014E-308}
+     */
+    public static final int MAX_CHARS = 24;
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final int BQ_MASK = (1 << 11) - 1;
+    private static final long T_MASK = (1L << P - 1) - 1;
+    private static final long C_TINY = 3;
+    private static final int H = 17;
+    private static final long MASK_63 = (1L << 63) - 1;
+    private static final int MASK_28 = (1 << 28) - 1;
+    private static final int K_MIN = -324, K_MAX = 292;
+
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L
+    };
+
+    private static final byte[] NAN = "NaN".getBytes(StandardCharsets.US_ASCII)
+        , PLUS_INF = "Infinity".getBytes(StandardCharsets.US_ASCII)
+        , MINUS_INF = "-Infinity".getBytes(StandardCharsets.US_ASCII)
+        , PLUS_ZERO = "0.0".getBytes(StandardCharsets.US_ASCII)
+        , MINUS_ZERO = "-0.0".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 10的幂的128位近似值，首次转换非整数时计算
+     * <p>
+     * 令{@code 10^-k = beta 2^r}且{@code 2^125 <= beta < 2^126}，{@code g = floor(beta) + 1}，
+     * 保存{@code g1 = floor(g 2^-63)}和{@code g0 = g mod 2^63}
+     */
+    private static class G {
+        private static final long[] TABLE = new long[(K_MAX - K_MIN + 1) << 1];
+
+        static {
+            BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+            for (int k = K_MIN; k <= K_MAX; k++) {
+                BigInteger beta;
+                if (k <= 0) {
+                    BigInteger n = BigInteger.TEN.pow(-k);
+                    int r = n.bitLength() - 126;
+                    beta = r >= 0 ? n.shiftRight(r) : n.shiftLeft(-r);
+                } else {
+                    BigInteger d = BigInteger.TEN.pow(k);
+                    beta = BigInteger.ONE.shiftLeft(125 + d.bitLength()).divide(d);
+                }
+                BigInteger g = beta.add(BigInteger.ONE);
+                int i = k - K_MIN << 1;
+                TABLE[i] = g.shiftRight(63).longValue();
+                TABLE[i + 1] = g.and(mask63).longValue();
+            }
+        }
+    }
+
+    /**
+     * 转为字符串，结果与{@link Double#toString(double)}格式一致
+     *
+     * @param v 双精度浮点数
+     * @return 字符串
+     */
+    public static String toString(double v) {
+        byte[] buf = new byte[MAX_CHARS];
+        int n = toChars(v, buf, 0);
+        return new String(buf, 0, n, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 将双精度浮点数写入字节数组
+     *
+     * @param v   双精度浮点数
+     * @param buf 目标数组，从{@code off}开始至少有{@link #MAX_CHARS}个字节的空间
+     * @param off 起始位置
+     * @return 写入结束后的位置
+     */
+    public static int toChars(double v, byte[] buf, int off) {
+        long bits = doubleToRawLongBits(v);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> P - 1) & BQ_MASK;
+        if (bq < BQ_MASK) {
+            int p = off;
+            if (bits < 0) buf[p++] = '-';
+            if (bq != 0) {
+                // Normal value, here mq = -q
+                int mq = -Q_MIN + 1 - bq;
+                long c = C_MIN | t;
+                // Integer value fast path
+                if (0 < mq & mq < P) {
+                    long f = c >> mq;
+                    if (f << mq == c) {
+                        return toChars(f, 0, buf, p);
+                    }
+                }
+                return toDecimal(-mq, c, 0, buf, p);
+            }
+            if (t != 0) {
+                // Subnormal value
+                return t < C_TINY
+                    ? toDecimal(Q_MIN, 10 * t, -1, buf, p)
+                    : toDecimal(Q_MIN, t, 0, buf, p);
+            }
+            return copy(bits == 0 ? PLUS_ZERO : MINUS_ZERO, buf, off);
+        }
+        if (t != 0) return copy(NAN, buf, off);
+        return copy(bits > 0 ? PLUS_INF : MINUS_INF, buf, off);
+    }
+
+    private static int copy(byte[] src, byte[] buf, int off) {
+        System.arraycopy(src, 0, buf, off, src.length);
+        return off + src.length;
+    }
+
+    private static int toDecimal(int q, long c, int dk, byte[] buf, int p) {
+        int out = (int) c & 0x1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        // Regular spacing
+        if (c != C_MIN | q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+
+        int i = k - K_MIN << 1;
+        long g1 = G.TABLE[i], g0 = G.TABLE[i + 1];
+
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // sp10 = 10 floor(s / 10)
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                return toChars(upin ? sp10 : tp10, k, buf, p);
+            }
+        }
+
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            return toChars(uin ? s : t, k + dk, buf, p);
+        }
+        long cmp = vb - (s + t << 1);
+        return toChars(cmp < 0 || cmp == 0 && (s & 0x1) == 0 ? s : t, k + dk, buf, p);
+    }
+
+    /**
+     * Computes rop(cp g 2^(-127)), where g = g1 2^63 + g0
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * 输出{@code f 10^e}，{@code f}为不超过17位的正整数
+     */
+    private static int toChars(long f, int e, byte[] buf, int p) {
+        // Determine len such that 10^(len-1) <= f < 10^len
+        int len = flog10pow2(Long.SIZE - numberOfLeadingZeros(f));
+        if (f >= POW10[len]) {
+            len += 1;
+        }
+        // Transform f and e to ensure 10^(H-1) <= f < 10^H and fp 10^ep = 0.f 10^e
+        f *= POW10[H - len];
+        e += len;
+
+        // Split the 17 digits of f into h(1) m(8) l(8)
+        long hm = multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;
+        int l = (int) (f - 100_000_000L * hm);
+        int h = (int) (hm * 1_441_151_881L >>> 57);
+        int m = (int) (hm - 100_000_000 * h);
+
+        if (0 < e && e <= 7) {
+            // Plain format without leading zeroes
+            buf[p++] = (byte) ('0' + h);
+            int y = y(m), t, i = 1;
+            for (; i < e; ++i) {
+                t = 10 * y;
+                buf[p++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+            buf[p++] = '.';
+            for (; i <= 8; ++i) {
+                t = 10 * y;
+                buf[p++] = (byte) ('0' + (t >>> 28));
+                y = t & MASK_28;
+            }
+            return lowDigits(l, buf, p);
+        }
+        if (-3 < e && e <= 0) {
+            // Plain format with leading zeroes
+            buf[p++] = '0';
+            buf[p++] = '.';
+            for (; e < 0; ++e) buf[p++] = '0';
+            buf[p++] = (byte) ('0' + h);
+            p = append8Digits(m, buf, p);
+            return lowDigits(l, buf, p);
+        }
+        // Computerized scientific notation
+        buf[p++] = (byte) ('0' + h);
+        buf[p++] = '.';
+        p = append8Digits(m, buf, p);
+        p = lowDigits(l, buf, p);
+        return exponent(e - 1, buf, p);
+    }
+
+    private static int lowDigits(int l, byte[] buf, int p) {
+        if (l != 0) p = append8Digits(l, buf, p);
+        // Remove trailing zeroes but keep the one directly to the right of '.'
+        while (buf[p - 1] == '0') p--;
+        if (buf[p - 1] == '.') p++;
+        return p;
+    }
+
+    private static int append8Digits(int m, byte[] buf, int p) {
+        int y = y(m);
+        for (int i = 0; i < 8; ++i) {
+            int t = 10 * y;
+            buf[p++] = (byte) ('0' + (t >>> 28));
+            y = t & MASK_28;
+        }
+        return p;
+    }
+
+    /**
+     * Left-to-right digits extraction, floor((a + 1) 2^28 / 10^8) - 1
+     */
+    private static int y(int a) {
+        return (int) (multiplyHigh((long) (a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+    }
+
+    private static int exponent(int e, byte[] buf, int p) {
+        buf[p++] = 'E';
+        if (e < 0) {
+            buf[p++] = '-';
+            e = -e;
+        }
+        if (e < 10) {
+            buf[p++] = (byte) ('0' + e);
+            return p;
+        }
+        int d;
+        if (e >= 100) {
+            d = e * 1_311 >>> 17;
+            buf[p++] = (byte) ('0' + d);
+            e -= 100 * d;
+        }
+        d = e * 103 >>> 10;
+        buf[p++] = (byte) ('0' + d);
+        buf[p++] = (byte) ('0' + e - 10 * d);
+        return p;
+    }
+
+    /**
+     * floor(q log10(2))
+     */
+    private static int flog10pow2(int q) {
+        return (int) (q * 661_971_961_083L >> 41);
+    }
+
+    /**
+     * floor(q log10(3/4 2))
+     */
+    private static int flog10threeQuartersPow2(int q) {
+        return (int) (q * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    /**
+     * floor(e log2(10))
+     */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * The high 64 bits of the 128-bit signed product, same as {@code Math.multiplyHigh} in Java 9
+     */
+    static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32, x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32, y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+}
@@ -52,6 +52,11 @@ public class ExtBufferedWriter extends BufferedWriter {
      * Replace malformed characters
      */
     public static char MALFORMED_CHAR = 0xFFFD;
+    /**
+     * Scratch buffer for double value
+     */
+    private byte[] doubleBytes;
+    private char[] doubleChars;
 
     static {
         // Fix#72 delete space escape
@@ -84,6 +89,16 @@ public class ExtBufferedWriter extends BufferedWriter {
         write(temp);
     }
 
+    /**
+     * Write the pre-encoded ASCII bytes, such as the constant xml tag
+     *
+     * @param ascii the ASCII bytes
+     * @throws IOException if I/O error occur
+     */
+    public void writeAscii(byte[] ascii) throws IOException {
+        for (byte b : ascii) write(b & 0xFF);
+    }
+
     /**
      * Write single-precision floating-point value
      *
@@ -145,13 +160,20 @@ public class ExtBufferedWriter extends BufferedWriter {
     }
 
     /**
-     * Write double-precision floating-point value
+     * Write double-precision floating-point value, the format is the same as
+     * {@link Double#toString(double)} but always the shortest decimal
      *
      * @param d the double-precision floating-point value
      * @throws IOException if I/O error occur
      */
     public void write(double d) throws IOException {
-        write(Double.toString(d));
+        if (doubleBytes == null) {
+            doubleBytes = new byte[DoubleToDecimal.MAX_CHARS];
+            doubleChars = new char[DoubleToDecimal.MAX_CHARS];
+        }
+        int n = DoubleToDecimal.toChars(d, doubleBytes, 0);
+        for (int i = 0; i < n; i++) doubleChars[i] = (char) doubleBytes[i];
+        write(doubleChars, 0, n);
     }
 
     /**
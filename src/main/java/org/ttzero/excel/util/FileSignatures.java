@@ -25,8 +25,11 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 
 /**
@@ -54,6 +57,10 @@ public class FileSignatures {
         put("wmf", "image/x-wmf");
         put("webp", "image/webp");
     }};
+    /**
+     * 内容已压缩的资源格式，打包时再次deflate几乎不能减小体积
+     */
+    public static Set<String> compressed = new HashSet<>(Arrays.asList("png", "jpg", "gif", "webp"));
     private FileSignatures() { }
 
     /**
@@ -80,6 +87,25 @@ public class FileSignatures {
         return signature;
     }
 
+    /**
+     * 测试文件内容是否为已压缩的格式（参考{@link #compressed}），仅通过文件头判断，不依赖扩展名
+     *
+     * @param path 文件路径
+     * @return true: 已压缩
+     */
+    public static boolean isCompressed(Path path) {
+        try (InputStream is = Files.newInputStream(path)) {
+            byte[] bytes = new byte[1 << 9];
+            int n = 0;
+            for (int i; n < bytes.length && (i = is.read(bytes, n, bytes.length - n)) > 0; n += i) ;
+            Signature signature = test(ByteBuffer.wrap(bytes, 0, n));
+            return signature != null && compressed.contains(signature.extension);
+        } catch (Exception ex) {
+            LOGGER.warn("Test file signature occur error.", ex);
+            return false;
+        }
+    }
+
     /**
      * 简单测试资源签名
      *
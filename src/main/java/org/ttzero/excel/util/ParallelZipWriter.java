@@ -0,0 +1,499 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * 并行压缩的ZIP输出，参考pigz的实现将较大的文件切分为多个块并在线程池中独立压缩，
+ * 每个块使用前一个块末尾32K数据作为预设字典以保证压缩率，非末尾块以{@code SYNC_FLUSH}结束，
+ * 拼接后即为一个完整的deflate流，各块的CRC32通过{@link #crc32Combine}合并。
+ *
+ * <p>不超过一个块大小的文件仍在当前线程中压缩。条目使用数据描述符（data descriptor）记录CRC和大小，
+ * 文件大小、偏移量或条目数超过ZIP限制时自动使用ZIP64格式。压缩等级为{@link CompressionPolicy#STORED}的条目
+ * 不压缩直接存储，CRC和大小预先计算后写入本地文件头</p>
+ *
+ * @author guanquan.wang at 2026-10-17 16:05
+ */
+public class ParallelZipWriter implements Closeable {
+    /**
+     * 默认块大小128K
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 17;
+    /**
+     * deflate滑动窗口大小，做为下一个块的预设字典
+     */
+    private static final int DICT_SIZE = 1 << 15;
+    /**
+     * 超过此大小的条目使用ZIP64格式，预留了压缩后膨胀的空间
+     */
+    private static final long ZIP64_THRESHOLD = 0xF0000000L;
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private final OutputStream os;
+    private final int level;
+    private final Executor executor;
+    private final int window;
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+    private final List<Entry> entries = new ArrayList<>();
+    private final byte[] buf = new byte[64];
+    /**
+     * 当前写入位置
+     */
+    private long written;
+    private final int dosTime;
+    private Deflater deflater;
+    private boolean finished;
+
+    /**
+     * 创建并行压缩输出
+     *
+     * @param os       输出流
+     * @param level    压缩等级{@code 0-9}
+     * @param executor 执行压缩任务的线程池
+     */
+    public ParallelZipWriter(OutputStream os, int level, Executor executor) {
+        this.os = os;
+        this.level = Math.min(Math.max(level, 0), 9);
+        this.executor = executor;
+        this.window = Math.max(Runtime.getRuntime().availableProcessors(), 2) << 1;
+        this.dosTime = javaToDosTime(System.currentTimeMillis());
+    }
+
+    /**
+     * 设置块大小，超过块大小的文件将被切分后并行压缩
+     *
+     * @param blockSize 块大小，不能小于64K
+     * @return 当前对象
+     */
+    public ParallelZipWriter setBlockSize(int blockSize) {
+        this.blockSize = Math.max(blockSize, DICT_SIZE << 1);
+        return this;
+    }
+
+    /**
+     * 获取块大小
+     *
+     * @return 块大小
+     */
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * 添加一个文件到压缩包
+     *
+     * @param name 条目名
+     * @param path 文件路径
+     * @throws IOException if I/O error occur
+     */
+    public void write(String name, Path path) throws IOException {
+        write(name, path, level);
+    }
+
+    /**
+     * 以指定压缩等级添加一个文件到压缩包
+     *
+     * @param name  条目名
+     * @param path  文件路径
+     * @param level 压缩等级{@code 0-9}或{@link CompressionPolicy#STORED}
+     * @throws IOException if I/O error occur
+     */
+    public void write(String name, Path path, int level) throws IOException {
+        if (finished) throw new IOException("Zip writer has finished");
+        long size = Files.size(path);
+        Entry entry = new Entry(name, written, size >= ZIP64_THRESHOLD);
+        if (level == CompressionPolicy.STORED) {
+            entry.method = ZipEntry.STORED;
+            entry.crc = ZipUtil.crc32(path);
+            entry.size = entry.csize = size;
+            writeLocalHeader(entry);
+            try (InputStream is = Files.newInputStream(path)) {
+                byte[] bytes = new byte[8192];
+                for (int n; (n = is.read(bytes)) > 0; ) write(bytes, 0, n);
+            }
+        } else {
+            level = Math.min(Math.max(level, 0), 9);
+            writeLocalHeader(entry);
+            try (InputStream is = Files.newInputStream(path)) {
+                if (size <= blockSize) deflate(is, entry, level);
+                else parallelDeflate(is, entry, level);
+            }
+            writeDataDescriptor(entry);
+        }
+        entries.add(entry);
+    }
+
+    /**
+     * 写入中央目录结束压缩，此方法不会关闭输出流
+     *
+     * @throws IOException if I/O error occur
+     */
+    public void finish() throws IOException {
+        if (finished) return;
+        finished = true;
+        if (deflater != null) deflater.end();
+        long cdOffset = written;
+        for (Entry e : entries) writeCentralHeader(e);
+        long cdSize = written - cdOffset;
+        int count = entries.size();
+        // ZIP64 end of central directory record and locator
+        if (count >= 0xFFFF || cdOffset >= ZIP64_MAGIC || cdSize >= ZIP64_MAGIC) {
+            long zip64Offset = written;
+            writeInt(0x06064b50L);
+            writeLong(44L);
+            writeShort(45);
+            writeShort(45);
+            writeInt(0L);
+            writeInt(0L);
+            writeLong(count);
+            writeLong(count);
+            writeLong(cdSize);
+            writeLong(cdOffset);
+
+            writeInt(0x07064b50L);
+            writeInt(0L);
+            writeLong(zip64Offset);
+            writeInt(1L);
+        }
+        writeInt(0x06054b50L);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(count, 0xFFFF));
+        writeShort(Math.min(count, 0xFFFF));
+        writeInt(Math.min(cdSize, ZIP64_MAGIC));
+        writeInt(Math.min(cdOffset, ZIP64_MAGIC));
+        writeShort(0);
+        os.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            os.close();
+        }
+    }
+
+    /**
+     * 在当前线程中压缩
+     */
+    private void deflate(InputStream is, Entry entry, int level) throws IOException {
+        if (deflater == null) deflater = new Deflater(level, true);
+        else {
+            deflater.reset();
+            deflater.setLevel(level);
+        }
+        CRC32 crc = new CRC32();
+        byte[] in = new byte[8192], out = new byte[8192];
+        for (int n; (n = is.read(in)) > 0; ) {
+            crc.update(in, 0, n);
+            entry.size += n;
+            deflater.setInput(in, 0, n);
+            while (!deflater.needsInput()) {
+                int len = deflater.deflate(out);
+                write(out, 0, len);
+                entry.csize += len;
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            int len = deflater.deflate(out);
+            write(out, 0, len);
+            entry.csize += len;
+        }
+        entry.crc = crc.getValue();
+    }
+
+    /**
+     * 切块并行压缩，同时最多有{@code window}个块在压缩中
+     */
+    private void parallelDeflate(InputStream is, Entry entry, int level) throws IOException {
+        ArrayDeque<CompletableFuture<Block>> queue = new ArrayDeque<>(window);
+        byte[] prev = null, block = readBlock(is);
+        long crc = 0L;
+        try {
+            while (block != null) {
+                byte[] next = readBlock(is), dict = prev, data = block;
+                boolean last = next == null;
+                queue.add(CompletableFuture.supplyAsync(() -> compress(data, dict, last, level), executor));
+                if (queue.size() >= window) {
+                    crc = writeBlock(queue.poll().join(), crc, entry);
+                }
+                prev = block;
+                block = next;
+            }
+            while (!queue.isEmpty()) {
+                crc = writeBlock(queue.poll().join(), crc, entry);
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        } finally {
+            // Cancel the pending blocks if error occur
+            for (CompletableFuture<Block> future : queue) {
+                future.cancel(false);
+            }
+        }
+        entry.crc = crc;
+    }
+
+    private long writeBlock(Block block, long crc, Entry entry) throws IOException {
+        write(block.data, 0, block.length);
+        entry.csize += block.length;
+        entry.size += block.size;
+        return crc32Combine(crc, block.crc, block.size);
+    }
+
+    private byte[] readBlock(InputStream is) throws IOException {
+        byte[] block = new byte[blockSize];
+        int n = 0;
+        for (int i; n < blockSize && (i = is.read(block, n, blockSize - n)) > 0; n += i) ;
+        return n == 0 ? null : n < blockSize ? Arrays.copyOf(block, n) : block;
+    }
+
+    /**
+     * 压缩一个块，非末尾块以{@code SYNC_FLUSH}结束使输出按字节对齐
+     */
+    private Block compress(byte[] data, byte[] dict, boolean last, int level) {
+        Deflater d = new Deflater(level, true);
+        try {
+            if (dict != null) d.setDictionary(dict, dict.length - DICT_SIZE, DICT_SIZE);
+            d.setInput(data);
+            byte[] out = new byte[data.length + (data.length >>> 12) + (data.length >>> 14) + 64];
+            int n = 0;
+            if (last) {
+                d.finish();
+                while (!d.finished()) {
+                    if (n == out.length) out = Arrays.copyOf(out, out.length << 1);
+                    n += d.deflate(out, n, out.length - n);
+                }
+            } else {
+                for (; ; ) {
+                    if (n == out.length) out = Arrays.copyOf(out, out.length << 1);
+                    n += d.deflate(out, n, out.length - n, Deflater.SYNC_FLUSH);
+                    // All the output has been flushed
+                    if (n < out.length) break;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length);
+            return new Block(out, n, data.length, crc.getValue());
+        } finally {
+            d.end();
+        }
+    }
+
+    private void writeLocalHeader(Entry e) throws IOException {
+        byte[] name = e.name;
+        writeInt(0x04034b50L);
+        writeShort(e.zip64 ? 45 : 20);
+        // Bit 3: data descriptor, bit 11: UTF-8 name
+        writeShort(e.flag());
+        writeShort(e.method);
+        writeInt(dosTime);
+        writeInt(e.crc);
+        writeInt(e.zip64 ? ZIP64_MAGIC : e.csize);
+        writeInt(e.zip64 ? ZIP64_MAGIC : e.size);
+        writeShort(name.length);
+        writeShort(e.zip64 ? 20 : 0);
+        write(name, 0, name.length);
+        if (e.zip64) {
+            writeShort(0x0001);
+            writeShort(16);
+            writeLong(e.size);
+            writeLong(e.csize);
+        }
+    }
+
+    private void writeDataDescriptor(Entry e) throws IOException {
+        writeInt(0x08074b50L);
+        writeInt(e.crc);
+        if (e.zip64) {
+            writeLong(e.csize);
+            writeLong(e.size);
+        } else {
+            writeInt(e.csize);
+            writeInt(e.size);
+        }
+    }
+
+    private void writeCentralHeader(Entry e) throws IOException {
+        byte[] name = e.name;
+        boolean sizeOverflow = e.size >= ZIP64_MAGIC, csizeOverflow = e.csize >= ZIP64_MAGIC, offsetOverflow = e.offset >= ZIP64_MAGIC;
+        int extraLength = (sizeOverflow ? 8 : 0) + (csizeOverflow ? 8 : 0) + (offsetOverflow ? 8 : 0);
+        boolean zip64 = extraLength > 0;
+        writeInt(0x02014b50L);
+        writeShort(zip64 || e.zip64 ? 45 : 20);
+        writeShort(zip64 || e.zip64 ? 45 : 20);
+        writeShort(e.flag());
+        writeShort(e.method);
+        writeInt(dosTime);
+        writeInt(e.crc);
+        writeInt(csizeOverflow ? ZIP64_MAGIC : e.csize);
+        writeInt(sizeOverflow ? ZIP64_MAGIC : e.size);
+        writeShort(name.length);
+        writeShort(zip64 ? extraLength + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0L);
+        writeInt(offsetOverflow ? ZIP64_MAGIC : e.offset);
+        write(name, 0, name.length);
+        if (zip64) {
+            writeShort(0x0001);
+            writeShort(extraLength);
+            if (sizeOverflow) writeLong(e.size);
+            if (csizeOverflow) writeLong(e.csize);
+            if (offsetOverflow) writeLong(e.offset);
+        }
+    }
+
+    private void write(byte[] b, int off, int len) throws IOException {
+        os.write(b, off, len);
+        written += len;
+    }
+
+    private void writeShort(int v) throws IOException {
+        buf[0] = (byte) v;
+        buf[1] = (byte) (v >>> 8);
+        write(buf, 0, 2);
+    }
+
+    private void writeInt(long v) throws IOException {
+        buf[0] = (byte) v;
+        buf[1] = (byte) (v >>> 8);
+        buf[2] = (byte) (v >>> 16);
+        buf[3] = (byte) (v >>> 24);
+        write(buf, 0, 4);
+    }
+
+    private void writeLong(long v) throws IOException {
+        writeInt(v & ZIP64_MAGIC);
+        writeInt(v >>> 32);
+    }
+
+    /**
+     * 转为MS-DOS格式时间
+     */
+    private static int javaToDosTime(long time) {
+        Calendar c = Calendar.getInstance();
+        c.setTimeInMillis(time);
+        int year = c.get(Calendar.YEAR);
+        if (year < 1980) return (1 << 21) | (1 << 16);
+        return (year - 1980) << 25 | (c.get(Calendar.MONTH) + 1) << 21 | c.get(Calendar.DAY_OF_MONTH) << 16
+            | c.get(Calendar.HOUR_OF_DAY) << 11 | c.get(Calendar.MINUTE) << 5 | c.get(Calendar.SECOND) >> 1;
+    }
+
+    /**
+     * 合并两段连续数据的CRC32，算法参考zlib的{@code crc32_combine}
+     *
+     * @param crc1 第一段数据的CRC32
+     * @param crc2 第二段数据的CRC32
+     * @param len2 第二段数据的长度
+     * @return 两段数据拼接后的CRC32
+     */
+    public static long crc32Combine(long crc1, long crc2, long len2) {
+        if (len2 <= 0) return crc1;
+        long[] even = new long[32], odd = new long[32];
+        // CRC-32 polynomial
+        odd[0] = 0xEDB88320L;
+        long row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        // Put operator for two zero bits in even and four zero bits in odd
+        gf2MatrixSquare(even, odd);
+        gf2MatrixSquare(odd, even);
+        // Apply len2 zeros to crc1
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>= 1;
+            if (len2 == 0) break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0) crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static long gf2MatrixTimes(long[] mat, long vec) {
+        long sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0) sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(long[] square, long[] mat) {
+        for (int n = 0; n < 32; n++) square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
+
+    private static class Entry {
+        private final byte[] name;
+        private final long offset;
+        private final boolean zip64;
+        private long crc, size, csize;
+        private int method = Deflater.DEFLATED;
+
+        private Entry(String name, long offset, boolean zip64) {
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.offset = offset;
+            this.zip64 = zip64;
+        }
+
+        /**
+         * 存储的条目CRC和大小已写入本地文件头，不使用数据描述符
+         */
+        private int flag() {
+            return method == Deflater.DEFLATED ? 0x0808 : 0x0800;
+        }
+    }
+
+    private static class Block {
+        private final byte[] data;
+        private final int length, size;
+        private final long crc;
+
+        private Block(byte[] data, int length, int size, long crc) {
+            this.data = data;
+            this.length = length;
+            this.size = size;
+            this.crc = crc;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 预读输入流，由一个后台线程从源输入流（一般是zip条目的解压流）提前读取数据到固定数量的缓冲块中，
+ * 调用线程只从已填充的缓冲块中复制数据，解压和解析分别在两个线程中进行。
+ *
+ * <p>缓冲块在两个有界队列间循环使用，后台线程最多领先{@code buffers}个缓冲块，不会无限占用内存。
+ * 源输入流的异常会在调用线程读取到对应位置时抛出</p>
+ * <p>
+ * 注意：非线程安全，只允许一个线程读取
+ *
+ * @author guanquan.wang at 2026-10-18 03:20
+ */
+public class ReadAheadInputStream extends InputStream {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    /**
+     * 默认缓冲块大小64K
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    /**
+     * 流结束标记
+     */
+    private static final Chunk END = new Chunk(0);
+    private final InputStream in;
+    private final BlockingQueue<Chunk> free, filled;
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException error;
+    private Chunk current;
+    private int position;
+    private boolean eof;
+
+    /**
+     * 创建预读输入流并启动后台线程
+     *
+     * @param in      源输入流，关闭预读流时一同关闭
+     * @param buffers 缓冲块数量，不小于{@code 2}
+     */
+    public ReadAheadInputStream(InputStream in, int buffers) {
+        this(in, buffers, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * 创建预读输入流并启动后台线程
+     *
+     * @param in         源输入流，关闭预读流时一同关闭
+     * @param buffers    缓冲块数量，不小于{@code 2}
+     * @param bufferSize 缓冲块大小
+     */
+    public ReadAheadInputStream(InputStream in, int buffers, int bufferSize) {
+        this.in = in;
+        buffers = Math.max(buffers, 2);
+        this.free = new ArrayBlockingQueue<>(buffers);
+        // One more slot for the end mark
+        this.filled = new ArrayBlockingQueue<>(buffers + 1);
+        for (int i = 0; i < buffers; i++) free.add(new Chunk(bufferSize));
+        thread = new Thread(this::run, "eec-read-ahead-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 后台线程，填满一个缓冲块后放入已填充队列，直到源输入流结束
+     */
+    private void run() {
+        try {
+            while (!closed) {
+                Chunk chunk = free.poll(100L, TimeUnit.MILLISECONDS);
+                if (chunk == null) continue;
+                int n = 0;
+                for (int i; n < chunk.data.length && (i = in.read(chunk.data, n, chunk.data.length - n)) >= 0; n += i) ;
+                chunk.length = n;
+                if (n > 0) filled.put(chunk);
+                if (n < chunk.data.length) break;
+            }
+        } catch (IOException e) {
+            error = e;
+        } catch (RuntimeException | Error e) {
+            error = new IOException(e);
+        } catch (InterruptedException e) {
+            // Closed
+            return;
+        }
+        try {
+            filled.put(END);
+        } catch (InterruptedException e) {
+            // Closed
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensure()) return -1;
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) throw new IndexOutOfBoundsException();
+        if (len == 0) return 0;
+        if (!ensure()) return -1;
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current.data, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (current != null && position < current.length) return current.length - position;
+        Chunk next = filled.peek();
+        return next != null ? next.length : 0;
+    }
+
+    /**
+     * 确保当前缓冲块有未读数据，读完的缓冲块归还给后台线程
+     *
+     * @return false: 流已结束
+     * @throws IOException 源输入流异常或流已关闭
+     */
+    private boolean ensure() throws IOException {
+        if (closed) throw new IOException("Stream closed");
+        if (current != null && position < current.length) return true;
+        if (eof) return false;
+        if (current != null) {
+            free.offer(current);
+            current = null;
+        }
+        Chunk chunk;
+        try {
+            chunk = filled.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data", e);
+        }
+        if (chunk == END) {
+            eof = true;
+            if (error != null) throw error;
+            return false;
+        }
+        current = chunk;
+        position = 0;
+        return true;
+    }
+
+    /**
+     * 停止后台线程并关闭源输入流
+     *
+     * @throws IOException if I/O error occur
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        thread.interrupt();
+        try {
+            // Wait for the current read, then the source stream can be closed safely
+            thread.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        free.clear();
+        filled.clear();
+        current = null;
+        in.close();
+    }
+
+    private static class Chunk {
+        private final byte[] data;
+        private int length;
+
+        private Chunk(int size) {
+            this.data = new byte[size];
+        }
+    }
+}
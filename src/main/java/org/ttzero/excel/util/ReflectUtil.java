@@ -95,6 +95,12 @@ public class ReflectUtil {
      * @return all declared fields
      */
     public static Field[] listDeclaredFieldsUntilJavaPackage(Class<?> beanClass, Class<?> stopClass) {
+        // 使用缓存
+        if (stopClass == Object.class) return ClassMetadata.of(beanClass).getDeclaredFields();
+        return listDeclaredFieldsUntilJavaPackage0(beanClass, stopClass);
+    }
+
+    static Field[] listDeclaredFieldsUntilJavaPackage0(Class<?> beanClass, Class<?> stopClass) {
         if (isJavaPackage(beanClass)) return new Field[0];
         Field[] fields = beanClass.getDeclaredFields();
         int i = fields.length, last = 0;
@@ -193,6 +199,13 @@ public class ReflectUtil {
      * @throws IntrospectionException happens during introspection error
      */
     public static Method[] listDeclaredMethods(Class<?> beanClass, Class<?> stopClass)
+        throws IntrospectionException {
+        // 使用缓存
+        if (stopClass == Object.class && beanClass != stopClass) return ClassMetadata.of(beanClass).getDeclaredMethods();
+        return listDeclaredMethods0(beanClass, stopClass);
+    }
+
+    static Method[] listDeclaredMethods0(Class<?> beanClass, Class<?> stopClass)
         throws IntrospectionException {
         if (beanClass == stopClass) return new Method[0];
         MethodDescriptor[] methodDescriptors = Introspector.getBeanInfo(beanClass, stopClass).getMethodDescriptors();
@@ -310,6 +323,13 @@ public class ReflectUtil {
      * @throws IntrospectionException happens during introspection error
      */
     public static Map<String, Method> readMethodsMap(Class<?> beanClass, Class<?> stopClass)
+        throws IntrospectionException {
+        // 使用缓存
+        if (stopClass == Object.class) return ClassMetadata.of(beanClass).getReadMethods();
+        return readMethodsMap0(beanClass, stopClass);
+    }
+
+    static Map<String, Method> readMethodsMap0(Class<?> beanClass, Class<?> stopClass)
         throws IntrospectionException {
         Map<String, Method> tmp = new HashMap<>();
         PropertyDescriptor[] propertyDescriptors = Introspector.getBeanInfo(beanClass, stopClass)
@@ -407,6 +427,13 @@ public class ReflectUtil {
      * @throws IntrospectionException happens during introspection error
      */
     public static Map<String, Method> writeMethodsMap(Class<?> beanClass, Class<?> stopClass)
+        throws IntrospectionException {
+        // 使用缓存
+        if (stopClass == Object.class) return ClassMetadata.of(beanClass).getWriteMethods();
+        return writeMethodsMap0(beanClass, stopClass);
+    }
+
+    static Map<String, Method> writeMethodsMap0(Class<?> beanClass, Class<?> stopClass)
         throws IntrospectionException {
         Map<String, Method> tmp = new HashMap<>();
         PropertyDescriptor[] propertyDescriptors = Introspector.getBeanInfo(beanClass, stopClass)
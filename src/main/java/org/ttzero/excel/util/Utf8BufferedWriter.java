@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import static java.lang.Character.isHighSurrogate;
+import static java.lang.Character.isLowSurrogate;
+import static java.lang.Character.isSurrogate;
+
+/**
+ * 直接输出UTF-8字节的{@link ExtBufferedWriter}，字符在写入时直接编码到字节缓冲区，
+ * 绕过JDK的字符集编码器，整数直接转换为ASCII字节，ASCII字符和常量标签走快速路径，
+ * 适用于工作表这类大量输出XML标签和数字的场景。输出结果与
+ * {@code new ExtBufferedWriter(new OutputStreamWriter(os, UTF_8))}一致
+ * <p>
+ * 注意：非线程安全
+ *
+ * @author guanquan.wang at 2026-10-17 20:10
+ */
+public class Utf8BufferedWriter extends ExtBufferedWriter {
+    private static final int defaultByteBufferSize = 1 << 16;
+    private static final byte[][] ESCAPE_BYTES = new byte[63][];
+    private static final byte[] MALFORMED_BYTES = { (byte) 0xEF, (byte) 0xBF, (byte) 0xBD };
+    private static final byte[] MIN_INTEGER_BYTES = "-2147483648".getBytes();
+    private static final byte[] MIN_LONG_BYTES = "-9223372036854775808".getBytes();
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes();
+    /**
+     * 不接收任何数据的Writer，父类仅作为类型使用
+     */
+    private static final Writer NULL_WRITER = new Writer() {
+        @Override public void write(char[] cbuf, int off, int len) { }
+        @Override public void flush() { }
+        @Override public void close() { }
+    };
+
+    static {
+        ESCAPE_BYTES['<'] = "&lt;".getBytes();
+        ESCAPE_BYTES['>'] = "&gt;".getBytes();
+        ESCAPE_BYTES['&'] = "&amp;".getBytes();
+        ESCAPE_BYTES['"'] = "&quot;".getBytes();
+    }
+
+    private OutputStream os;
+    private final byte[] buf;
+    private int count;
+    /**
+     * 上一次写入的末尾为高代理字符时暂存，与下一次写入的低代理字符组成一个码点
+     */
+    private char highSurrogate;
+
+    public Utf8BufferedWriter(OutputStream os) {
+        this(os, defaultByteBufferSize);
+    }
+
+    public Utf8BufferedWriter(OutputStream os, int size) {
+        super(NULL_WRITER, 1);
+        this.os = os;
+        this.buf = new byte[Math.max(size, 64)];
+    }
+
+    /**
+     * 确保缓冲区至少有{@code n}个字节的剩余空间
+     */
+    private void ensure(int n) throws IOException {
+        if (buf.length - count < n) flushBuffer();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (os == null) throw new IOException("Stream closed");
+        if (count > 0) {
+            os.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    @Override
+    public void writeAscii(byte[] ascii) throws IOException {
+        if (highSurrogate != 0 && ascii.length > 0) writePending();
+        if (ascii.length > buf.length - count) {
+            flushBuffer();
+            if (ascii.length > buf.length) {
+                os.write(ascii);
+                return;
+            }
+        }
+        System.arraycopy(ascii, 0, buf, count, ascii.length);
+        count += ascii.length;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensure(5);
+        char ch = (char) c;
+        if (highSurrogate != 0 && pairPending(ch)) return;
+        if (ch < 0x80) buf[count++] = (byte) ch;
+        else if (isHighSurrogate(ch)) highSurrogate = ch;
+        else count = putChar(ch, buf, count);
+    }
+
+    @Override
+    public void write(char[] cb, int off, int len) throws IOException {
+        if (len <= 0) return;
+        ensure(16);
+        if (highSurrogate != 0 && pairPending(cb[off])) {
+            off++;
+            len--;
+        }
+        for (int end = off + len; off < end; ) {
+            ensure(16);
+            int limit = buf.length - 4;
+            for (; count < limit && off < end; ) {
+                char c = cb[off++];
+                if (c < 0x80) buf[count++] = (byte) c;
+                else if (isSurrogate(c)) {
+                    if (isHighSurrogate(c) && off < end && isLowSurrogate(cb[off])) {
+                        count = putCodePoint(Character.toCodePoint(c, cb[off++]), buf, count);
+                    }
+                    // Pair with the next write
+                    else if (isHighSurrogate(c) && off == end) highSurrogate = c;
+                    else buf[count++] = '?';
+                }
+                else count = putChar(c, buf, count);
+            }
+        }
+    }
+
+    @Override
+    public void write(String s, int off, int len) throws IOException {
+        if (len <= 0) return;
+        ensure(16);
+        if (highSurrogate != 0 && pairPending(s.charAt(off))) {
+            off++;
+            len--;
+        }
+        for (int end = off + len; off < end; ) {
+            ensure(16);
+            int limit = buf.length - 4;
+            for (; count < limit && off < end; ) {
+                char c = s.charAt(off++);
+                if (c < 0x80) buf[count++] = (byte) c;
+                else if (isSurrogate(c)) {
+                    if (isHighSurrogate(c) && off < end && isLowSurrogate(s.charAt(off))) {
+                        count = putCodePoint(Character.toCodePoint(c, s.charAt(off++)), buf, count);
+                    }
+                    // Pair with the next write
+                    else if (isHighSurrogate(c) && off == end) highSurrogate = c;
+                    else buf[count++] = '?';
+                }
+                else count = putChar(c, buf, count);
+            }
+        }
+    }
+
+    @Override
+    public void write(String s) throws IOException {
+        write(s, 0, s.length());
+    }
+
+    @Override
+    public void write(char[] cb) throws IOException {
+        write(cb, 0, cb.length);
+    }
+
+    @Override
+    public void newLine() throws IOException {
+        writeAscii(LINE_SEPARATOR);
+    }
+
+    @Override
+    public void writeInt(int n) throws IOException {
+        if (highSurrogate != 0) writePending();
+        if (n == Integer.MIN_VALUE) {
+            writeAscii(MIN_INTEGER_BYTES);
+            return;
+        }
+        ensure(11);
+        int size = stringSize(n), p = count + size;
+        if (n < 0) {
+            buf[count] = '-';
+            n = -n;
+        }
+        do {
+            buf[--p] = (byte) ('0' + n % 10);
+            n /= 10;
+        } while (n > 0);
+        count += size;
+    }
+
+    @Override
+    public void write(long l) throws IOException {
+        if (highSurrogate != 0) writePending();
+        if (l == Long.MIN_VALUE) {
+            writeAscii(MIN_LONG_BYTES);
+            return;
+        }
+        if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) {
+            writeInt((int) l);
+            return;
+        }
+        ensure(20);
+        int size = stringSize(l), p = count + size;
+        if (l < 0) {
+            buf[count] = '-';
+            l = -l;
+        }
+        do {
+            buf[--p] = (byte) ('0' + l % 10);
+            l /= 10;
+        } while (l > 0);
+        count += size;
+    }
+
+    @Override
+    public void write(double d) throws IOException {
+        if (highSurrogate != 0) writePending();
+        ensure(DoubleToDecimal.MAX_CHARS);
+        count = DoubleToDecimal.toChars(d, buf, count);
+    }
+
+    @Override
+    public void escapeWrite(char c) throws IOException {
+        if (highSurrogate != 0) writePending();
+        ensure(6);
+        if (c > 62) {
+            if (c < 0x80) buf[count++] = (byte) c;
+            else if (isSurrogate(c)) putMalformed();
+            else count = putChar(c, buf, count);
+        }
+        // Display char
+        else if (c >= 32) {
+            byte[] ec = ESCAPE_BYTES[c];
+            if (ec != null) writeAscii(ec);
+            else buf[count++] = (byte) c;
+        } else if (c == 9 || c == 10 || c == 13) buf[count++] = (byte) c;
+        else putMalformed();
+    }
+
+    @Override
+    public void escapeWrite(String text) throws IOException {
+        if (highSurrogate != 0 && !text.isEmpty()) writePending();
+        for (int i = 0, size = text.length(); i < size; ) {
+            ensure(16);
+            // Leave 6 bytes for the longest escape "&quot;"
+            int limit = buf.length - 6;
+            for (; count < limit && i < size; ) {
+                char c = text.charAt(i++);
+                // ASCII fast path
+                if (c > 62 && c < 0x80) buf[count++] = (byte) c;
+                else if (c >= 0x80) {
+                    if (isSurrogate(c)) {
+                        if (isHighSurrogate(c) && i < size && isLowSurrogate(text.charAt(i))) {
+                            count = putCodePoint(Character.toCodePoint(c, text.charAt(i++)), buf, count);
+                        } else putMalformed();
+                    }
+                    else count = putChar(c, buf, count);
+                }
+                else if (c >= 32) {
+                    byte[] ec = ESCAPE_BYTES[c];
+                    if (ec != null) {
+                        System.arraycopy(ec, 0, buf, count, ec.length);
+                        count += ec.length;
+                    } else buf[count++] = (byte) c;
+                } else if (c == 9 || c == 10 || c == 13) buf[count++] = (byte) c;
+                else putMalformed();
+            }
+        }
+    }
+
+    @Override
+    public void writeUTF8(char[] cb, int off, int len) throws IOException {
+        // Empty writes keep the pending high surrogate, same as the charset encoder
+        if (highSurrogate != 0 && len > 0) writePending();
+        for (int end = off + len; off < end; ) {
+            ensure(16);
+            int limit = buf.length - 4;
+            for (; count < limit && off < end; ) {
+                char c = cb[off++];
+                if (c < 0x80) buf[count++] = (byte) c;
+                else if (isSurrogate(c)) {
+                    if (isHighSurrogate(c) && off < end && isLowSurrogate(cb[off])) {
+                        count = putCodePoint(Character.toCodePoint(c, cb[off++]), buf, count);
+                    } else putMalformed();
+                }
+                else count = putChar(c, buf, count);
+            }
+        }
+    }
+
+    /**
+     * 暂存的高代理字符与{@code c}组成码点时写入并返回{@code true}，否则将暂存字符写为{@code '?'}
+     * 调用前需保证缓冲区至少有5个字节的剩余空间
+     */
+    private boolean pairPending(char c) {
+        char h = highSurrogate;
+        highSurrogate = 0;
+        if (isLowSurrogate(c)) {
+            count = putCodePoint(Character.toCodePoint(h, c), buf, count);
+            return true;
+        }
+        buf[count++] = '?';
+        return false;
+    }
+
+    /**
+     * 暂存的高代理字符没有配对，写为{@code '?'}
+     */
+    private void writePending() throws IOException {
+        highSurrogate = 0;
+        ensure(1);
+        buf[count++] = '?';
+    }
+
+    private void putMalformed() {
+        buf[count++] = MALFORMED_BYTES[0];
+        buf[count++] = MALFORMED_BYTES[1];
+        buf[count++] = MALFORMED_BYTES[2];
+    }
+
+    /**
+     * 编码非ASCII且非代理的字符
+     */
+    private static int putChar(char c, byte[] buf, int p) {
+        if (c < 0x800) {
+            buf[p++] = (byte) (0xC0 | (c >> 6));
+        } else {
+            buf[p++] = (byte) (0xE0 | (c >> 12));
+            buf[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        }
+        buf[p++] = (byte) (0x80 | (c & 0x3F));
+        return p;
+    }
+
+    private static int putCodePoint(int cp, byte[] buf, int p) {
+        buf[p++] = (byte) (0xF0 | (cp >> 18));
+        buf[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+        buf[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+        buf[p++] = (byte) (0x80 | (cp & 0x3F));
+        return p;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        os.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (os == null) return;
+        try {
+            if (highSurrogate != 0) writePending();
+            flushBuffer();
+        } finally {
+            os.close();
+            os = null;
+        }
+    }
+}
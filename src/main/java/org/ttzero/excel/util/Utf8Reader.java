@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * 直接解码UTF-8字节的{@link Reader}，ASCII字节直接拓宽为字符，只有遇到多字节序列（一般只出现在字符串内容中）
+ * 才进行解码，绕过JDK字符集解码器的{@code ByteBuffer}/{@code CharBuffer}包装和同步锁，
+ * 适用于工作表、共享字符串这类绝大部分为ASCII标签和数字的XML。
+ * 解码结果与{@code new InputStreamReader(is, UTF_8)}一致，非法字节序列替换为{@code U+FFFD}
+ * <p>
+ * 注意：非线程安全
+ *
+ * @author guanquan.wang at 2026-10-18 02:40
+ */
+public class Utf8Reader extends Reader {
+    private static final int defaultByteBufferSize = 1 << 15;
+    private static final char REPLACEMENT = '\uFFFD';
+    private InputStream is;
+    private final byte[] bb;
+    private int position, limit;
+    /**
+     * 读取4字节序列时缓冲区只剩一个字符的位置，低代理项留到下次读取
+     */
+    private char lowSurrogate;
+    private boolean eof;
+
+    public Utf8Reader(InputStream is) {
+        this(is, defaultByteBufferSize);
+    }
+
+    public Utf8Reader(InputStream is, int size) {
+        if (size < 16) throw new IllegalArgumentException("Buffer size < 16");
+        this.is = is;
+        this.bb = new byte[size];
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (is == null) throw new IOException("Stream closed");
+        if (off < 0 || len < 0 || len > cbuf.length - off) throw new IndexOutOfBoundsException();
+        if (len == 0) return 0;
+        int k = off, end = off + len;
+        if (lowSurrogate != 0) {
+            cbuf[k++] = lowSurrogate;
+            lowSurrogate = 0;
+        }
+        byte[] bb = this.bb;
+        while (k < end) {
+            // Same as InputStreamReader, keep reading while the input is ready, block only when nothing has been read
+            if (position == limit && (k > off && is.available() <= 0 || fill(0) <= 0)) break;
+            int p = position, lim = Math.min(limit, p + end - k);
+            // ASCII fast path
+            for (byte b; p < lim && (b = bb[p]) >= 0; p++) cbuf[k++] = (char) b;
+            position = p;
+            if (k == end || position == limit) continue;
+
+            int b0 = bb[position] & 0xFF, n = b0 >= 0xF0 ? 4 : b0 >= 0xE0 ? 3 : 2;
+            // Load the rest bytes of sequence
+            if (limit - position < n && fill(n) < n) {
+                // Truncated sequence at the end of stream
+                cbuf[k++] = REPLACEMENT;
+                position = validPrefix(position, limit) ? limit : position + 1;
+                continue;
+            }
+            k = decode(cbuf, k, end);
+        }
+        return k > off ? k - off : -1;
+    }
+
+    /**
+     * 解码一个多字节序列
+     */
+    private int decode(char[] cbuf, int k, int end) {
+        byte[] bb = this.bb;
+        int p = position, b0 = bb[p] & 0xFF;
+        if (b0 >= 0xC2 && b0 <= 0xDF) {
+            int b1 = bb[p + 1];
+            if (isNotContinuation(b1)) return malformed(cbuf, k, 1);
+            cbuf[k++] = (char) (((b0 & 0x1F) << 6) | (b1 & 0x3F));
+            position = p + 2;
+        } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+            int b1 = bb[p + 1], b2 = bb[p + 2];
+            // Overlong
+            if (isNotContinuation(b1) || b0 == 0xE0 && (b1 & 0xE0) == 0x80) return malformed(cbuf, k, 1);
+            if (isNotContinuation(b2)) return malformed(cbuf, k, 2);
+            char c = (char) (((b0 & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F));
+            // Surrogate
+            if (Character.isSurrogate(c)) return malformed(cbuf, k, 3);
+            cbuf[k++] = c;
+            position = p + 3;
+        } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+            int b1 = bb[p + 1], b2 = bb[p + 2], b3 = bb[p + 3];
+            if (isNotContinuation(b1) || b0 == 0xF0 && (b1 & 0xF0) == 0x80 || b0 == 0xF4 && (b1 & 0xF0) != 0x80)
+                return malformed(cbuf, k, 1);
+            if (isNotContinuation(b2)) return malformed(cbuf, k, 2);
+            if (isNotContinuation(b3)) return malformed(cbuf, k, 3);
+            int cp = ((b0 & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+            cbuf[k++] = Character.highSurrogate(cp);
+            if (k < end) cbuf[k++] = Character.lowSurrogate(cp);
+            else lowSurrogate = Character.lowSurrogate(cp);
+            position = p + 4;
+        } else return malformed(cbuf, k, 1);
+        return k;
+    }
+
+    private int malformed(char[] cbuf, int k, int n) {
+        cbuf[k++] = REPLACEMENT;
+        position += n;
+        return k;
+    }
+
+    private static boolean isNotContinuation(int b) {
+        return (b & 0xC0) != 0x80;
+    }
+
+    /**
+     * 被截断的序列中已读取的字节是否为合法的前缀
+     */
+    private boolean validPrefix(int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            if (isNotContinuation(bb[i])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 读取更多字节，未处理的字节移到缓冲区头部
+     *
+     * @param need 至少需要的剩余字节数，{@code 0}表示读一次即可
+     * @return 剩余字节数，流结束且无剩余时返回{@code -1}
+     */
+    private int fill(int need) throws IOException {
+        int remaining = limit - position;
+        if (position > 0) {
+            if (remaining > 0) System.arraycopy(bb, position, bb, 0, remaining);
+            position = 0;
+            limit = remaining;
+        }
+        while (!eof) {
+            int n = is.read(bb, limit, bb.length - limit);
+            if (n < 0) eof = true;
+            else if (n > 0) {
+                limit += n;
+                if (limit >= need) break;
+            }
+        }
+        return limit == 0 && eof ? -1 : limit;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        if (is == null) throw new IOException("Stream closed");
+        return lowSurrogate != 0 || position < limit || is.available() > 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (is != null) {
+            is.close();
+            is = null;
+        }
+    }
+}
@@ -21,14 +21,17 @@ import org.ttzero.excel.manager.Const;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -58,7 +61,7 @@ public class ZipUtil {
      * @throws IOException if error occur.
      */
     public static Path zip(Path destPath, Path... srcPath) throws IOException {
-        return zip(destPath, true, MIDDLE_COMPRESSION, srcPath);
+        return zip(destPath, true, MIDDLE_COMPRESSION, null, CompressionPolicy.DEFAULT, srcPath);
     }
 
     /**
@@ -85,13 +88,46 @@ public class ZipUtil {
      * @throws IOException if error occur.
      */
     public static Path zipExcludeRoot(Path destPath, int compressionLevel, Path... srcPath) throws IOException {
+        return zipExcludeRoot(destPath, compressionLevel, null, srcPath);
+    }
+
+    /**
+     * zip files exclude root path, the large files are split into blocks
+     * and deflated in parallel by the executor
+     * command: zip destPath srcPath1 srcPath2 ...
+     *
+     * @param destPath the destination path
+     * @param compressionLevel compression level
+     * @param executor the executor to deflate blocks, compress in current thread if null
+     * @param srcPath  the source path
+     * @return the result zip file path
+     * @throws IOException if error occur.
+     */
+    public static Path zipExcludeRoot(Path destPath, int compressionLevel, Executor executor, Path... srcPath) throws IOException {
+        return zipExcludeRoot(destPath, compressionLevel, executor, CompressionPolicy.DEFAULT, srcPath);
+    }
+
+    /**
+     * zip files exclude root path, the compression level of each entry is decided by the policy,
+     * already compressed media are stored without deflate by {@link CompressionPolicy#DEFAULT}
+     * command: zip destPath srcPath1 srcPath2 ...
+     *
+     * @param destPath the destination path
+     * @param compressionLevel compression level
+     * @param executor the executor to deflate blocks, compress in current thread if null
+     * @param policy   the compression policy, use {@code compressionLevel} for all entries if null
+     * @param srcPath  the source path
+     * @return the result zip file path
+     * @throws IOException if error occur.
+     */
+    public static Path zipExcludeRoot(Path destPath, int compressionLevel, Executor executor, CompressionPolicy policy, Path... srcPath) throws IOException {
         if (!destPath.toString().endsWith(Const.Suffix.ZIP)) {
             destPath = Paths.get(destPath.toString() + Const.Suffix.ZIP);
         }
         if (!exists(destPath.getParent())) {
             FileUtil.mkdir(destPath.getParent());
         }
-        return zip(destPath, false, compressionLevel, srcPath);
+        return zip(destPath, false, compressionLevel, executor, policy, srcPath);
     }
 
     /**
@@ -101,14 +137,24 @@ public class ZipUtil {
      * @param destPath     the destination path
      * @param compressRoot include root path if true
      * @param compressionLevel compression level
+     * @param executor     the executor to deflate blocks, compress in current thread if null
+     * @param policy       the compression policy
      * @param srcPath      the source path
      * @return the result zip file path
      * @throws IOException if error occur.
      */
-    private static Path zip(Path destPath, boolean compressRoot, int compressionLevel, Path... srcPath) throws IOException {
-        ZipOutputStream zos = new ZipOutputStream(
-            new BufferedOutputStream(Files.newOutputStream(destPath, StandardOpenOption.CREATE)));
-        zos.setLevel(Math.min(Math.max(compressionLevel, 0), 9));
+    private static Path zip(Path destPath, boolean compressRoot, int compressionLevel, Executor executor
+        , CompressionPolicy policy, Path... srcPath) throws IOException {
+        compressionLevel = Math.min(Math.max(compressionLevel, 0), 9);
+        OutputStream os = new BufferedOutputStream(Files.newOutputStream(destPath, StandardOpenOption.CREATE));
+        ZipOutputStream zos = null;
+        ParallelZipWriter writer = null;
+        if (executor != null) {
+            writer = new ParallelZipWriter(os, compressionLevel, executor);
+        } else {
+            zos = new ZipOutputStream(os);
+            zos.setLevel(compressionLevel);
+        }
         List<Path> paths = new ArrayList<>();
         int i = 0, index = 0;
         int[] array = new int[srcPath.length];
@@ -141,9 +187,12 @@ public class ZipUtil {
                 } else {
                     name = paths.get(j).toString().substring(len + 1);
                 }
-                zos.putNextEntry(new ZipEntry(name));
-                Files.copy(paths.get(j), zos);
-                zos.closeEntry();
+                int level = policy != null ? policy.levelOf(name, paths.get(j), compressionLevel) : compressionLevel;
+                if (writer != null) {
+                    writer.write(name, paths.get(j), level);
+                } else {
+                    putEntry(zos, name, paths.get(j), level);
+                }
             } else {
                 basePath = compressRoot ? srcPath[++index].getParent() : srcPath[++index];
                 len = basePath.toString().length();
@@ -151,10 +200,79 @@ public class ZipUtil {
             }
         }
 
-        zos.close();
+        if (writer != null) writer.close();
+        else zos.close();
         return destPath;
     }
 
+    /**
+     * Append all files under the root path into an opened zip stream, the root path
+     * is excluded from the entry name, the stream will not be closed
+     *
+     * @param zos    the opened zip output stream
+     * @param root   the root path
+     * @param compressionLevel compression level
+     * @param policy the compression policy, use {@code compressionLevel} for all entries if null
+     * @throws IOException if error occur.
+     */
+    public static void appendExcludeRoot(ZipOutputStream zos, Path root, int compressionLevel, CompressionPolicy policy) throws IOException {
+        List<Path> paths = subPath(root);
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            if (Files.isDirectory(path)) {
+                paths.addAll(subPath(path));
+                continue;
+            }
+            StringBuilder name = new StringBuilder();
+            for (Path p : root.relativize(path)) {
+                if (name.length() > 0) name.append('/');
+                name.append(p);
+            }
+            String entryName = name.toString();
+            putEntry(zos, entryName, path, policy != null ? policy.levelOf(entryName, path, compressionLevel) : compressionLevel);
+        }
+    }
+
+    /**
+     * Put a file into the zip stream, the entry is stored without deflate if the level
+     * is {@link CompressionPolicy#STORED}, the size and crc are calculated in advance
+     *
+     * @param zos   the opened zip output stream
+     * @param name  the entry name
+     * @param path  the file path
+     * @param level compression level or {@link CompressionPolicy#STORED}
+     * @throws IOException if error occur.
+     */
+    public static void putEntry(ZipOutputStream zos, String name, Path path, int level) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        if (level == CompressionPolicy.STORED) {
+            long size = Files.size(path);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(size);
+            entry.setCompressedSize(size);
+            entry.setCrc(crc32(path));
+        } else zos.setLevel(Math.min(Math.max(level, 0), 9));
+        zos.putNextEntry(entry);
+        Files.copy(path, zos);
+        zos.closeEntry();
+    }
+
+    /**
+     * Calculate the crc32 of file
+     *
+     * @param path the file path
+     * @return crc32 value
+     * @throws IOException if error occur.
+     */
+    static long crc32(Path path) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream is = Files.newInputStream(path)) {
+            byte[] buf = new byte[8192];
+            for (int n; (n = is.read(buf)) > 0; ) crc.update(buf, 0, n);
+        }
+        return crc.getValue();
+    }
+
     private static List<Path> subPath(Path path) throws IOException {
         try (Stream<Path> fileStream = Files.list(path)) {
             return fileStream.collect(Collectors.toList());
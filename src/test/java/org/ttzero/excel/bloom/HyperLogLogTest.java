@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.bloom;
+
+import org.junit.Test;
+import org.ttzero.excel.hash.HyperLogLog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author guanquan.wang at 2026-10-17 18:30
+ */
+public class HyperLogLogTest {
+    @Test public void testSmallCardinality() {
+        HyperLogLog hll = new HyperLogLog(10);
+        assertEquals(0L, hll.cardinality());
+        for (int i = 0; i < 1024; i++) {
+            hll.put("status_" + (i % 5));
+        }
+        assertEquals(5L, hll.cardinality());
+    }
+
+    @Test public void testCardinality() {
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int n : new int[] { 1000, 10_000, 50_000 }) {
+            hll.clear();
+            for (int i = 0; i < n; i++) {
+                hll.put("order_" + i);
+                hll.put("order_" + i);
+            }
+            long estimate = hll.cardinality();
+            // Standard error 1.04/sqrt(1024) about 3.25%, allow 4 times
+            assertTrue(n + ": " + estimate, Math.abs(estimate - n) <= n * 0.13D);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.bloom;
+
+import org.junit.Test;
+import org.ttzero.excel.hash.ScalableStringBloomFilter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-17 19:55
+ */
+public class ScalableBloomFilterTest {
+    @Test public void testScalable() {
+        double fpp = 0.003;
+        ScalableStringBloomFilter filter = ScalableStringBloomFilter.create(1 << 12, fpp);
+        assertEquals(1, filter.layers());
+
+        int size = 1 << 18;
+        for (int i = 0; i < size; i++) {
+            if (!filter.mightContain("abc_test_" + i)) filter.put("abc_test_" + i);
+        }
+        // 4096 * (2^7 - 1) >= 2^18
+        assertTrue(filter.layers() >= 6);
+        println(filter);
+
+        // No false negatives
+        for (int i = 0; i < size; i++) {
+            assertTrue(filter.mightContain("abc_test_" + i));
+        }
+        // The false positive rate is bounded
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.mightContain("not_exists_" + i)) n++;
+        }
+        assertTrue(n + " false positives", n <= size * fpp);
+    }
+
+    @Test public void testMemory() {
+        ScalableStringBloomFilter filter = ScalableStringBloomFilter.create(1 << 10, 0.0003);
+        for (int i = 0; i < 5000; i++) filter.put("key_" + i);
+        long total = 0L;
+        for (int i = 0; i < filter.layers(); i++) {
+            assertTrue(filter.memoryOf(i) > 0L);
+            if (i > 0) assertTrue(filter.memoryOf(i) > filter.memoryOf(i - 1));
+            total += filter.memoryOf(i);
+        }
+        assertEquals(total, filter.memory());
+    }
+}
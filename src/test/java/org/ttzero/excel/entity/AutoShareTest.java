@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import org.junit.Test;
+import org.ttzero.excel.entity.e7.XMLWorksheetWriter;
+import org.ttzero.excel.reader.ExcelReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * @author guanquan.wang at 2026-10-17 18:40
+ */
+public class AutoShareTest extends WorkbookTest {
+
+    @Test public void testAutoShare() throws IOException {
+        int size = 3000;
+        List<Order> expectList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            expectList.add(new Order("NO" + (100000 + i), "status_" + (i % 4)));
+        }
+        Column no = new Column("订单号", "no").setAutoShare(true)
+            , status = new Column("状态", "status").setAutoShare(true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new Workbook().addSheet(new ListSheet<>(expectList, no, status)).writeTo(os);
+
+        Map<String, byte[]> entries = ParallelTest.entries(os.toByteArray());
+        String xml = new String(entries.get("xl/worksheets/sheet1.xml"), StandardCharsets.UTF_8);
+        int sampleEnd = XMLWorksheetWriter.AUTO_SHARE_SAMPLES + 1; // 1 header row
+        Matcher matcher = Pattern.compile("<c r=\"([AB])(\\d+)\"[^>]*? t=\"(\\w+)\"").matcher(xml);
+        int n = 0;
+        // 低重复率的订单号内嵌，高重复率的状态共享
+        while (matcher.find()) {
+            int row = Integer.parseInt(matcher.group(2));
+            if (row <= sampleEnd) continue;
+            assertEquals(matcher.group(0), "A".equals(matcher.group(1)) ? "inlineStr" : "s", matcher.group(3));
+            n++;
+        }
+        assertEquals((size - sampleEnd + 1) * 2, n);
+
+        try (ExcelReader reader = ExcelReader.read(new ByteArrayInputStream(os.toByteArray()))) {
+            List<Order> list = reader.sheet(0).dataRows()
+                .map(row -> new Order(row.getString(0), row.getString(1))).collect(Collectors.toList());
+            assertEquals(expectList, list);
+        }
+    }
+
+    @Test public void testReuseColumns() throws IOException {
+        int size = 3000;
+        List<Map<String, Object>> repeated = new ArrayList<>(size), unique = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> a = new HashMap<>(), b = new HashMap<>();
+            a.put("no", "NO" + (i % 4));
+            a.put("status", "status_" + (i % 4));
+            repeated.add(a);
+            b.put("no", "NO" + (100000 + i));
+            b.put("status", "status_" + i);
+            unique.add(b);
+        }
+        Column no = new Column("订单号", "no").setAutoShare(true)
+            , status = new Column("状态", "status").setAutoShare(true);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        // The same column definitions are decided by the samples of each worksheet
+        new Workbook().addSheet(new ListMapSheet<>(repeated, no, status))
+            .addSheet(new ListMapSheet<>(unique, no, status)).writeTo(os);
+        assertFalse(no.isShare());
+        assertFalse(status.isShare());
+
+        Map<String, byte[]> entries = ParallelTest.entries(os.toByteArray());
+        int sampleEnd = XMLWorksheetWriter.AUTO_SHARE_SAMPLES + 1; // 1 header row
+        for (int k = 1; k <= 2; k++) {
+            String xml = new String(entries.get("xl/worksheets/sheet" + k + ".xml"), StandardCharsets.UTF_8);
+            Matcher matcher = Pattern.compile("<c r=\"[AB](\\d+)\"[^>]*? t=\"(\\w+)\"").matcher(xml);
+            int n = 0;
+            while (matcher.find()) {
+                int row = Integer.parseInt(matcher.group(1));
+                // Skip header and the rows around the end of sampling
+                if (row == 1 || k == 1 && row >= XMLWorksheetWriter.AUTO_SHARE_SAMPLES && row <= sampleEnd) continue;
+                // Samples use the original setting of column
+                assertEquals(matcher.group(0), k == 1 && row > sampleEnd ? "s" : "inlineStr", matcher.group(2));
+                n++;
+            }
+            assertEquals(k == 1 ? (size - 2) * 2 : size * 2, n);
+        }
+
+        try (ExcelReader reader = ExcelReader.read(new ByteArrayInputStream(os.toByteArray()))) {
+            assertEquals(repeated.size(), reader.sheet(0).dataRows().count());
+            List<String> list = reader.sheet(1).dataRows().map(row -> row.getString(0)).collect(Collectors.toList());
+            for (int i = 0; i < size; i++) {
+                assertEquals(unique.get(i).get("no"), list.get(i));
+            }
+        }
+    }
+
+    public static class Order {
+        private String no;
+        private String status;
+
+        public Order(String no, String status) {
+            this.no = no;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Order)) return false;
+            Order other = (Order) o;
+            return no.equals(other.no) && status.equals(other.status);
+        }
+
+        @Override
+        public int hashCode() {
+            return no.hashCode() * 31 + status.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return no + ": " + status;
+        }
+    }
+}
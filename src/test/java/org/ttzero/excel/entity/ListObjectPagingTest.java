@@ -31,9 +31,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.ttzero.excel.reader.ExcelReaderTest.testResourceRoot;
 
 /**
@@ -333,4 +336,100 @@ public class ListObjectPagingTest extends WorkbookTest {
             }
         }
     }
+
+    @Test public void testPrefetchPaging() throws IOException {
+        String fileName = "test prefetch paging.xlsx";
+        List<ListObjectSheetTest.Item> expectList = ListObjectSheetTest.Item.randomTestData(1024);
+        List<Integer> offsets = new ArrayList<>();
+        List<ListObjectSheetTest.Item> lastOnes = new ArrayList<>();
+        Workbook workbook = new Workbook()
+            .addSheet(new ListSheet<ListObjectSheetTest.Item>().setData((i, lastOne) -> {
+                offsets.add(i);
+                lastOnes.add(lastOne);
+                return i < expectList.size() ? expectList.subList(i, Math.min(i + 100, expectList.size())) : null;
+            }).setPrefetch(2))
+            .setWorkbookWriter(new ReLimitXMLWorkbookWriter());
+        workbook.writeTo(defaultTestPath.resolve(fileName));
+
+        // 已拉取记录数和上一批最后一个对象
+        assertEquals(expectList.size() / 100 + 2, offsets.size());
+        for (int i = 0; i < offsets.size(); i++) {
+            int offset = Math.min(i * 100, expectList.size());
+            assertEquals(offset, (int) offsets.get(i));
+            assertEquals(i > 0 ? expectList.get(offset - 1) : null, lastOnes.get(i));
+        }
+
+        int count = expectList.size(), rowLimit = workbook.getSheetAt(0).getSheetWriter().getRowLimit() - 1; // 1 header row
+        try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve(fileName))) {
+            assertEquals(reader.getSheetCount(), (count % rowLimit > 0 ? count / rowLimit + 1 : count / rowLimit));
+
+            int a = 0;
+            for (int i = 0, len = reader.getSheetCount(); i < len; i++) {
+                Iterator<ListObjectSheetTest.Item> iter = reader.sheet(i).header(1).bind(ListObjectSheetTest.Item.class).dataRows().map(row -> (ListObjectSheetTest.Item) row.get()).iterator();
+                while (iter.hasNext()) {
+                    assertEquals(expectList.get(a++), iter.next());
+                }
+            }
+            assertEquals(count, a);
+        }
+    }
+
+    @Test public void testPrefetchOverrideMore() throws IOException {
+        String fileName = "test prefetch override more.xlsx";
+        List<ListObjectSheetTest.Item> expectList = ListObjectSheetTest.Item.randomTestData(600);
+        new Workbook()
+            .addSheet(new ListSheet<ListObjectSheetTest.Item>() {
+                int page;
+                @Override
+                protected List<ListObjectSheetTest.Item> more() {
+                    int from = page++ * 64;
+                    return from < expectList.size() ? expectList.subList(from, Math.min(from + 64, expectList.size())) : null;
+                }
+            }.setPrefetch(1))
+            .setWorkbookWriter(new ReLimitXMLWorkbookWriter())
+            .writeTo(defaultTestPath.resolve(fileName));
+
+        try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve(fileName))) {
+            int a = 0;
+            for (int i = 0, len = reader.getSheetCount(); i < len; i++) {
+                Iterator<ListObjectSheetTest.Item> iter = reader.sheet(i).header(1).bind(ListObjectSheetTest.Item.class).dataRows().map(row -> (ListObjectSheetTest.Item) row.get()).iterator();
+                while (iter.hasNext()) {
+                    assertEquals(expectList.get(a++), iter.next());
+                }
+            }
+            assertEquals(expectList.size(), a);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class) public void testPrefetchException() throws IOException {
+        new Workbook()
+            .addSheet(new ListSheet<ListObjectSheetTest.Item>().setData((i, lastOne) -> {
+                if (i >= 200) throw new IllegalStateException("Broken data source");
+                return ListObjectSheetTest.Item.randomTestData(100);
+            }).setPrefetch(2))
+            .writeTo(defaultTestPath.resolve("test prefetch exception.xlsx"));
+    }
+
+    @Test public void testPrefetchStopsOnWriterFailure() throws Exception {
+        AtomicInteger n = new AtomicInteger();
+        Workbook workbook = new Workbook()
+            .addSheet(new ListSheet<ListObjectSheetTest.Item>("prefetch failure", new Column("ID", "id").setProcessor(o -> {
+                if (n.incrementAndGet() > 150) throw new IllegalStateException("Writer failed");
+                return o;
+            }), new Column("NAME", "name")).setData((i, lastOne) -> ListObjectSheetTest.Item.randomTestData(100)).setPrefetch(2))
+            .saveAsCSV();
+        try {
+            workbook.writeTo(defaultTestPath.resolve("test prefetch writer failure.csv"));
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("Writer failed", e.getMessage());
+        }
+        // The prefetch thread is stopped although the data source never ends
+        for (int i = 0; i < 50 && isPrefetching("prefetch failure"); i++) Thread.sleep(20L);
+        assertFalse(isPrefetching("prefetch failure"));
+    }
+
+    static boolean isPrefetching(String name) {
+        return Thread.getAllStackTraces().keySet().stream().anyMatch(t -> t.isAlive() && t.getName().equals("eec-prefetch-" + name));
+    }
 }
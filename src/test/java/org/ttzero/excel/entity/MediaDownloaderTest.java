@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ttzero.excel.reader.Drawings;
+import org.ttzero.excel.reader.ExcelReader;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author guanquan.wang at 2026-10-18 01:00
+ */
+public class MediaDownloaderTest extends WorkbookTest {
+    private HttpServer server;
+    private ExecutorService executor;
+    private String root;
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger(), maxActive = new AtomicInteger();
+
+    @Before public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, k -> new AtomicInteger()).incrementAndGet();
+            int n = active.incrementAndGet();
+            maxActive.accumulateAndGet(n, Math::max);
+            try {
+                Thread.sleep(path.startsWith("/slow") ? 3000L : 20L);
+                if (path.startsWith("/missing")) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                byte[] body = png(path.hashCode());
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                active.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.setExecutor(executor = Executors.newFixedThreadPool(16));
+        server.start();
+        root = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    @After public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    @Test public void testDeduplicateAndLimit() throws Exception {
+        MediaDownloader downloader = new MediaDownloader().setMaxConnectionsPerHost(2);
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) futures.add(downloader.download(root + "/img" + (i % 8) + ".png"));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get();
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertArrayEquals(png(("/img" + (i % 8) + ".png").hashCode()), futures.get(i).get());
+        }
+        // Each url downloaded once
+        assertEquals(8, hits.size());
+        for (AtomicInteger n : hits.values()) assertEquals(1, n.get());
+        assertTrue(maxActive.get() <= 2);
+
+        // Not found
+        assertNull(downloader.download(root + "/missing.png").get());
+        downloader.close();
+    }
+
+    @Test public void testExportRemoteImages() throws IOException {
+        List<String> expectList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) expectList.add(root + "/pic" + (i % 10) + ".png");
+        Path path = getOutputTestPath().resolve("local server remote image.xlsx");
+        new Workbook().setMediaDownloader(new MediaDownloader().setMaxConnectionsPerHost(8))
+            .addSheet(new ListSheet<>(expectList)
+            .setColumns(new Column().setWidth(20).writeAsMedia()).setRowHeight(100))
+            .writeTo(path);
+
+        assertEquals(10, hits.size());
+        for (AtomicInteger n : hits.values()) assertEquals(1, n.get());
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            List<Drawings.Picture> list = reader.sheet(0).listPictures();
+            assertEquals(expectList.size(), list != null ? list.size() : 0);
+            for (Drawings.Picture pic : list) {
+                String url = expectList.get(pic.getDimension().getFirstRow() - 1);
+                assertEquals(crc32(png(url.substring(root.length()).hashCode())), crc32(pic.getLocalPath()));
+            }
+        }
+    }
+
+    @Test public void testCompletionTimeout() throws IOException {
+        List<String> expectList = new ArrayList<>();
+        for (int i = 0; i < 4; i++) expectList.add(root + "/pic" + i + ".png");
+        expectList.add(root + "/slow.png");
+        Path path = getOutputTestPath().resolve("remote image completion timeout.xlsx");
+        new Workbook().setMediaDownloader(new MediaDownloader().setCompletionTimeout(1000L))
+            .addSheet(new ListSheet<>(expectList)
+            .setColumns(new Column().setWidth(20).writeAsMedia()).setRowHeight(100))
+            .writeTo(path);
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            List<Drawings.Picture> list = reader.sheet(0).listPictures();
+            // The slow picture is not drawn
+            assertEquals(expectList.size() - 1, list != null ? list.size() : 0);
+            for (Drawings.Picture pic : list) {
+                assertTrue(expectList.get(pic.getDimension().getFirstRow() - 1).contains("/pic"));
+            }
+        }
+    }
+
+    @Test public void testNoDownloaderCreated() throws IOException {
+        Workbook workbook = new Workbook().addSheet(new ListSheet<>(getRandomString()));
+        workbook.writeTo(getOutputTestPath().resolve("no media downloader.xlsx"));
+        assertFalse(workbook.hasMediaDownloader());
+    }
+
+    static byte[] png(int seed) throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(seed & 0xFFFFFF));
+        g.fillRect(0, 0, 16, 16);
+        g.dispose();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bos);
+        return bos.toByteArray();
+    }
+}
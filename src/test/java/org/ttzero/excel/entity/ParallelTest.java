@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.ttzero.excel.entity.style.Fill;
+import org.ttzero.excel.entity.style.PatternType;
+import org.ttzero.excel.reader.ExcelReader;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author guanquan.wang at 2026-10-17 14:20
+ */
+public class ParallelTest extends WorkbookTest {
+    private static ExecutorService executor;
+
+    @BeforeClass public static void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterClass public static void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test public void testParallelEqualsSequential() throws IOException {
+        List<ListObjectSheetTest.Item> items = ListObjectSheetTest.Item.randomTestData();
+        List<ListObjectSheetTest.Student> students = ListObjectSheetTest.Student.randomTestData();
+        List<ListObjectSheetTest.AllType> allTypes = ListObjectSheetTest.AllType.randomTestData();
+
+        Function<Workbook, Workbook> builder = workbook -> workbook
+            .setZebraLine(new Fill(PatternType.solid, Color.LIGHT_GRAY))
+            .addSheet(new ListSheet<>("Item", items))
+            .addSheet(new ListSheet<>(allTypes))
+            .addSheet(new ListSheet<>("Shared", students, new Column("姓名", "name").setShare(true), new Column("成绩", "score")))
+            .addSheet(new ListSheet<>("Student", students).autoSize())
+            .addSheet(new ListSheet<>(items));
+
+        assertZipEquals(write(builder.apply(new Workbook())), write(builder.apply(new Workbook().setParallelExecutor(executor))));
+    }
+
+    @Test public void testParallelPaging() throws IOException {
+        List<ListObjectSheetTest.Item> items = ListObjectSheetTest.Item.randomTestData(1024);
+        List<ListObjectSheetTest.Student> students = ListObjectSheetTest.Student.randomTestData(600);
+
+        Function<Workbook, Workbook> builder = workbook -> workbook
+            .setWorkbookWriter(new ReLimitXMLWorkbookWriter())
+            .addSheet(new ListSheet<>(items))
+            .addSheet(new ListSheet<>(students))
+            .addSheet(new ListSheet<>("Item", items));
+
+        byte[] expect = write(builder.apply(new Workbook())), bytes = write(builder.apply(new Workbook().setParallelExecutor(executor)));
+        assertZipEquals(expect, bytes);
+
+        try (ExcelReader reader = ExcelReader.read(new ByteArrayInputStream(bytes))) {
+            // 1024 items: 5 sheets, 600 students: 3 sheets
+            assertEquals(13, reader.getSheetCount());
+            assertEquals("Sheet1", reader.sheet(0).getName());
+            assertEquals("Sheet1 (4)", reader.sheet(4).getName());
+            assertEquals("Sheet6", reader.sheet(5).getName());
+            assertEquals("Item (4)", reader.sheet(12).getName());
+            List<ListObjectSheetTest.Item> list = reader.sheets().limit(5).flatMap(org.ttzero.excel.reader.Sheet::dataRows)
+                .map(row -> row.to(ListObjectSheetTest.Item.class)).collect(Collectors.toList());
+            assertEquals(items, list);
+        }
+    }
+
+    @Test public void testConcurrentWorkbooks() throws Exception {
+        List<ListObjectSheetTest.AllType> allTypes = ListObjectSheetTest.AllType.randomTestData();
+        byte[] expect = write(new Workbook().addSheet(new ListSheet<>(allTypes)));
+        List<Future<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> write(new Workbook().addSheet(new ListSheet<>(allTypes)))));
+        }
+        for (Future<byte[]> future : futures) {
+            assertZipEquals(expect, future.get());
+        }
+    }
+
+    @Test public void testCloseOnPrepareFailure() {
+        AtomicInteger closed = new AtomicInteger();
+        Workbook workbook = new Workbook().setParallelExecutor(executor);
+        for (int i = 0; i < 4; i++) {
+            boolean fail = i == 2;
+            workbook.addSheet(new ListSheet<ListObjectSheetTest.Item>(ListObjectSheetTest.Item.randomTestData()) {
+                @Override
+                public void prepare() throws IOException {
+                    if (fail) throw new IOException("prepare failed");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    closed.incrementAndGet();
+                    super.close();
+                }
+            });
+        }
+        try {
+            write(workbook);
+            fail();
+        } catch (IOException e) {
+            assertEquals("prepare failed", e.getMessage());
+        }
+        // Every prepared worksheet is closed
+        assertEquals(4, closed.get());
+    }
+
+    @Test public void testColumnReference() {
+        char[] buf = new char[3];
+        for (int i = 1; i <= 16_384; i++) {
+            Column column = new Column();
+            column.realColIndex = i;
+            String expect = new String(Sheet.int2Col(i));
+            assertEquals(expect, new String(buf, 0, Sheet.int2Col(i, buf, 0)));
+            assertEquals(expect, new String(column.getColumnReference(), StandardCharsets.US_ASCII));
+        }
+        assertEquals("XFD", new String(Sheet.int2Col(16_384)));
+        assertEquals("AB12", Sheet.toCoordinate(12, 28));
+    }
+
+    static byte[] write(Workbook workbook) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        workbook.writeTo(os);
+        return os.toByteArray();
+    }
+
+    static void assertZipEquals(byte[] expect, byte[] actual) throws IOException {
+        Map<String, byte[]> expectEntries = entries(expect), actualEntries = entries(actual);
+        // Ignore the creation time
+        expectEntries.remove("docProps/core.xml");
+        actualEntries.remove("docProps/core.xml");
+        assertEquals(expectEntries.keySet(), actualEntries.keySet());
+        for (Map.Entry<String, byte[]> entry : expectEntries.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), actualEntries.get(entry.getKey()));
+        }
+    }
+
+    static Map<String, byte[]> entries(byte[] bytes) throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(bytes))) {
+            ZipEntry entry;
+            byte[] buf = new byte[8192];
+            while ((entry = zis.getNextEntry()) != null) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                for (int n; (n = zis.read(buf)) > 0; ) os.write(buf, 0, n);
+                map.put(entry.getName(), os.toByteArray());
+            }
+        }
+        return map;
+    }
+}
@@ -36,6 +36,7 @@ import org.ttzero.excel.util.FileSignatures;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
@@ -47,12 +48,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
@@ -86,6 +92,88 @@ public class PictureTest extends WorkbookTest {
         }
     }
 
+    @Test public void testDeduplicateMedia() throws IOException {
+        Path root = Files.createDirectories(defaultTestPath.resolve("dedup"));
+        List<Path> images = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            images.add(Files.write(root.resolve("dedup" + i + ".png"), MediaDownloaderTest.png(i * 0x123457)));
+        }
+        List<Path> paths = new ArrayList<>();
+        List<byte[]> bytes = new ArrayList<>();
+        List<InputStream> streams = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Path image = images.get(i % images.size());
+            paths.add(image);
+            bytes.add(Files.readAllBytes(image));
+            streams.add(Files.newInputStream(image));
+        }
+        Path path = defaultTestPath.resolve("Picture deduplicate.xlsx");
+        new Workbook()
+            .addSheet(new ListSheet<>(paths).setColumns(new Column().writeAsMedia().setWidth(20)).setRowHeight(100))
+            .addSheet(new ListSheet<>(bytes).setColumns(new Column().writeAsMedia().setWidth(20)).setRowHeight(100))
+            .addSheet(new ListSheet<>(streams).setColumns(new Column().writeAsMedia().setWidth(20)).setRowHeight(100))
+            .writeTo(path);
+
+        // Path cells share one entry per file, byte array and stream cells share one entry per content
+        int mediaCount = 0;
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                if (entries.nextElement().getName().startsWith("xl/media/")) mediaCount++;
+            }
+        }
+        assertEquals(images.size() * 2, mediaCount);
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            for (int n = 0; n < 3; n++) {
+                List<Drawings.Picture> list = reader.sheet(n).listPictures();
+                assertEquals(paths.size(), list != null ? list.size() : 0);
+                for (int i = 0; i < paths.size(); i++) {
+                    assertEquals(crc32(paths.get(i)), crc32(list.get(i).getLocalPath()));
+                }
+            }
+        }
+    }
+
+    @Test public void testStoreCompressedMedia() throws IOException {
+        List<byte[]> bytes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) bytes.add(MediaDownloaderTest.png(i * 0x10101));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int n = 0; n < 3; n++) {
+                Path path = defaultTestPath.resolve("Picture stored media " + n + ".xlsx");
+                Workbook workbook = new Workbook()
+                    .addSheet(new ListSheet<>(bytes).setColumns(new Column().writeAsMedia().setWidth(20)).setRowHeight(100));
+                if (n == 1) workbook.setParallelExecutor(executor);
+                if (n == 2) {
+                    try (OutputStream os = Files.newOutputStream(path)) {
+                        workbook.setStreaming(true).writeTo(os);
+                    }
+                } else workbook.writeTo(path);
+
+                int mediaCount = 0;
+                try (ZipFile zip = new ZipFile(path.toFile())) {
+                    for (Enumeration<? extends ZipEntry> entries = zip.entries(); entries.hasMoreElements(); ) {
+                        ZipEntry entry = entries.nextElement();
+                        boolean media = entry.getName().startsWith("xl/media/");
+                        if (media) mediaCount++;
+                        assertEquals(entry.getName(), media ? ZipEntry.STORED : ZipEntry.DEFLATED, entry.getMethod());
+                    }
+                }
+                assertEquals(bytes.size(), mediaCount);
+
+                try (ExcelReader reader = ExcelReader.read(path)) {
+                    List<Drawings.Picture> list = reader.sheet(0).listPictures();
+                    assertEquals(bytes.size(), list != null ? list.size() : 0);
+                    for (Drawings.Picture pic : list) {
+                        assertEquals(crc32(bytes.get(pic.getDimension().getFirstRow() - 1)), crc32(pic.getLocalPath()));
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test public void testExportPictureUseFile() throws IOException {
         List<Path> expectList = getLocalImages();
         new Workbook()
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author guanquan.wang at 2026-10-18 15:20
+ */
+public class PrefetcherTest {
+
+    @Test public void testCloseWaitsForSource() throws InterruptedException {
+        CountDownLatch reading = new CountDownLatch(1);
+        AtomicBoolean returned = new AtomicBoolean();
+        Prefetcher<String> prefetcher = new Prefetcher<>("test-prefetch", 1, () -> {
+            reading.countDown();
+            // Simulate a data source that ignores interruption, such as a blocking JDBC call
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < deadline) Thread.yield();
+            returned.set(true);
+            return "a";
+        }).start();
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        prefetcher.close();
+        // The data source can be closed safely
+        assertTrue(returned.get());
+        assertNull(prefetcher.take());
+    }
+}
@@ -174,4 +174,70 @@ public class ResultSetPagingTest extends SQLWorkbookTest {
             ps.close();
         }
     }
+
+    @Test public void testPrefetchPaging() throws SQLException, IOException {
+        String fileName = "test prefetch ResultSet Paging.xlsx",
+            sql = "select id, name, age, create_date, update_date from student";
+
+        try (Connection con = getConnection()) {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ResultSet rs = ps.executeQuery();
+            Workbook workbook = new Workbook()
+                .addSheet(new ResultSetSheet().setResultSet(rs).setPrefetch(2).setStyleProcessor((rst, style, sst)->{
+                    try {
+                        if (rst.getInt("age") > 14) {
+                            style = sst.modifyFill(style, new Fill(PatternType.solid, Color.yellow));
+                        }
+                    } catch (SQLException ex) {
+                        // Ignore
+                    }
+                    return style;
+                }))
+                .setWorkbookWriter(new ReLimitXMLWorkbookWriter());
+            workbook.writeTo(defaultTestPath.resolve(fileName));
+            rs.close();
+            ps.close();
+
+            int rowLimit = workbook.getSheetAt(0).getSheetWriter().getRowLimit();
+
+            ps = con.prepareStatement("select count(*) from student");
+            rs = ps.executeQuery();
+            int count = rs.getInt(1);
+            rs.close();
+            ps.close();
+
+            ps = con.prepareStatement(sql);
+            rs = ps.executeQuery();
+            try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve(fileName))) {
+                assertEquals(reader.getSheetCount(), (count % (rowLimit - 1) > 0 ? count / (rowLimit - 1) + 1 : count / (rowLimit - 1))); // Include header row
+
+                int n = 0;
+                for (int i = 0, len = reader.getSheetCount(); i < len; i++) {
+                    Iterator<Row> iter = reader.sheet(i).iterator();
+                    assertTrue(iter.hasNext());
+                    assertEquals("id", iter.next().getString(0));
+                    int x = 1;
+                    while (iter.hasNext()) {
+                        assertTrue(rs.next());
+                        org.ttzero.excel.reader.Row row = iter.next();
+                        n++;
+
+                        assertEquals(rs.getInt(1), (int) row.getInt(0));
+                        assertEquals(rs.getString(2), row.getString(1));
+                        assertEquals(rs.getInt(3), (int) row.getInt(2));
+
+                        Fill fill = row.getStyles().getFill(row.getCellStyle(2));
+                        if (rs.getInt(3) > 14) {
+                            assertTrue(fill != null && fill.getPatternType() == PatternType.solid && fill.getFgColor().equals(Color.yellow));
+                        } else assertTrue(fill == null || fill.getPatternType() == PatternType.none);
+                        assertTrue(++x <= rowLimit);
+                    }
+                }
+                assertEquals(count, n);
+                assertTrue(!rs.next());
+            }
+            rs.close();
+            ps.close();
+        }
+    }
 }
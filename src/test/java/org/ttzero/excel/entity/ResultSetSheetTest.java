@@ -32,10 +32,13 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.Iterator;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -754,4 +757,63 @@ public class ResultSetSheetTest extends SQLWorkbookTest {
         }
     }
 
+
+    @Test public void testExtractor() throws SQLException, IOException {
+        String fileName = "result set extractor.xlsx",
+            sql = "select id, name, age, create_date, update_date from student limit 10";
+
+        try (
+            Connection con = getConnection();
+            PreparedStatement ps = con.prepareStatement(sql);
+            ResultSet rs = ps.executeQuery()
+        ) {
+            new Workbook()
+                .addSheet(new ResultSetSheet(new Column("学号", int.class)
+                    , new ResultSetSheet.SQLColumn("姓名", Types.VARCHAR, String.class).setExtractor((rst, ri, cell) -> {
+                        String v = rst.getString(ri);
+                        if (v == null) return false;
+                        cell.setString(v.toUpperCase());
+                        return true;
+                    })
+                    , new Column("年龄", Integer.class)
+                    , new Column("创建时间", Timestamp.class)
+                    , new Column("更新", Timestamp.class)
+                ).setResultSet(rs))
+                .writeTo(defaultTestPath.resolve(fileName));
+
+            PreparedStatement ps1 = con.prepareStatement(sql);
+            ResultSet rs1 = ps1.executeQuery();
+            try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve(fileName))) {
+                Iterator<Row> iter = reader.sheet(0).iterator();
+                assertTrue(iter.hasNext());
+                assertEquals("姓名", iter.next().getString(1));
+                while (rs1.next()) {
+                    assertTrue(iter.hasNext());
+                    org.ttzero.excel.reader.Row row = iter.next();
+
+                    assertEquals(rs1.getInt(1), (int) row.getInt(0));
+                    assertEquals(rs1.getString(2).toUpperCase(), row.getString(1));
+                    assertEquals(rs1.getInt(3), (int) row.getInt(2));
+                    assertTrue(rs1.getTimestamp(4) != null ? rs1.getTimestamp(4).getTime() / 1000 == row.getTimestamp(3).getTime() / 1000 : row.getTimestamp(3) == null);
+                }
+            }
+            rs1.close();
+            ps1.close();
+        }
+    }
+
+    @Test public void testDefaultExtractor() {
+        ResultSetSheet sheet = new ResultSetSheet();
+        assertNotNull(sheet.defaultExtractor(new ResultSetSheet.SQLColumn("a", Types.INTEGER, int.class)));
+        assertNotNull(sheet.defaultExtractor(new ResultSetSheet.SQLColumn("a", Types.BIGINT, Long.class)));
+        assertNotNull(sheet.defaultExtractor(new ResultSetSheet.SQLColumn("a", Types.TIMESTAMP, Timestamp.class)));
+        // Type mismatch
+        assertNull(sheet.defaultExtractor(new ResultSetSheet.SQLColumn("a", Types.INTEGER, String.class)));
+        // Has conversion
+        ResultSetSheet.SQLColumn column = new ResultSetSheet.SQLColumn("a", Types.INTEGER, int.class);
+        column.setProcessor(n -> (int) n > 0 ? "Y" : "N");
+        assertNull(sheet.defaultExtractor(column));
+        // Vendor type
+        assertNull(sheet.defaultExtractor(new ResultSetSheet.SQLColumn("a", -101, Object.class)));
+    }
 }
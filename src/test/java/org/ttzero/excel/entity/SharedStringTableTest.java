@@ -102,6 +102,72 @@ public class SharedStringTableTest {
         }
     }
 
+    @Test public void testFindLarge() throws IOException {
+        try (SharedStringTable sst = new SharedStringTable()) {
+            // Larger than the initial capacity of hash index
+            int size = 200_000;
+            for (int i = 0; i < size; i++) {
+                assertEquals(i, sst.push("key-" + i));
+            }
+            assertEquals(size, sst.size());
+
+            for (int i = 0; i < size; i += 7) {
+                assertEquals(i, sst.find("key-" + i));
+            }
+            assertEquals(-1, sst.find("key-" + size));
+            assertEquals(-1, sst.find('k'));
+        }
+    }
+
+    @Test public void testFindDuplicate() throws IOException {
+        try (SharedStringTable sst = new SharedStringTable()) {
+            sst.push("abc");
+            sst.push('阿');
+            sst.push("abc");
+            sst.push('阿');
+            sst.push(null);
+            sst.push("");
+
+            assertEquals(6, sst.size());
+            // Returns the first index
+            assertEquals(0, sst.find("abc"));
+            assertEquals(1, sst.find('阿'));
+            assertEquals(1, sst.find("阿"));
+            assertEquals(4, sst.find(null));
+            assertEquals(4, sst.find(""));
+        }
+    }
+
+    @Test public void testFindThenPush() throws IOException {
+        try (SharedStringTable sst = new SharedStringTable()) {
+            // Push into the empty slot of the missed lookup, crossing several resizes
+            int size = 20_000;
+            for (int i = 0; i < size; i++) {
+                String key = "key-" + i;
+                assertEquals(-1, sst.find(key));
+                assertEquals(i, sst.push(key));
+                assertEquals(i, sst.find(key));
+            }
+            // "Aa" and "BB" have the same hash code
+            assertEquals(-1, sst.find("Aa"));
+            assertEquals(size, sst.push("BB"));
+            assertEquals(-1, sst.find("Aa"));
+            assertEquals(size + 1, sst.push("Aa"));
+            assertEquals(-1, sst.find('a'));
+            assertEquals(size + 2, sst.push('a'));
+            assertEquals(-1, sst.find(""));
+            assertEquals(size + 3, sst.push(""));
+
+            assertEquals(size, sst.find("BB"));
+            assertEquals(size + 1, sst.find("Aa"));
+            assertEquals(size + 2, sst.find('a'));
+            assertEquals(size + 3, sst.find(""));
+            for (int i = 0; i < size; i += 3) {
+                assertEquals(i, sst.find("key-" + i));
+            }
+        }
+    }
+
     @Test public void testNull() throws IOException {
         try (SharedStringTable sst = new SharedStringTable()) {
             int n;
@@ -83,4 +83,18 @@ public class SharedStringsTest {
             }
         }
     }
+
+    @Test public void testOverExpectedInsertions() throws IOException {
+        try (SharedStrings sst = new SharedStrings().init()) {
+            // Over 2^17 keywords are still shared
+            int size = (1 << 17) + 10_000;
+            for (int i = 0; i < size; i++) {
+                assertEquals(i, sst.get("key-" + i));
+            }
+            for (int i = 0; i < size; i += 11) {
+                assertEquals(i, sst.get("key-" + i));
+            }
+            assertEquals(size, sst.get("key-" + size));
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.entity;
+
+import org.junit.Test;
+import org.ttzero.excel.reader.ExcelReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author guanquan.wang at 2026-10-17 10:12
+ */
+public class StreamingTest extends WorkbookTest {
+
+    @Test public void testStreaming() throws IOException {
+        List<ListObjectSheetTest.Item> expectList = ListObjectSheetTest.Item.randomTestData();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        new Workbook()
+            .setStreaming(true)
+            .addSheet(new ListSheet<>(expectList))
+            .writeTo(os);
+
+        try (ExcelReader reader = ExcelReader.read(new ByteArrayInputStream(os.toByteArray()))) {
+            List<ListObjectSheetTest.Item> list = reader.sheet(0).dataRows().map(row -> row.to(ListObjectSheetTest.Item.class)).collect(Collectors.toList());
+            assertEquals(expectList.size(), list.size());
+            for (int i = 0, len = expectList.size(); i < len; i++) {
+                assertEquals(expectList.get(i), list.get(i));
+            }
+        }
+    }
+
+    @Test public void testStreamingWithAutoSize() throws IOException {
+        List<ListObjectSheetTest.Item> expectList = ListObjectSheetTest.Item.randomTestData();
+        List<ListObjectSheetTest.Student> expectList2 = ListObjectSheetTest.Student.randomTestData();
+        String fileName = "streaming auto-size.xlsx";
+        new Workbook()
+            .setStreaming(true)
+            .addSheet(new ListSheet<>("Item", expectList))
+            .addSheet(new ListSheet<>("Student", expectList2).autoSize())
+            .writeTo(getOutputTestPath().resolve(fileName).toFile());
+
+        try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve(fileName))) {
+            assertEquals(2, reader.getSheetCount());
+            List<ListObjectSheetTest.Item> list = reader.sheet(0).dataRows().map(row -> row.to(ListObjectSheetTest.Item.class)).collect(Collectors.toList());
+            assertEquals(expectList, list);
+            List<ListObjectSheetTest.Student> list2 = reader.sheet(1).dataRows().map(row -> row.to(ListObjectSheetTest.Student.class)).collect(Collectors.toList());
+            assertEquals(expectList2.size(), list2.size());
+            for (int i = 0, len = expectList2.size(); i < len; i++) {
+                ListObjectSheetTest.Student expect = expectList2.get(i);
+                expect.setId(0); // ID not exported
+                assertEquals(expect, list2.get(i));
+            }
+        }
+    }
+
+    @Test public void testStreamingPaging() throws IOException {
+        List<ListObjectSheetTest.Item> expectList = ListObjectSheetTest.Item.randomTestData(1024);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        Workbook workbook = new Workbook()
+            .setStreaming(true)
+            .addSheet(new ListSheet<>(expectList))
+            .setWorkbookWriter(new ReLimitXMLWorkbookWriter());
+        workbook.writeTo(os);
+
+        int count = expectList.size(), rowLimit = workbook.getSheetAt(0).getSheetWriter().getRowLimit() - 1; // 1 header row
+        try (ExcelReader reader = ExcelReader.read(new ByteArrayInputStream(os.toByteArray()))) {
+            assertEquals(reader.getSheetCount(), (count % rowLimit > 0 ? count / rowLimit + 1 : count / rowLimit));
+            List<ListObjectSheetTest.Item> list = reader.sheets().flatMap(org.ttzero.excel.reader.Sheet::dataRows)
+                .map(row -> row.to(ListObjectSheetTest.Item.class)).collect(Collectors.toList());
+            assertEquals(expectList, list);
+        }
+    }
+}
@@ -22,11 +22,16 @@ import org.ttzero.excel.entity.e7.XMLCellValueAndStyle;
 import org.ttzero.excel.entity.e7.XMLZebraLineCellValueAndStyle;
 import org.ttzero.excel.entity.style.Fill;
 import org.ttzero.excel.entity.style.PatternType;
+import org.ttzero.excel.reader.Cell;
 import org.ttzero.excel.reader.ExcelReader;
 
 import java.awt.Color;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import static org.junit.Assert.assertEquals;
 import static org.ttzero.excel.entity.ZebraLineTest.assertNonZebraLine;
 import static org.ttzero.excel.entity.ZebraLineTest.assertZebraLineEquals;
 
@@ -143,4 +148,29 @@ public class XMLCellValueAndStyleTest extends WorkbookTest {
             assertNonZebraLine(reader.sheet(0).header(1).rows());
         }
     }
+
+    @Test public void testOverrideSetCellValue() throws IOException {
+        List<ListObjectSheetTest.AllType> list = ListObjectSheetTest.AllType.randomTestData();
+        new Workbook()
+            .addSheet(new ListSheet<>(list).setCellValueAndStyle(new XMLCellValueAndStyle() {
+                @Override
+                public void setCellValue(Row row, Cell cell, Object e, Column hc, Class<?> clazz, boolean hasConversion) {
+                    // Primitive columns are converted by the override too
+                    if (e instanceof Number && !(e instanceof BigDecimal)) cell.setString("#" + e);
+                    else super.setCellValue(row, cell, e, hc, clazz, hasConversion);
+                }
+            }))
+            .writeTo(defaultTestPath.resolve("test override setCellValue.xlsx"));
+
+        try (ExcelReader reader = ExcelReader.read(defaultTestPath.resolve("test override setCellValue.xlsx"))) {
+            List<String> rows = reader.sheet(0).header(1).rows()
+                .map(row -> row.getString("sv") + row.getString("nv") + row.getString("lv") + row.getString("fv") + row.getString("dv"))
+                .collect(Collectors.toList());
+            assertEquals(list.size(), rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                ListObjectSheetTest.AllType o = list.get(i);
+                assertEquals("#" + o.getSv() + "#" + o.getNv() + "#" + o.getLv() + "#" + o.getFv() + "#" + o.getDv(), rows.get(i));
+            }
+        }
+    }
 }
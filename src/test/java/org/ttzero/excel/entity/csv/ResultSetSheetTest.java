@@ -24,11 +24,24 @@ import org.ttzero.excel.entity.SQLWorkbookTest;
 import org.ttzero.excel.entity.Workbook;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThrows;
 
 /**
@@ -229,4 +242,56 @@ public class ResultSetSheetTest extends SQLWorkbookTest {
                 .writeTo(getOutputTestPath().resolve("test ResultSet different type from metadata.csv"));
         }
     }
+
+    @Test public void testDateTimeColumns() throws SQLException, IOException {
+        Path path = getOutputTestPath().resolve("test ResultSet date time.csv");
+        try (Connection con = getConnection()) {
+            try (Statement st = con.createStatement()) {
+                st.execute("drop table if exists csv_date_time");
+                st.execute("create table csv_date_time(d date, t time, ts timestamp)");
+            }
+            try (PreparedStatement ps = con.prepareStatement("insert into csv_date_time(d, t, ts) values (?, ?, ?)")) {
+                ps.setDate(1, java.sql.Date.valueOf("2023-05-06"));
+                ps.setTime(2, Time.valueOf("12:34:56"));
+                ps.setTimestamp(3, Timestamp.valueOf("2023-05-06 12:34:56"));
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = con.prepareStatement("select d, t, ts from csv_date_time");
+                 ResultSet rs = ps.executeQuery()) {
+                new Workbook()
+                    .addSheet(new ResultSetSheet(timeTypeOf(rs, 2)
+                        , new Column("D", java.sql.Date.class)
+                        , new Column("T", Time.class)
+                        , new Column("TS", Timestamp.class)
+                    ))
+                    .saveAsCSV()
+                    .writeTo(path);
+            }
+        }
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("2023-05-06,12:34:56,2023-05-06 12:34:56", lines.get(1));
+    }
+
+    /**
+     * sqlite将time列报告为INTEGER，这里包装元数据使指定列的类型为{@link Types#TIME}
+     */
+    private static ResultSet timeTypeOf(ResultSet rs, int column) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        ResultSetMetaData proxyMetaData = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader()
+            , new Class<?>[] { ResultSetMetaData.class }
+            , (proxy, method, args) -> "getColumnType".equals(method.getName()) && (int) args[0] == column
+                ? Types.TIME : invoke(method, metaData, args));
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader()
+            , new Class<?>[] { ResultSet.class }
+            , (proxy, method, args) -> "getMetaData".equals(method.getName()) ? proxyMetaData : invoke(method, rs, args));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
 }
@@ -26,6 +26,7 @@ import java.nio.file.Path;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
 import static org.ttzero.excel.entity.style.Styles.INDEX_BORDER;
@@ -145,6 +146,40 @@ public class StylesTest {
         assertEquals(Styles.clearWrapText(style), style - (1 << INDEX_WRAP_TEXT));
     }
 
+    @Test public void testStyleIndex() {
+        Styles styles = Styles.create();
+        int base = styles.size();
+        // Styles differ only in the lower bits or only in the higher bits
+        int[] values = new int[4096];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i & 63) << INDEX_BORDER | (i >>> 6) << INDEX_NUMBER_FORMAT | Horizontals.CENTER;
+        }
+        for (int i = 0; i < values.length; i++) assertEquals(base + i, styles.of(values[i]));
+        for (int i = values.length - 1; i >= 0; i--) assertEquals(base + i, styles.of(values[i]));
+        for (int i = 0; i < values.length; i++) assertEquals(values[i], styles.getStyleByIndex(base + i));
+        assertEquals(base + values.length, styles.size());
+        assertEquals(0, styles.of(0));
+        assertEquals(-1, styles.getStyleByIndex(base + values.length));
+    }
+
+    @Test public void testComponentIndex() {
+        Styles styles = Styles.create();
+        int font = styles.addFont(new Font("Arial", 12, Color.RED));
+        int fill = styles.addFill(new Fill(PatternType.solid, Color.YELLOW));
+        int border = styles.addBorder(new Border(BorderStyle.DASHED, Color.BLUE));
+        int numFmt = styles.addNumFmt(new NumFmt("#,##0.000_);[Red](#,##0.000)"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(font, styles.addFont(new Font("Arial", 12, Color.RED)));
+            assertEquals(fill, styles.addFill(new Fill(PatternType.solid, Color.YELLOW)));
+            assertEquals(border, styles.addBorder(new Border(BorderStyle.DASHED, Color.BLUE)));
+            assertEquals(numFmt, styles.addNumFmt(new NumFmt("#,##0.000_);[Red](#,##0.000)")));
+        }
+        // Built-in components
+        assertEquals(0, styles.addFill(new Fill(PatternType.none)));
+        assertEquals(1 << INDEX_BORDER, styles.addBorder(new Border(BorderStyle.THIN, new Color(191, 191, 191))));
+        assertEquals(font + (1 << INDEX_FONT), styles.addFont(new Font("Arial", 13, Color.RED)));
+    }
+
     @Test public void testHas() {
         int style = (7 << INDEX_NUMBER_FORMAT) | (6 << INDEX_FONT)
                 | (5 << INDEX_FILL) | (4 << INDEX_BORDER)
@@ -243,4 +278,21 @@ public class StylesTest {
         awtFont2 = font.toAwtFont();
         assertEquals(awtFont, awtFont2);
     }
+
+    @Test public void testAddEqualsFontAndFill() {
+        Styles styles = Styles.create();
+        int i1 = styles.addFont(new Font("Arial", 11));
+        int i2 = styles.addFont(new Font("Arial", 11, Color.BLACK));
+        assertEquals(i1, i2);
+        assertEquals(new Font("Arial", 11).hashCode(), new Font("Arial", 11, Color.BLACK).hashCode());
+        // Font without name
+        assertEquals(new Font(null, 11).hashCode(), new Font(null, 11).hashCode());
+        // Fonts differing only in name
+        assertNotEquals(new Font("Arial", 11).hashCode(), new Font("Calibri", 11).hashCode());
+        assertNotEquals(i1, styles.addFont(new Font("Calibri", 11)));
+
+        int f1 = styles.addFill(new Fill(PatternType.none, Color.RED));
+        int f2 = styles.addFill(new Fill(PatternType.none, Color.BLUE));
+        assertEquals(f1, f2);
+    }
 }
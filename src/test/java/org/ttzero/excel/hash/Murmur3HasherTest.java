@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.hash;
+
+import org.junit.Test;
+import org.ttzero.excel.entity.SharedStrings;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ttzero.excel.Print.println;
+import static org.ttzero.excel.hash.StringBloomFilter.Strategy.fromBytes;
+
+/**
+ * @author guanquan.wang at 2026-10-17 19:10
+ */
+public class Murmur3HasherTest {
+
+    @Test public void testHashUtf8() {
+        Murmur3_128Hasher a = new Murmur3_128Hasher(0), b = new Murmur3_128Hasher(0);
+        Random random = new Random();
+        String[] fixed = { "", "a", "abcdefgh", "abcdefghijklmno", "abcdefghijklmnop", "abcdefghijklmnopq"
+            , "中文字符串", "😀 emoji", "\uD83D unpaired", "unpaired \uDE00", "ß߿ࠀ￿" };
+        for (String s : fixed) assertHashEquals(a, b, s);
+        for (int i = 0; i < 10_000; i++) {
+            char[] chars = new char[random.nextInt(64)];
+            for (int j = 0; j < chars.length; j++) {
+                // Mix ASCII, 2, 3 bytes and surrogates
+                switch (random.nextInt(4)) {
+                    case 0:  chars[j] = (char) random.nextInt(0x80);   break;
+                    case 1:  chars[j] = (char) (0x80 + random.nextInt(0x780)); break;
+                    case 2:  chars[j] = (char) (0xD800 + random.nextInt(0x800)); break;
+                    default: chars[j] = (char) random.nextInt(0x10000);
+                }
+            }
+            assertHashEquals(a, b, new String(chars));
+        }
+    }
+
+    /**
+     * 对比优化前后{@link SharedStrings#get(String)}每个单元格的内存分配，{@code hashUtf8}每个单元格的分配应接近0字节
+     */
+    @Test public void testAllocationPerCell() throws IOException {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) return;
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadBean.isThreadAllocatedMemorySupported()) return;
+        long tid = Thread.currentThread().getId();
+
+        int size = 100_000, loop = 5;
+        String[] keys = new String[size];
+        for (int i = 0; i < size; i++) keys[i] = "单元格_" + (i % 1000) + "_" + i;
+
+        Murmur3_128Hasher hasher = new Murmur3_128Hasher(0);
+        long sum = 0L;
+        // Warm up
+        for (int i = 0; i < size; i++) sum += oldHash(hasher, keys[i]) + hasher.hashUtf8(keys[i]).h1();
+
+        long b0 = threadBean.getThreadAllocatedBytes(tid), t0 = System.nanoTime();
+        for (int j = 0; j < loop; j++) for (int i = 0; i < size; i++) sum += oldHash(hasher, keys[i]);
+        long b1 = threadBean.getThreadAllocatedBytes(tid), t1 = System.nanoTime();
+        for (int j = 0; j < loop; j++) for (int i = 0; i < size; i++) sum += hasher.hashUtf8(keys[i]).h1();
+        long b2 = threadBean.getThreadAllocatedBytes(tid), t2 = System.nanoTime();
+        println("hash: getBytes+putBytes " + (b1 - b0) / (size * loop) + " bytes/cell " + (t1 - t0) / 1000000
+            + "ms, hashUtf8 " + (b2 - b1) / (size * loop) + " bytes/cell " + (t2 - t1) / 1000000 + "ms (" + (sum & 1) + ")");
+        // hashUtf8 encodes in place and should not allocate per cell
+        assertTrue((b2 - b1) / (size * loop) < 1L);
+
+        try (SharedStrings sst = new SharedStrings().init()) {
+            for (int i = 0; i < size; i++) sst.get(keys[i]);
+            long b3 = threadBean.getThreadAllocatedBytes(tid), t3 = System.nanoTime();
+            for (int i = 0; i < size; i++) sst.get(keys[i]);
+            long b4 = threadBean.getThreadAllocatedBytes(tid), t4 = System.nanoTime();
+            println("SharedStrings.get(String): " + (b4 - b3) / size + " bytes/cell " + (t4 - t3) / 1000000 + "ms");
+        }
+    }
+
+    static long oldHash(Murmur3_128Hasher hasher, String s) {
+        byte[] bytes = hasher.clear().putBytes(s.getBytes(StandardCharsets.UTF_8)).hash();
+        return fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]);
+    }
+
+    static void assertHashEquals(Murmur3_128Hasher a, Murmur3_128Hasher b, String s) {
+        byte[] bytes = a.clear().putBytes(s.getBytes(StandardCharsets.UTF_8)).hash();
+        b.hashUtf8(s);
+        assertEquals(s, fromBytes(bytes[7], bytes[6], bytes[5], bytes[4], bytes[3], bytes[2], bytes[1], bytes[0]), b.h1());
+        assertEquals(s, fromBytes(bytes[15], bytes[14], bytes[13], bytes[12], bytes[11], bytes[10], bytes[9], bytes[8]), b.h2());
+    }
+}
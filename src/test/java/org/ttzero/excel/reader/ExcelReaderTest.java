@@ -23,7 +23,10 @@ import org.ttzero.excel.annotation.ExcelColumn;
 import org.ttzero.excel.annotation.IgnoreExport;
 import org.ttzero.excel.annotation.IgnoreImport;
 import org.ttzero.excel.annotation.RowNum;
+import org.ttzero.excel.entity.Column;
 import org.ttzero.excel.entity.ListObjectSheetTest;
+import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.entity.Workbook;
 import org.ttzero.excel.util.CSVUtil;
 import org.ttzero.excel.util.FileUtil;
 import org.ttzero.excel.util.StringUtil;
@@ -36,6 +39,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
@@ -99,6 +103,90 @@ public class ExcelReaderTest {
         }
     }
 
+    @Test public void testReadAhead() throws IOException {
+        File[] files = testResourceRoot().toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
+        if (files != null) {
+            for (File file : files) {
+                try (ExcelReader reader = ExcelReader.read(file.toPath())) {
+                    for (int i = 0; i < reader.getSheetCount(); i++) {
+                        List<String> expect = reader.sheet(i).rows().map(Row::toString).collect(Collectors.toList());
+                        Sheet sheet = reader.sheet(i).setReadAhead(2).reset();
+                        assertEquals(file.getName(), expect, sheet.rows().map(Row::toString).collect(Collectors.toList()));
+                        // Read again after reset
+                        assertEquals(file.getName(), expect, sheet.reset().rows().map(Row::toString).collect(Collectors.toList()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test public void testParallelRows() throws IOException {
+        File[] files = testResourceRoot().toFile().listFiles((dir, name) -> name.endsWith(".xlsx"));
+        if (files != null) {
+            for (File file : files) {
+                try (ExcelReader reader = ExcelReader.read(file.toPath())) {
+                    for (int i = 0; i < reader.getSheetCount(); i++) {
+                        List<String> expect = reader.sheet(i).rows().map(Row::toString).collect(Collectors.toList());
+                        assertEquals(file.getName(), expect, reader.sheet(i).reset().parallelRows().map(Row::toString).collect(Collectors.toList()));
+
+                        expect = reader.sheet(i).reset().dataRows().map(Row::toString).collect(Collectors.toList());
+                        assertEquals(file.getName(), expect, reader.sheet(i).reset().parallelDataRows().map(Row::toString).collect(Collectors.toList()));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test public void testParallelSheets() throws IOException {
+        Workbook workbook = new Workbook();
+        for (int i = 0; i < 12; i++) {
+            List<ListObjectSheetTest.Item> list = new ArrayList<>();
+            // Many distinct shared strings so that the table is loaded by pages
+            for (int j = 0; j < 3000; j++) list.add(new ListObjectSheetTest.Item(j, "month" + (i + 1) + "-" + (j * 7 % 3000)));
+            workbook.addSheet(new ListSheet<>("month" + (i + 1), list, new Column("id", "id"), new Column("name", "name", true)));
+        }
+        Path path = getOutputTestPath().resolve("parallel sheets.xlsx");
+        workbook.writeTo(path);
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            List<String> expect = reader.sheets().flatMap(sheet -> sheet.dataRows().map(Row::toString)).collect(Collectors.toList());
+            assertEquals(12 * 3000, expect.size());
+            for (int k = 0; k < 3; k++) {
+                List<String> list = reader.sheets().parallel().flatMap(sheet -> sheet.reset().dataRows().map(Row::toString)).collect(Collectors.toList());
+                assertEquals(expect, list);
+            }
+
+            // Parallel sheets and parallel rows
+            List<ListObjectSheetTest.Item> items = reader.sheets().parallel()
+                .flatMap(sheet -> sheet.reset().parallelDataRows(ListObjectSheetTest.Item.class)).collect(Collectors.toList());
+            assertEquals(expect.size(), items.size());
+            for (int i = 0; i < items.size(); i++) {
+                ListObjectSheetTest.Item item = items.get(i);
+                assertEquals(expect.get(i), item.getId() + " | " + item.getName());
+            }
+        }
+    }
+
+    @Test public void testMapSharedStrings() throws IOException {
+        Workbook workbook = new Workbook();
+        for (int i = 0; i < 4; i++) {
+            List<ListObjectSheetTest.Item> list = new ArrayList<>();
+            for (int j = 0; j < 6000; j++) list.add(new ListObjectSheetTest.Item(j, "mapped" + (i + 1) + "-" + j));
+            workbook.addSheet(new ListSheet<>("sheet" + (i + 1), list, new Column("id", "id"), new Column("name", "name", true)));
+        }
+        Path path = getOutputTestPath().resolve("map shared strings.xlsx");
+        workbook.writeTo(path);
+
+        List<String> expect;
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            expect = reader.sheets().flatMap(sheet -> sheet.dataRows().map(Row::toString)).collect(Collectors.toList());
+        }
+        try (ExcelReader reader = ExcelReader.read(path).mapSharedStrings()) {
+            List<String> list = reader.sheets().parallel().flatMap(sheet -> sheet.dataRows().map(Row::toString)).collect(Collectors.toList());
+            assertEquals(expect, list);
+        }
+    }
+
     @Test public void testColumnIndex() throws IOException {
         try (ExcelReader reader = ExcelReader.read(testResourceRoot().resolve("1.xlsx"))) {
             Sheet sheet = reader.sheet(0);
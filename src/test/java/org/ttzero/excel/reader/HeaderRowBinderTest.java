@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.junit.Test;
+import org.ttzero.excel.annotation.ExcelColumn;
+import org.ttzero.excel.entity.ListSheet;
+import org.ttzero.excel.entity.Workbook;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
+
+/**
+ * @author guanquan.wang at 2026-10-17 22:10
+ */
+public class HeaderRowBinderTest {
+
+    @Test public void testPrimitiveBinder() throws IOException {
+        List<Source> expectList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Source o = new Source();
+            // Leave some empty cells
+            if (i % 10 != 0) {
+                o.nv = i * 31 - 1000;
+                o.lv = (long) i * Integer.MAX_VALUE;
+                o.dv = i / 7.0D;
+            }
+            o.name = "name" + i;
+            o.rate = i * 0.5F;
+            expectList.add(o);
+        }
+        Path path = getOutputTestPath().resolve("primitive binder.xlsx");
+        new Workbook().addSheet(new ListSheet<>(expectList)).writeTo(path);
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            List<Target> list = reader.sheet(0).dataRows().map(row -> row.to(Target.class)).collect(Collectors.toList());
+            assertEquals(expectList.size(), list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Source expect = expectList.get(i);
+                Target o = list.get(i);
+                assertEquals(expect.nv != null ? expect.nv : 0, o.nv);
+                assertEquals(expect.lv != null ? expect.lv : 0L, o.getLv());
+                assertEquals(expect.dv != null ? expect.dv : 0.0D, o.dv, 0.000001D);
+                assertEquals(expect.name, o.getName());
+                assertEquals(expect.rate, o.rate, 0.0F);
+                // Fluent setter
+                assertEquals(expect.name, o.fluent);
+            }
+
+            // Share object
+            List<Integer> nvs = reader.sheet(0).reset().dataRows().map(row -> row.too(Target.class).nv).collect(Collectors.toList());
+            for (int i = 0; i < nvs.size(); i++) {
+                Integer nv = expectList.get(i).nv;
+                assertEquals(nv != null ? nv : 0, (int) nvs.get(i));
+            }
+        }
+    }
+
+    @Test public void testParallelBinder() throws IOException {
+        List<Source> expectList = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            Source o = new Source();
+            if (i % 10 != 0) o.nv = i;
+            o.name = "name" + (i % 1000);
+            o.rate = i * 0.5F;
+            expectList.add(o);
+        }
+        Path path = getOutputTestPath().resolve("parallel binder.xlsx");
+        new Workbook().addSheet(new ListSheet<>(expectList)).writeTo(path);
+
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            List<Target> list = reader.sheet(0).parallelDataRows(Target.class).collect(Collectors.toList());
+            assertEquals(expectList.size(), list.size());
+            for (int i = 0; i < list.size(); i++) {
+                Source expect = expectList.get(i);
+                Target o = list.get(i);
+                assertEquals(expect.nv != null ? expect.nv : 0, o.nv);
+                assertEquals(expect.name, o.getName());
+                assertEquals(expect.rate, o.rate, 0.0F);
+            }
+
+            // Unordered
+            long sum = reader.sheet(0).reset().parallelDataRows(Target.class).unordered().mapToLong(o -> o.nv).sum();
+            assertEquals(expectList.stream().mapToLong(o -> o.nv != null ? o.nv : 0).sum(), sum);
+        }
+    }
+
+    @Test public void testBinders() throws IOException {
+        Path path = getOutputTestPath().resolve("primitive binder.xlsx");
+        if (!path.toFile().exists()) testPrimitiveBinder();
+        try (ExcelReader reader = ExcelReader.read(path)) {
+            Sheet sheet = reader.sheet(0);
+            Row row = sheet.getHeader();
+            assertTrue(row instanceof HeaderRow);
+            HeaderRow headerRow = (HeaderRow) row;
+            headerRow.setClass(Target.class);
+            assertNotNull(headerRow.binders);
+            assertEquals(headerRow.getColumns().length, headerRow.binders.length);
+            for (HeaderRow.ColumnBinder binder : headerRow.binders) assertNotNull(binder);
+
+            // Subclass overwrite fieldPut
+            HeaderRow custom = new HeaderRow() {
+                @Override
+                protected void fieldPut(int i, Row row, Object t) throws IllegalAccessException {
+                    super.fieldPut(i, row, t);
+                }
+            }.with(headerRow);
+            custom.setClass(Target.class);
+            assertNull(custom.binders);
+        }
+    }
+
+    public static class Source {
+        @ExcelColumn
+        private Integer nv;
+        @ExcelColumn
+        private Long lv;
+        @ExcelColumn
+        private Double dv;
+        @ExcelColumn
+        private String name;
+        @ExcelColumn
+        private float rate;
+        @ExcelColumn("fluent")
+        public String getFluent() {
+            return name;
+        }
+    }
+
+    public static class Target {
+        // Field only
+        @ExcelColumn
+        private int nv;
+        @ExcelColumn
+        private long lv;
+        @ExcelColumn
+        private double dv;
+        @ExcelColumn
+        private String name;
+        @ExcelColumn
+        private float rate;
+        private String fluent;
+
+        public void setLv(long lv) {
+            this.lv = lv;
+        }
+
+        public long getLv() {
+            return lv;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @ExcelColumn("fluent")
+        public Target setFluent(String fluent) {
+            this.fluent = fluent;
+            return this;
+        }
+    }
+}
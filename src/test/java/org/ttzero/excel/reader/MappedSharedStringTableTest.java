@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.reader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.ttzero.excel.entity.WorkbookTest.getRandomString;
+
+/**
+ * @author guanquan.wang at 2026-10-18 04:50
+ */
+public class MappedSharedStringTableTest {
+
+    @Test public void testPushAndGet() throws IOException {
+        String[] values = { "abc", "", "中文", "An 😀awesome 😃string", "" };
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(i, sst.push(values[i]));
+            }
+            sst.map();
+            assertEquals(values.length, sst.size());
+            for (int i = values.length - 1; i >= 0; i--) {
+                assertEquals(values[i], sst.get(i));
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class) public void testOutOfBounds() throws IOException {
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            sst.push("a");
+            sst.map().get(1);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class) public void testPushAfterMap() throws IOException {
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            sst.map().push("a");
+        }
+    }
+
+    @Test(expected = IllegalStateException.class) public void testGetAfterClose() throws IOException {
+        MappedSharedStringTable sst = new MappedSharedStringTable();
+        sst.push("a");
+        sst.map().close();
+        sst.get(0);
+    }
+
+    @Test public void testConcurrentGet() throws IOException {
+        List<String> list = new ArrayList<>();
+        try (MappedSharedStringTable sst = new MappedSharedStringTable()) {
+            for (int i = 0; i < 50000; i++) {
+                String v = getRandomString();
+                list.add(v);
+                sst.push(v);
+            }
+            sst.map();
+            IntStream.range(0, list.size()).parallel().forEach(i -> assertEquals(list.get(i), sst.get(i)));
+        }
+    }
+}
@@ -24,8 +24,10 @@ import org.ttzero.excel.util.ExtBufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.ttzero.excel.entity.WorkbookTest.getOutputTestPath;
@@ -65,6 +67,33 @@ public class SharedStringsTest {
         }
     }
 
+    @Test public void testMapped() throws IOException {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) list.add(i % 100 == 0 ? "" : getRandomString() + "中文");
+        writeTestData(list);
+        try (SharedStrings sst = new SharedStrings(Files.newInputStream(path), 0, 0).setMapped(true).load()) {
+            // Random access
+            Random random = new Random();
+            for (int i = 0; i < 10000; i++) {
+                int index = random.nextInt(list.size());
+                assertEquals(list.get(index), sst.get(index));
+            }
+            checkTrue(sst, list);
+        }
+    }
+
+    @Test public void testMappedAfterGet() throws IOException {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) list.add(getRandomString() + i);
+        writeTestData(list);
+        try (SharedStrings sst = new SharedStrings(Files.newInputStream(path), 0, 0).load()) {
+            assertEquals(list.get(30000), sst.get(30000));
+            // Ignored after the first access
+            sst.setMapped(true);
+            checkTrue(sst, list);
+        }
+    }
+
     @Test public void testEscape2() {
         char[] chars = "&lt;tag&gt;,random&amp;more,with&quot;signs&quot;,random&amp;more,&abcd;352,&lt;this will be escaped &#x1f601;&gt;,An &#128512;awesome &#128515;string with a few &#x1f609;emojis!".toCharArray();
         String desc = SharedStrings.escape(chars, 0, chars.length);
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-17 21:40
+ */
+public class AccessorFactoryTest {
+
+    @Test public void testPublicGetter() throws ReflectiveOperationException {
+        Bean bean = new Bean();
+        Function<Object, Object> name = AccessorFactory.getter(Bean.class.getMethod("getName"));
+        assertNotNull(name);
+        assertEquals("eec", name.apply(bean));
+
+        // Boxed value
+        Function<Object, Object> id = AccessorFactory.getter(Bean.class.getMethod("getId"));
+        assertNotNull(id);
+        assertEquals(12, id.apply(bean));
+
+        ToIntFunction<Object> intId = AccessorFactory.intGetter(Bean.class.getMethod("getId"));
+        assertNotNull(intId);
+        assertEquals(12, intId.applyAsInt(bean));
+
+        ToIntFunction<Object> age = AccessorFactory.intGetter(Bean.class.getMethod("getAge"));
+        assertNotNull(age);
+        assertEquals(3, age.applyAsInt(bean));
+
+        ToLongFunction<Object> size = AccessorFactory.longGetter(Bean.class.getMethod("getSize"));
+        assertNotNull(size);
+        assertEquals(Long.MAX_VALUE, size.applyAsLong(bean));
+
+        ToDoubleFunction<Object> price = AccessorFactory.doubleGetter(Bean.class.getMethod("getPrice"));
+        assertNotNull(price);
+        assertEquals(0.1D, price.applyAsDouble(bean), 0.0D);
+
+        ToDoubleFunction<Object> rate = AccessorFactory.doubleGetter(Bean.class.getMethod("getRate"));
+        assertNotNull(rate);
+        assertEquals((double) 1.3F, rate.applyAsDouble(bean), 0.0D);
+        // Each public getter is spun into its own class, the method handle fallback shares one class
+        assertNotSame(name.getClass(), AccessorFactory.getter(Bean.class.getMethod("getFail")).getClass());
+        println(name.getClass() + ", " + intId.getClass());
+    }
+
+    @Test public void testPrivateMember() throws ReflectiveOperationException {
+        Bean bean = new Bean();
+        Method method = Bean.class.getDeclaredMethod("secret");
+        Function<Object, Object> secret = AccessorFactory.getter(method);
+        assertNotNull(secret);
+        assertEquals("secret", secret.apply(bean));
+
+        Field field = Bean.class.getDeclaredField("id");
+        ToIntFunction<Object> id = AccessorFactory.intGetter(field);
+        assertNotNull(id);
+        assertEquals(12, id.applyAsInt(bean));
+
+        // Private class
+        Field hidden = Hidden.class.getDeclaredField("value");
+        ToLongFunction<Object> value = AccessorFactory.longGetter(hidden);
+        assertNotNull(value);
+        assertEquals(5L, value.applyAsLong(new Hidden()));
+        Function<Object, Object> getValue = AccessorFactory.getter(Hidden.class.getMethod("getValue"));
+        assertNotNull(getValue);
+        assertEquals(5L, getValue.apply(new Hidden()));
+    }
+
+    @Test public void testUnsupported() throws ReflectiveOperationException {
+        // Not an int type
+        assertNull(AccessorFactory.intGetter(Bean.class.getMethod("getSize")));
+        assertNull(AccessorFactory.longGetter(Bean.class.getMethod("getName")));
+        // Static and parameterized methods
+        assertNull(AccessorFactory.getter(Bean.class.getMethod("of")));
+        assertNull(AccessorFactory.getter(Bean.class.getMethod("plus", int.class)));
+        assertNull(AccessorFactory.getter(Bean.class.getMethod("clear")));
+    }
+
+    @Test public void testSetter() throws ReflectiveOperationException {
+        Bean bean = new Bean();
+        ObjIntConsumer<Object> id = AccessorFactory.intSetter(Bean.class.getMethod("setId", int.class));
+        assertNotNull(id);
+        id.accept(bean, 99);
+        assertEquals(99, bean.getId());
+
+        BiConsumer<Object, Object> name = AccessorFactory.setter(Bean.class.getMethod("setName", String.class));
+        assertNotNull(name);
+        name.accept(bean, "abc");
+        assertEquals("abc", bean.getName());
+
+        // Unboxing
+        BiConsumer<Object, Object> boxed = AccessorFactory.setter(Bean.class.getMethod("setId", int.class));
+        assertNotNull(boxed);
+        boxed.accept(bean, 7);
+        assertEquals(7, bean.getId());
+
+        ObjLongConsumer<Object> size = AccessorFactory.longSetter(Bean.class.getDeclaredField("size"));
+        assertNotNull(size);
+        size.accept(bean, 5L);
+        assertEquals(5L, bean.getSize());
+
+        ObjDoubleConsumer<Object> price = AccessorFactory.doubleSetter(Bean.class.getDeclaredField("price"));
+        assertNotNull(price);
+        price.accept(bean, 2.5D);
+        assertEquals(2.5D, bean.getPrice(), 0.0D);
+
+        // Type mismatch
+        assertNull(AccessorFactory.intSetter(Bean.class.getDeclaredField("size")));
+        assertNull(AccessorFactory.doubleSetter(Bean.class.getDeclaredField("rate")));
+    }
+
+    @Test public void testCache() throws ReflectiveOperationException {
+        Method method = Bean.class.getMethod("getName");
+        assertSame(AccessorFactory.getter(method), AccessorFactory.getter(method));
+    }
+
+    @Test public void testException() throws ReflectiveOperationException {
+        Function<Object, Object> fail = AccessorFactory.getter(Bean.class.getMethod("getFail"));
+        assertNotNull(fail);
+        try {
+            fail.apply(new Bean());
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("fail", e.getMessage());
+        }
+    }
+
+    public static class Bean {
+        private int id = 12;
+        private short age = 3;
+        private String name = "eec";
+        private long size = Long.MAX_VALUE;
+        private double price = 0.1D;
+        private float rate = 1.3F;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public Bean setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public short getAge() {
+            return age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+
+        public float getRate() {
+            return rate;
+        }
+
+        public String getFail() {
+            throw new IllegalStateException("fail");
+        }
+
+        private String secret() {
+            return "secret";
+        }
+
+        public int plus(int n) {
+            return id + n;
+        }
+
+        public void clear() {
+            id = 0;
+        }
+
+        public static Bean of() {
+            return new Bean();
+        }
+    }
+
+    private static class Hidden {
+        private long value = 5L;
+
+        public long getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+import org.ttzero.excel.entity.ListObjectSheetTest;
+
+import java.beans.IntrospectionException;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author guanquan.wang at 2026-10-17 22:50
+ */
+public class ClassMetadataTest {
+
+    @Test public void testSameAsReflect() throws IntrospectionException {
+        Class<?> clazz = ListObjectSheetTest.AllType.class;
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        assertSame(metadata, ClassMetadata.of(clazz));
+
+        assertArrayEquals(ReflectUtil.listDeclaredFieldsUntilJavaPackage0(clazz, Object.class), metadata.getDeclaredFields());
+        assertEquals(Arrays.asList(ReflectUtil.listDeclaredMethods0(clazz, Object.class)), Arrays.asList(metadata.getDeclaredMethods()));
+        assertEquals(ReflectUtil.readMethodsMap0(clazz, Object.class), metadata.getReadMethods());
+        assertEquals(ReflectUtil.writeMethodsMap0(clazz, Object.class), metadata.getWriteMethods());
+
+        // Reuse the cached instances
+        Field[] a = ReflectUtil.listDeclaredFieldsUntilJavaPackage(clazz), b = ReflectUtil.listDeclaredFieldsUntilJavaPackage(clazz);
+        assertNotSame(a, b);
+        for (int i = 0; i < a.length; i++) assertSame(a[i], b[i]);
+    }
+
+    @Test public void testCopy() throws IntrospectionException {
+        Class<?> clazz = ListObjectSheetTest.AllType.class;
+        Field[] fields = ClassMetadata.of(clazz).getDeclaredFields();
+        int size = fields.length;
+        fields[0] = null;
+        assertEquals(size, ClassMetadata.of(clazz).getDeclaredFields().length);
+        assertTrue(ClassMetadata.of(clazz).getDeclaredFields()[0] != null);
+
+        Map<String, Method> readMethods = ClassMetadata.of(clazz).getReadMethods();
+        int n = readMethods.size();
+        readMethods.clear();
+        assertEquals(n, ClassMetadata.of(clazz).getReadMethods().size());
+
+        Map<String, AccessibleObject> properties = ClassMetadata.of(clazz).getProperties();
+        // All fields are readable
+        for (Field f : fields) if (f != null) assertTrue(properties.containsKey(f.getName()));
+    }
+
+    @Test public void testInvalidate() throws ReflectiveOperationException {
+        Class<?> clazz = ListObjectSheetTest.AllType.class;
+        ClassMetadata metadata = ClassMetadata.of(clazz);
+        Function<Object, Object> getter = AccessorFactory.getter(clazz.getDeclaredField("nv"));
+        assertSame(getter, AccessorFactory.getter(clazz.getDeclaredField("nv")));
+
+        ClassMetadata.invalidate(clazz);
+        assertNotSame(metadata, ClassMetadata.of(clazz));
+        // Accessors are dropped together
+        assertNotSame(getter, AccessorFactory.getter(clazz.getDeclaredField("nv")));
+
+        metadata = ClassMetadata.of(clazz);
+        ClassMetadata.invalidateAll();
+        assertNotSame(metadata, ClassMetadata.of(clazz));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-17 21:20
+ */
+public class DoubleToDecimalTest {
+
+    @Test public void testSpecial() {
+        double[] values = { 0.0D, -0.0D, 1.0D, -1.0D, 0.1D, 0.001D, 0.0001D, 1.0E7D, 9999999.0D, 1.0E-3D
+            , 123456789012345678.0D, Double.MAX_VALUE, Double.MIN_VALUE, Double.MIN_NORMAL, Double.NaN
+            , Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 4.9E-324D, 2.0E-3D, 45678.5D };
+        for (double d : values) {
+            assertEquals(Double.toString(d), DoubleToDecimal.toString(d));
+        }
+        // The shortest decimal, the JDK before 19 outputs 9.999999999999999E22
+        assertEquals("1.0E23", DoubleToDecimal.toString(1.0E23D));
+    }
+
+    @Test public void testCommonValues() {
+        Random random = new Random();
+        for (int i = 0; i < 1_000_000; i++) {
+            // Money, date serials and integers
+            double money = random.nextInt(100_000_000) / 100.0D
+                , date = 25569.0D + random.nextInt(30000) + random.nextInt(86400) / 86400.0D
+                , integer = random.nextLong() >> (11 + random.nextInt(53));
+            assertEquals(Double.toString(money), DoubleToDecimal.toString(money));
+            assertEquals(Double.toString(date), DoubleToDecimal.toString(date));
+            assertEquals(Double.toString(integer), DoubleToDecimal.toString(integer));
+        }
+    }
+
+    @Test public void testRoundTrip() {
+        Random random = new Random();
+        int diff = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (Double.isNaN(d)) continue;
+            String expect = Double.toString(d), s = DoubleToDecimal.toString(d);
+            assertEquals(s, d, Double.parseDouble(s), 0.0D);
+            // The JDK before 19 does not always output the shortest decimal
+            if (!expect.equals(s)) {
+                assertTrue(expect + " " + s, s.length() <= expect.length());
+                diff++;
+            }
+            d = random.nextDouble() * Math.pow(10, random.nextInt(20) - 10);
+            s = DoubleToDecimal.toString(d);
+            assertEquals(s, d, Double.parseDouble(s), 0.0D);
+        }
+        println("Differs from Double.toString: " + diff);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author guanquan.wang at 2026-10-18 03:40
+ */
+public class ReadAheadInputStreamTest {
+
+    @Test public void testReadAll() throws IOException {
+        Random random = new Random();
+        for (int size : new int[] { 0, 1, 100, 1024, 1025, 100000 }) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            try (InputStream is = new ReadAheadInputStream(new Utf8ReaderTest.TrickleInputStream(bytes, random), 2, 1024)) {
+                ByteArrayOutputStream os = new ByteArrayOutputStream();
+                byte[] buf = new byte[random.nextInt(2000) + 1];
+                for (int n; (n = is.read(buf)) >= 0; ) os.write(buf, 0, n);
+                assertArrayEquals(bytes, os.toByteArray());
+                assertEquals(-1, is.read());
+            }
+        }
+    }
+
+    @Test public void testException() throws IOException {
+        InputStream source = new InputStream() {
+            int n;
+            @Override public int read() throws IOException {
+                if (n++ >= 5000) throw new IOException("Broken");
+                return 'a';
+            }
+        };
+        try (InputStream is = new ReadAheadInputStream(source, 2, 1024)) {
+            byte[] buf = new byte[100];
+            IOException e = assertThrows(IOException.class, () -> { for (int n; (n = is.read(buf)) >= 0; ) ; });
+            assertEquals("Broken", e.getMessage());
+        }
+    }
+
+    @Test public void testCloseEarly() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        byte[] bytes = new byte[1 << 20];
+        InputStream is = new ReadAheadInputStream(new ByteArrayInputStream(bytes) {
+            @Override public void close() {
+                closed.set(true);
+            }
+        }, 2, 1024);
+        assertEquals(0, is.read());
+        is.close();
+        assertTrue(closed.get());
+        assertThrows(IOException.class, is::read);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-17 20:40
+ */
+public class Utf8BufferedWriterTest {
+
+    @Test public void testSameAsExtBufferedWriter() throws IOException {
+        Random random = new Random();
+        for (int k = 0; k < 20; k++) {
+            ByteArrayOutputStream expect = new ByteArrayOutputStream(), actual = new ByteArrayOutputStream();
+            // Small buffer to cover the flush boundary
+            try (ExtBufferedWriter a = new ExtBufferedWriter(new OutputStreamWriter(expect, StandardCharsets.UTF_8));
+                 ExtBufferedWriter b = new Utf8BufferedWriter(actual, 64)) {
+                for (int i = 0; i < 2000; i++) {
+                    String s = randomString(random);
+                    int n = random.nextInt();
+                    long l = random.nextLong();
+                    char c = (char) random.nextInt(0x10000);
+                    double d = random.nextDouble() * n;
+                    switch (random.nextInt(10)) {
+                        case 0: a.write(s); b.write(s); break;
+                        case 1: a.escapeWrite(s); b.escapeWrite(s); break;
+                        case 2: a.writeInt(n); b.writeInt(n); break;
+                        case 3: a.write(l); b.write(l); break;
+                        case 4: a.escapeWrite(c); b.escapeWrite(c); break;
+                        case 5: a.writeAscii(s.getBytes(StandardCharsets.US_ASCII)); b.writeAscii(s.getBytes(StandardCharsets.US_ASCII)); break;
+                        case 6: a.write(d); b.write(d); break;
+                        case 7: a.write(s.toCharArray()); b.write(s.toCharArray()); break;
+                        case 8: a.writeUTF8(s.toCharArray(), 0, s.length()); b.writeUTF8(s.toCharArray(), 0, s.length()); break;
+                        default: a.writeInt(n % 1000); b.writeInt(n % 1000); a.newLine(); b.newLine();
+                    }
+                }
+                a.writeInt(Integer.MIN_VALUE); b.writeInt(Integer.MIN_VALUE);
+                a.write(Long.MIN_VALUE); b.write(Long.MIN_VALUE);
+                a.write(Long.MAX_VALUE); b.write(Long.MAX_VALUE);
+                a.writeInt(0); b.writeInt(0);
+            }
+            assertArrayEquals(expect.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test public void testPendingSurrogateAcrossEmptyWrite() throws IOException {
+        ByteArrayOutputStream expect = new ByteArrayOutputStream(), actual = new ByteArrayOutputStream();
+        try (ExtBufferedWriter a = new ExtBufferedWriter(new OutputStreamWriter(expect, StandardCharsets.UTF_8));
+             ExtBufferedWriter b = new Utf8BufferedWriter(actual, 64)) {
+            for (ExtBufferedWriter w : new ExtBufferedWriter[] { a, b }) {
+                w.write("a\uD83D");
+                w.escapeWrite("");
+                w.writeAscii(new byte[0]);
+                w.writeUTF8(new char[0], 0, 0);
+                w.write("\uDE00b");
+            }
+        }
+        assertArrayEquals(expect.toByteArray(), actual.toByteArray());
+    }
+
+    /**
+     * 对比两种输出方式的吞吐量
+     */
+    @Test public void testThroughput() throws IOException {
+        String[] texts = { "订单号", "abc&def", "Status<1>", "普通文本 text", "😀 emoji" };
+        for (int k = 0; k < 2; k++) {
+            long t0 = System.nanoTime();
+            try (ExtBufferedWriter bw = new ExtBufferedWriter(new OutputStreamWriter(new ByteArrayOutputStream(), StandardCharsets.UTF_8))) {
+                writeCells(bw, texts);
+            }
+            long t1 = System.nanoTime();
+            try (ExtBufferedWriter bw = new Utf8BufferedWriter(new ByteArrayOutputStream())) {
+                writeCells(bw, texts);
+            }
+            long t2 = System.nanoTime();
+            println("ExtBufferedWriter " + (t1 - t0) / 1000000 + "ms, Utf8BufferedWriter " + (t2 - t1) / 1000000 + "ms");
+        }
+    }
+
+    static void writeCells(ExtBufferedWriter bw, String[] texts) throws IOException {
+        for (int r = 1; r <= 100_000; r++) {
+            bw.write("<row r=\"");
+            bw.writeInt(r);
+            bw.write("\">");
+            for (int c = 0; c < 5; c++) {
+                bw.write("<c r=\"");
+                bw.write((char) ('A' + c));
+                bw.writeInt(r);
+                bw.write("\" t=\"inlineStr\"><is><t>");
+                bw.escapeWrite(texts[c]);
+                bw.write("</t></is></c>");
+            }
+            bw.write("</row>");
+        }
+    }
+
+    static String randomString(Random random) {
+        char[] chars = new char[random.nextInt(40)];
+        for (int i = 0; i < chars.length; i++) {
+            switch (random.nextInt(5)) {
+                case 0: chars[i] = (char) random.nextInt(0x80); break;
+                case 1: chars[i] = (char) (0x80 + random.nextInt(0x780)); break;
+                case 2: chars[i] = (char) (0xD800 + random.nextInt(0x800)); break;
+                case 3: chars[i] = "<>&\"\t\n".charAt(random.nextInt(6)); break;
+                default: chars[i] = (char) random.nextInt(0x10000);
+            }
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-18 02:50
+ */
+public class Utf8ReaderTest {
+
+    @Test public void testSameAsInputStreamReader() throws IOException {
+        Random random = new Random();
+        for (int k = 0; k < 50; k++) {
+            StringBuilder buf = new StringBuilder();
+            for (int i = 0; i < 500; i++) {
+                switch (random.nextInt(6)) {
+                    case 0: buf.append("<c r=\"A").append(i).append("\"><v>").append(random.nextDouble()).append("</v></c>"); break;
+                    case 1: buf.append("中文汉字"); break;
+                    case 2: buf.append("😀"); break;
+                    case 3: buf.append("é€"); break;
+                    default: buf.appendCodePoint(random.nextInt(0x110000));
+                }
+            }
+            byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+            String expect = read(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), 8192);
+            // Small buffer and odd read lengths to cover the sequence boundary
+            assertEquals(expect, read(new Utf8Reader(new TrickleInputStream(bytes, random), 16), 1));
+            assertEquals(expect, read(new Utf8Reader(new TrickleInputStream(bytes, random), 17), 3));
+            assertEquals(expect, read(new Utf8Reader(new ByteArrayInputStream(bytes)), 8192));
+        }
+    }
+
+    @Test public void testMalformed() throws IOException {
+        byte[][] cases = {
+            { 'a', (byte) 0x80, 'b' },
+            { 'a', (byte) 0xC0, (byte) 0xAF, 'b' },
+            { 'a', (byte) 0xE0, (byte) 0x80, (byte) 0x80, 'b' },
+            { 'a', (byte) 0xED, (byte) 0xA0, (byte) 0x80, 'b' },
+            { 'a', (byte) 0xE4, (byte) 0xB8, 'b' },
+            { 'a', (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80, 'b' },
+            { 'a', (byte) 0xFF, 'b' },
+            { 'a', (byte) 0xE4, (byte) 0xB8 },
+            { 'a', (byte) 0xF0, (byte) 0x9F, (byte) 0x98 },
+            { 'a', (byte) 0xE4, 'b', (byte) 0xB8 },
+        };
+        for (byte[] bytes : cases) {
+            String expect = read(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), 8192);
+            assertEquals(expect, read(new Utf8Reader(new ByteArrayInputStream(bytes), 16), 1));
+            assertEquals(expect, read(new Utf8Reader(new ByteArrayInputStream(bytes)), 8192));
+        }
+    }
+
+    @Test public void testDecodeBenchmark() throws IOException {
+        StringBuilder buf = new StringBuilder();
+        Random random = new Random(17);
+        for (int r = 1; r <= 100000; r++) {
+            buf.append("<row r=\"").append(r).append("\"><c r=\"A").append(r).append("\"><v>").append(random.nextInt())
+                .append("</v></c><c r=\"B").append(r).append("\" t=\"inlineStr\"><is><t>名称").append(r).append("</t></is></c></row>");
+        }
+        byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 3; i++) {
+            long t0 = System.nanoTime();
+            String a = read(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8), 8192);
+            long t1 = System.nanoTime();
+            String b = read(new Utf8Reader(new ByteArrayInputStream(bytes)), 8192);
+            long t2 = System.nanoTime();
+            assertEquals(a, b);
+            println("InputStreamReader " + (t1 - t0) / 1000000 + "ms, Utf8Reader " + (t2 - t1) / 1000000 + "ms");
+        }
+    }
+
+    static String read(Reader reader, int len) throws IOException {
+        StringBuilder buf = new StringBuilder();
+        char[] cb = new char[len];
+        try (Reader r = reader) {
+            for (int n; (n = r.read(cb, 0, len)) >= 0; ) buf.append(cb, 0, n);
+        }
+        return buf.toString();
+    }
+
+    /**
+     * Returns a few bytes per read
+     */
+    static class TrickleInputStream extends InputStream {
+        final byte[] bytes;
+        final Random random;
+        int position;
+
+        TrickleInputStream(byte[] bytes, Random random) {
+            this.bytes = bytes;
+            this.random = random;
+        }
+
+        @Override public int read() {
+            return position < bytes.length ? bytes[position++] & 0xFF : -1;
+        }
+
+        @Override public int read(byte[] b, int off, int len) {
+            if (position >= bytes.length) return -1;
+            int n = Math.min(Math.min(len, random.nextInt(5) + 1), bytes.length - position);
+            System.arraycopy(bytes, position, b, off, n);
+            position += n;
+            return n;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2017-2023, guanquan.wang@yandex.com All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ttzero.excel.util;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.ttzero.excel.Print.println;
+
+/**
+ * @author guanquan.wang at 2026-10-17 16:40
+ */
+public class ZipUtilTest {
+    private static ExecutorService executor;
+    private static Path root;
+
+    @BeforeClass public static void setUp() throws IOException {
+        executor = Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors(), 2));
+        root = FileUtil.mktmp("eec-zip-test");
+        Path xl = Files.createDirectories(root.resolve("xl/worksheets"));
+        Files.write(xl.getParent().resolve("empty.xml"), new byte[0]);
+        Files.write(xl.getParent().resolve("styles.xml"), "<styleSheet/>".getBytes(StandardCharsets.UTF_8));
+        // About 5MB worksheet
+        Random random = new Random(17);
+        try (BufferedWriter writer = Files.newBufferedWriter(xl.resolve("sheet1.xml"))) {
+            writer.write("<worksheet><sheetData>");
+            for (int r = 1; r <= 30000; r++) {
+                writer.write("<row r=\"" + r + "\">");
+                writer.write("<c r=\"A" + r + "\" t=\"n\"><v>" + random.nextInt() + "</v></c>");
+                writer.write("<c r=\"B" + r + "\" t=\"inlineStr\"><is><t>" + Long.toHexString(random.nextLong()) + "</t></is></c>");
+                writer.write("<c r=\"C" + r + "\" t=\"n\"><v>" + random.nextDouble() + "</v></c>");
+                writer.write("</row>");
+            }
+            writer.write("</sheetData></worksheet>");
+        }
+        // Incompressible data
+        byte[] bytes = new byte[(1 << 20) + 123];
+        random.nextBytes(bytes);
+        Files.write(xl.resolve("random.bin"), bytes);
+    }
+
+    @AfterClass public static void tearDown() {
+        executor.shutdown();
+        FileUtil.rm_rf(root.toFile(), true);
+    }
+
+    @Test public void testCrc32Combine() {
+        byte[] bytes = new byte[100000];
+        new Random().nextBytes(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        for (int i : new int[] { 0, 1, 31, 32768, 99999, 100000 }) {
+            CRC32 a = new CRC32(), b = new CRC32();
+            a.update(bytes, 0, i);
+            b.update(bytes, i, bytes.length - i);
+            assertEquals(crc.getValue(), ParallelZipWriter.crc32Combine(a.getValue(), b.getValue(), bytes.length - i));
+        }
+    }
+
+    @Test public void testParallelZip() throws IOException {
+        Path expect = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-expect"), 5, root)
+            , actual = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-parallel"), 5, executor, root);
+        try {
+            Map<String, byte[]> expectEntries = readByZipFile(expect);
+            assertEquals(4, expectEntries.size());
+            assertEntriesEquals(expectEntries, readByZipFile(actual));
+            assertEntriesEquals(expectEntries, readByZipStream(actual));
+        } finally {
+            Files.deleteIfExists(expect);
+            Files.deleteIfExists(actual);
+        }
+    }
+
+    @Test public void testCompressionPolicy() throws IOException {
+        // Store the incompressible data and speed up the worksheet
+        CompressionPolicy policy = (name, path, level) -> name.endsWith(".bin") ? CompressionPolicy.STORED
+            : name.startsWith("xl/worksheets/") ? 1 : level;
+        Path expect = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-expect"), 9, root)
+            , serial = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-policy"), 9, null, policy, root)
+            , parallel = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-policy-parallel"), 9, executor, policy, root);
+        try {
+            Map<String, byte[]> expectEntries = readByZipFile(expect);
+            for (Path actual : new Path[] { serial, parallel }) {
+                assertEntriesEquals(expectEntries, readByZipFile(actual));
+                assertEntriesEquals(expectEntries, readByZipStream(actual));
+                try (ZipFile zipFile = new ZipFile(actual.toFile())) {
+                    ZipEntry entry = zipFile.getEntry("xl/worksheets/random.bin");
+                    assertEquals(ZipEntry.STORED, entry.getMethod());
+                    assertEquals(entry.getSize(), entry.getCompressedSize());
+                    assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("xl/worksheets/sheet1.xml").getMethod());
+                }
+            }
+        } finally {
+            Files.deleteIfExists(expect);
+            Files.deleteIfExists(serial);
+            Files.deleteIfExists(parallel);
+        }
+    }
+
+    /**
+     * 对比单线程和并行压缩在各压缩等级下的耗时和压缩后大小
+     */
+    @Ignore
+    @Test public void testCompressionBenchmark() throws IOException {
+        Map<String, byte[]> expectEntries = null;
+        for (int level = 0; level <= 9; level++) {
+            long t0 = System.nanoTime();
+            Path expect = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-expect-" + level), level, root);
+            long t1 = System.nanoTime();
+            Path actual = ZipUtil.zipExcludeRoot(root.getParent().resolve("eec-zip-parallel-" + level), level, executor, root);
+            long t2 = System.nanoTime();
+            try {
+                println("level " + level + ": zipExcludeRoot " + (t1 - t0) / 1000000 + "ms " + Files.size(expect)
+                    + " bytes, parallel " + (t2 - t1) / 1000000 + "ms " + Files.size(actual) + " bytes");
+                if (expectEntries == null) expectEntries = readByZipFile(expect);
+                assertEntriesEquals(expectEntries, readByZipFile(actual));
+            } finally {
+                Files.deleteIfExists(expect);
+                Files.deleteIfExists(actual);
+            }
+        }
+    }
+
+    static void assertEntriesEquals(Map<String, byte[]> expect, Map<String, byte[]> actual) {
+        assertEquals(expect.keySet(), actual.keySet());
+        for (Map.Entry<String, byte[]> entry : expect.entrySet()) {
+            assertArrayEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()));
+        }
+    }
+
+    static Map<String, byte[]> readByZipFile(Path path) throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                try (InputStream is = zipFile.getInputStream(entry)) {
+                    map.put(entry.getName(), readAll(is));
+                }
+            }
+        }
+        return map;
+    }
+
+    static Map<String, byte[]> readByZipStream(Path path) throws IOException {
+        Map<String, byte[]> map = new HashMap<>();
+        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(path))) {
+            ZipEntry entry;
+            while ((entry = zis.getNextEntry()) != null) {
+                map.put(entry.getName(), readAll(zis));
+            }
+        }
+        return map;
+    }
+
+    static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        for (int n; (n = is.read(buf)) > 0; ) os.write(buf, 0, n);
+        return os.toByteArray();
+    }
+}